@@ -0,0 +1,217 @@
+package com.rescueapp.db;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Times the per-recipient notification insert (what RescueAppNotificationDAO.addNotification
+ * does for every receiver of a fan-out) three ways:
+ * <ul>
+ *   <li>conn.prepareStatement(sql) on a plain JDBC connection every call</li>
+ *   <li>RescueAppStatementCache.prepare() on that connection, a hit after the first call</li>
+ *   <li>a RescueAppConnectionPool handle, as the DAOs see it: the cache plus the
+ *       RescueAppJdbcMetrics and query cache wrappers around each statement</li>
+ * </ul>
+ * Each loop sets the same parameters and executes the insert inside a transaction that
+ * is rolled back at the end, so no rows are left behind.
+ * <p>
+ * With a MySQL URL the numbers include the server-side prepare the cache saves
+ * (the URL should set useServerPrepStmts=true, as RescueAppDbConnector does). The first
+ * user in the users table is used as the receiver.
+ * Without arguments a stub driver whose prepare and execute cost nothing is used instead;
+ * that only shows the overhead of the cache and of the pool's wrappers themselves.
+ * Run from the repository root (add the MySQL driver jar to -cp for the first form):
+ * <pre>
+ *   javac -d out $(find src bench -name '*.java')
+ *   java -cp out com.rescueapp.db.StatementCacheBench "jdbc:mysql://localhost:3306/strayanimalrescue?useServerPrepStmts=true" root animals
+ *   java -cp out com.rescueapp.db.StatementCacheBench
+ * </pre>
+ */
+public class StatementCacheBench {
+
+    private static final String INSERT_SQL = "INSERT INTO notifications (notificationId, receiverId, message, date, status) " +
+                                             "VALUES (?, ?, ?, ?, ?)";
+    private static final String STUB_URL = "jdbc:rescueapp-stub:";
+    private static final int ROUNDS = 7;
+
+    public static void main(String[] args) throws Exception {
+        String url;
+        String user;
+        String password;
+        int calls;
+        if (args.length >= 3) {
+            url = args[0];
+            user = args[1];
+            password = args[2];
+            calls = 2_000;
+        } else {
+            DriverManager.registerDriver(new StubDriver());
+            url = STUB_URL;
+            user = "";
+            password = "";
+            calls = 200_000;
+            System.out.println("No JDBC URL given: using a stub driver, so these are overheads only, not savings.");
+        }
+
+        RescueAppConnectionPool pool = new RescueAppConnectionPool(url, user, password, 1);
+        String receiver;
+        try (Connection conn = pool.borrow()) {
+            receiver = firstUserId(conn);
+        }
+
+        long uncachedBest = Long.MAX_VALUE;
+        long cachedBest = Long.MAX_VALUE;
+        long pooledBest = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) { // the first rounds warm up the JIT and the server
+            try (Connection plain = DriverManager.getConnection(url, user, password)) {
+                uncachedBest = Math.min(uncachedBest, insertLoop(plain, null, receiver, calls));
+                cachedBest = Math.min(cachedBest, insertLoop(plain, new RescueAppStatementCache(1), receiver, calls));
+            }
+            try (Connection pooled = pool.borrow()) {
+                pooledBest = Math.min(pooledBest, insertLoop(pooled, null, receiver, calls));
+            }
+        }
+        pool.shutdown();
+
+        System.out.printf("%,d notification inserts per run, best of %d runs%n", calls, ROUNDS);
+        System.out.printf("  prepareStatement every call:  %,8d ns/call%n", uncachedBest / calls);
+        System.out.printf("  statement cache hit:          %,8d ns/call%n", cachedBest / calls);
+        System.out.printf("  pooled handle with wrappers:  %,8d ns/call%n", pooledBest / calls);
+        System.out.println(RescueAppStatementCache.getStats());
+    }
+
+    /**
+     * The addNotification() body, repeated, in one transaction that is rolled back. Statements
+     * come from 'cache' when one is given, else from conn.prepareStatement. Returns elapsed ns.
+     */
+    private static long insertLoop(Connection conn, RescueAppStatementCache cache, String receiver, int calls)
+            throws SQLException {
+        conn.setAutoCommit(false);
+        try {
+            Timestamp date = new Timestamp(System.currentTimeMillis());
+            long start = System.nanoTime();
+            for (int i = 0; i < calls; i++) {
+                try (PreparedStatement ps = cache != null ? cache.prepare(conn, INSERT_SQL, conn) : conn.prepareStatement(INSERT_SQL)) {
+                    ps.setString(1, UUID.randomUUID().toString());
+                    ps.setString(2, receiver);
+                    ps.setString(3, "Benchmark notification " + i);
+                    ps.setTimestamp(4, date);
+                    ps.setString(5, "Unread");
+                    ps.executeUpdate();
+                }
+            }
+            return System.nanoTime() - start;
+        } finally {
+            conn.rollback();
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private static String firstUserId(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT userId FROM users LIMIT 1")) {
+            if (!rs.next()) {
+                throw new SQLException("The users table is empty; the benchmark needs one receiver.");
+            }
+            return rs.getString(1);
+        }
+    }
+
+    /** Answers every JDBC call without doing anything, returning a usable default. */
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return stub(PreparedStatement.class);
+                case "createStatement":
+                    return stub(Statement.class);
+                case "executeQuery":
+                    return stubResultSet();
+                case "executeUpdate":
+                    return 1;
+                case "isValid":
+                case "getAutoCommit":
+                    return true;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "stub " + type.getSimpleName();
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    /** One row with one column, for firstUserId(). */
+    private static ResultSet stubResultSet() {
+        int[] row = { 0 };
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "next":
+                            return ++row[0] == 1;
+                        case "getString":
+                            return "U1";
+                        default:
+                            return defaultValue(method.getReturnType());
+                    }
+                });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == short.class) return (short) 0;
+        if (type == byte.class) return (byte) 0;
+        if (type == double.class) return 0d;
+        if (type == float.class) return 0f;
+        return null;
+    }
+
+    private static final class StubDriver implements Driver {
+        @Override
+        public Connection connect(String url, Properties info) {
+            return acceptsURL(url) ? stub(Connection.class) : null;
+        }
+
+        @Override
+        public boolean acceptsURL(String url) {
+            return url != null && url.startsWith(STUB_URL);
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() { return 1; }
+
+        @Override
+        public int getMinorVersion() { return 0; }
+
+        @Override
+        public boolean jdbcCompliant() { return false; }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.rescueapp.db.dao;
+
+import com.rescueapp.core.Task;
+import com.rescueapp.core.User;
+
+import java.lang.reflect.Proxy;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Times mapping a 100k-row getAllTasks() result two ways: the by-label loop the DAO used
+ * before (rs.getString("status") and so on) and RowMappers.task(), which resolves the
+ * indexes once and reads by index. Also counts how many distinct status String instances
+ * each way keeps.
+ * <p>
+ * The rows come from an in-memory ResultSet (a java.lang.reflect.Proxy) that, like a
+ * driver, returns a new String per getString call and resolves labels through a
+ * case-insensitive map. Its dispatch overhead is the same for both ways, so the absolute
+ * numbers are higher than with a real driver and the difference is what matters.
+ * Run from the repository root:
+ * <pre>
+ *   javac -d out $(find src bench -name '*.java')
+ *   java -cp out com.rescueapp.db.dao.RowMapperBench
+ * </pre>
+ */
+public class RowMapperBench {
+
+    private static final int ROWS = 100_000;
+    private static final int WARMUP_RUNS = 10;
+    private static final int MEASURED_RUNS = 15;
+
+    // SELECT t.*, u.name as assigneeName FROM tasks t LEFT JOIN users u ...
+    private static final String[] LABELS = {
+            "taskId", "description", "userId", "name", "contact", "status", "date", "assigneeName" };
+    private static final String[] STATUSES = { "Pending", "In Progress", "Completed" };
+
+    private interface Mapping {
+        List<Task> map(ResultSet rs) throws SQLException;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Object[][] rows = rows();
+
+        Mapping byLabel = RowMapperBench::mapByLabel;
+        Mapping byIndex = rs -> {
+            List<Task> list = new ArrayList<>();
+            RowMapper<Task> mapper = RowMappers.task(rs);
+            while (rs.next()) {
+                list.add(mapper.map(rs));
+            }
+            return list;
+        };
+
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            byLabel.map(resultSet(rows));
+            byIndex.map(resultSet(rows));
+        }
+        long labelMs = median(byLabel, rows);
+        long indexMs = median(byIndex, rows);
+
+        System.out.printf("%,d rows, median of %d runs%n", ROWS, MEASURED_RUNS);
+        System.out.printf("  by label (rs.getString(\"...\")): %4d ms  %5d ns/row  %d status strings%n",
+                labelMs, labelMs * 1_000_000 / ROWS, distinctStatusInstances(byLabel.map(resultSet(rows))));
+        System.out.printf("  RowMappers.task (by index):     %4d ms  %5d ns/row  %d status strings%n",
+                indexMs, indexMs * 1_000_000 / ROWS, distinctStatusInstances(byIndex.map(resultSet(rows))));
+    }
+
+    /** The getAllTasks() loop as it was before RowMappers. */
+    private static List<Task> mapByLabel(ResultSet rs) throws SQLException {
+        List<Task> taskList = new ArrayList<>();
+        while (rs.next()) {
+            Task task = new Task();
+            task.setTaskId(rs.getString("taskId"));
+            task.setDescription(rs.getString("description"));
+            task.setStatus(rs.getString("status"));
+            task.setDate(rs.getDate("date"));
+
+            User assignee = null;
+            String assigneeId = rs.getString("userId");
+            if (assigneeId != null) {
+                assignee = new User();
+                assignee.setUserId(assigneeId);
+                assignee.setName(rs.getString("assigneeName"));
+            }
+            task.setAssignee(assignee);
+            taskList.add(task);
+        }
+        return taskList;
+    }
+
+    private static long median(Mapping mapping, Object[][] rows) throws SQLException {
+        long[] times = new long[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            ResultSet rs = resultSet(rows);
+            long start = System.nanoTime();
+            List<Task> tasks = mapping.map(rs);
+            times[i] = (System.nanoTime() - start) / 1_000_000;
+            if (tasks.size() != ROWS) throw new IllegalStateException("mapped " + tasks.size() + " rows");
+        }
+        Arrays.sort(times);
+        return times[MEASURED_RUNS / 2];
+    }
+
+    private static int distinctStatusInstances(List<Task> tasks) {
+        Set<String> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Task t : tasks) {
+            instances.add(t.getStatus());
+        }
+        return instances.size();
+    }
+
+    private static Object[][] rows() {
+        Object[][] rows = new Object[ROWS][];
+        long day = 24L * 60 * 60 * 1000;
+        for (int i = 0; i < ROWS; i++) {
+            boolean assigned = i % 4 != 0;
+            rows[i] = new Object[] {
+                    "T" + i,
+                    "Feed and check the animals at shelter block " + (i % 50),
+                    assigned ? "V" + (i % 200) : null,
+                    null,
+                    null,
+                    STATUSES[i % STATUSES.length],
+                    new Date(1_700_000_000_000L - (i % 365) * day),
+                    assigned ? "Volunteer " + (i % 200) : null };
+        }
+        return rows;
+    }
+
+    /** A forward-only ResultSet over the rows, supporting what the two mappings call. */
+    private static ResultSet resultSet(Object[][] rows) {
+        Map<String, Integer> byLabel = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (int i = LABELS.length; i >= 1; i--) {
+            byLabel.put(LABELS[i - 1], i); // the first of duplicate labels wins
+        }
+        ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(
+                ResultSetMetaData.class.getClassLoader(), new Class<?>[] { ResultSetMetaData.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getColumnCount":
+                            return LABELS.length;
+                        case "getColumnLabel":
+                        case "getColumnName":
+                            return LABELS[(Integer) args[0] - 1];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        int[] cursor = { -1 };
+        return (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "next":
+                            return ++cursor[0] < rows.length;
+                        case "getMetaData":
+                            return metaData;
+                        case "findColumn":
+                            return column(byLabel, args[0]);
+                        case "getString": {
+                            Object value = rows[cursor[0]][column(byLabel, args[0]) - 1];
+                            return value == null ? null : new String(value.toString()); // drivers decode a new String each time
+                        }
+                        case "getDate":
+                            return rows[cursor[0]][column(byLabel, args[0]) - 1];
+                        case "close":
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static int column(Map<String, Integer> byLabel, Object labelOrIndex) throws SQLException {
+        if (labelOrIndex instanceof Integer) {
+            return (Integer) labelOrIndex;
+        }
+        Integer index = byLabel.get((String) labelOrIndex);
+        if (index == null) {
+            throw new SQLException("Column '" + labelOrIndex + "' not found.");
+        }
+        return index;
+    }
+}
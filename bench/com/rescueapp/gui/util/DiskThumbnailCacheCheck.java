@@ -0,0 +1,221 @@
+package com.rescueapp.gui.util;
+
+import com.sun.net.httpserver.HttpServer;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Checks ImageRenderer's disk thumbnail cache against a local HTTP server.
+ * Every load runs in a fresh JVM pointed at the same thumbnail directory, so each
+ * step is a real application restart. The steps:
+ * <ol>
+ *   <li>cold start: the image is downloaded once and stored</li>
+ *   <li>restart: the stored thumbnail is used without contacting the server</li>
+ *   <li>stale entry: a conditional request is sent, the 304 reuses the stored copy
+ *       and resets its check time</li>
+ *   <li>stale entry, image changed on the server: the new image replaces the old one</li>
+ *   <li>stale entry, server down: the stored copy is still shown</li>
+ * </ol>
+ * Run from the repository root:
+ * <pre>
+ *   javac -d out $(find src bench -name '*.java')
+ *   java -cp out com.rescueapp.gui.util.DiskThumbnailCacheCheck
+ * </pre>
+ * Exits with status 1 if any check fails.
+ */
+public class DiskThumbnailCacheCheck {
+
+    private static final String RESULT_PREFIX = "RESULT ";
+
+    private final AtomicInteger hits = new AtomicInteger();
+    private final List<String> ifNoneMatch = new ArrayList<>();
+    private volatile byte[] image;
+    private volatile String etag;
+    private int failures = 0;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2 && "load".equals(args[0])) {
+            loadInThisJvm(args[1]);
+            return;
+        }
+        System.exit(new DiskThumbnailCacheCheck().run() ? 0 : 1);
+    }
+
+    /** The child side: one load through ImageRenderer, as a table cell would do it. */
+    private static void loadInThisJvm(String url) throws Exception {
+        Icon icon = ImageRenderer.loadThumbnail(url).get(30, TimeUnit.SECONDS);
+        System.out.println(RESULT_PREFIX + (icon == null ? "none" : icon.getIconWidth() + "x" + icon.getIconHeight()));
+        System.exit(0); // the fetcher's client threads would otherwise keep the JVM alive for a while
+    }
+
+    private boolean run() throws Exception {
+        Path dir = Files.createTempDirectory("rescueapp-thumbs");
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.createContext("/", exchange -> {
+            hits.incrementAndGet();
+            String validator = exchange.getRequestHeaders().getFirst("If-None-Match");
+            synchronized (ifNoneMatch) {
+                ifNoneMatch.add(validator);
+            }
+            if (etag.equals(validator)) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                byte[] body = image;
+                exchange.getResponseHeaders().add("Content-Type", "image/png");
+                exchange.getResponseHeaders().add("ETag", etag);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/animals/42.png";
+        DiskThumbnailCache disk = new DiskThumbnailCache(dir, Long.MAX_VALUE);
+
+        try {
+            // 400x200 first, then 200x400, so the thumbnail's shape shows which image was stored
+            serve(png(400, 200, Color.ORANGE), "\"v1\"");
+
+            String result = load(dir, url);
+            check("cold start downloads once", hits.get() == 1 && lastValidator() == null, "hits=" + hits.get());
+            check("cold start shows a 90px thumbnail", "180x90".equals(result), result);
+            check("cold start stores the thumbnail and its ETag",
+                    disk.read(url) != null && "\"v1\"".equals(etagOf(disk, url)), "etag=" + etagOf(disk, url));
+
+            result = load(dir, url);
+            check("restart uses the stored copy without a request", hits.get() == 1, "hits=" + hits.get());
+            check("restart shows the stored thumbnail", "180x90".equals(result), result);
+
+            makeStale(dir);
+            long before = System.currentTimeMillis();
+            result = load(dir, url);
+            check("stale entry is revalidated with its ETag", hits.get() == 2 && "\"v1\"".equals(lastValidator()),
+                    "hits=" + hits.get() + ", If-None-Match=" + lastValidator());
+            check("304 keeps the stored thumbnail", "180x90".equals(result), result);
+            check("304 resets the check time", disk.readValidators(url).getCheckedAt() >= before,
+                    "checkedAt=" + disk.readValidators(url).getCheckedAt());
+
+            result = load(dir, url);
+            check("revalidated entry is fresh again", hits.get() == 2, "hits=" + hits.get());
+
+            serve(png(200, 400, Color.CYAN), "\"v2\"");
+            makeStale(dir);
+            result = load(dir, url);
+            check("changed image is downloaded after a conditional request",
+                    hits.get() == 3 && "\"v1\"".equals(lastValidator()), "hits=" + hits.get());
+            check("changed image is shown", "45x90".equals(result), result);
+            check("changed image replaces the stored one",
+                    "\"v2\"".equals(etagOf(disk, url)) && disk.read(url).getWidth() == 45, "etag=" + etagOf(disk, url));
+
+            server.stop(0);
+            makeStale(dir);
+            result = load(dir, url);
+            check("server down: the stale copy is still shown", "45x90".equals(result), result);
+        } finally {
+            server.stop(0);
+            deleteRecursively(dir);
+        }
+
+        System.out.println(failures == 0 ? "All checks passed" : failures + " check(s) failed");
+        return failures == 0;
+    }
+
+    private void serve(byte[] png, String newEtag) {
+        image = png;
+        etag = newEtag;
+    }
+
+    private String lastValidator() {
+        synchronized (ifNoneMatch) {
+            return ifNoneMatch.isEmpty() ? null : ifNoneMatch.get(ifNoneMatch.size() - 1);
+        }
+    }
+
+    private void check(String name, boolean ok, String detail) {
+        System.out.println((ok ? "PASS  " : "FAIL  ") + name + (ok ? "" : " (" + detail + ")"));
+        if (!ok) failures++;
+    }
+
+    /** Starts a new JVM that loads the URL once with the given thumbnail directory. */
+    private static String load(Path dir, String url) throws IOException, InterruptedException {
+        Path java = Paths.get(System.getProperty("java.home"), "bin", "java");
+        Process process = new ProcessBuilder(java.toString(),
+                "-cp", System.getProperty("java.class.path"),
+                "-Djava.awt.headless=true",
+                "-Drescueapp.thumbnailDir=" + dir,
+                DiskThumbnailCacheCheck.class.getName(), "load", url)
+                .redirectErrorStream(true)
+                .start();
+        String result = "no result";
+        try (InputStream in = process.getInputStream()) {
+            for (String line : new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\\R")) {
+                if (line.startsWith(RESULT_PREFIX)) {
+                    result = line.substring(RESULT_PREFIX.length());
+                }
+            }
+        }
+        process.waitFor();
+        return result;
+    }
+
+    /** Backdates every entry's last check so the next load has to revalidate it. */
+    private static void makeStale(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path meta : (Iterable<Path>) files.filter(f -> f.toString().endsWith(".meta"))::iterator) {
+                Properties props = new Properties();
+                try (InputStream in = Files.newInputStream(meta)) {
+                    props.load(in);
+                }
+                props.setProperty("checkedAt", "0");
+                try (OutputStream out = Files.newOutputStream(meta)) {
+                    props.store(out, null);
+                }
+            }
+        }
+    }
+
+    private static String etagOf(DiskThumbnailCache disk, String url) {
+        DiskThumbnailCache.Validators validators = disk.readValidators(url);
+        return validators == null ? null : validators.getEtag();
+    }
+
+    private static byte[] png(int width, int height, Color color) throws IOException {
+        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        g.setColor(color);
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(img, "png", out);
+        return out.toByteArray();
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(f -> f.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.rescueapp.gui.util;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks ImageFetcher against a local HTTP server that answers slowly enough for
+ * requests to overlap:
+ * <ul>
+ *   <li>concurrent fetches of the same URL share one request</li>
+ *   <li>no more than maxPerHost requests run against one host at a time, and the
+ *       limit is per host, not global</li>
+ *   <li>a matching ETag gets a 304 without a body, a different one the full image</li>
+ * </ul>
+ * Run from the repository root:
+ * <pre>
+ *   javac -d out $(find src bench -name '*.java')
+ *   java -cp out com.rescueapp.gui.util.ImageFetcherCheck
+ * </pre>
+ * Exits with status 1 if any check fails.
+ */
+public class ImageFetcherCheck {
+
+    private static final int MAX_PER_HOST = 4;
+    private static final int RESPONSE_DELAY_MS = 100;
+    private static final String ETAG = "\"v1\"";
+    private static final byte[] BODY = new byte[20_000];
+
+    private final AtomicInteger hits = new AtomicInteger();
+    private final Map<String, AtomicInteger> running = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> peak = new ConcurrentHashMap<>();
+    private int failures = 0;
+
+    public static void main(String[] args) throws Exception {
+        System.exit(new ImageFetcherCheck().run() ? 0 : 1);
+    }
+
+    private boolean run() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress(0), 0);
+        ExecutorService serverThreads = Executors.newFixedThreadPool(32); // far more than the client may use
+        server.setExecutor(serverThreads);
+        server.createContext("/", exchange -> {
+            hits.incrementAndGet();
+            String host = exchange.getRequestHeaders().getFirst("Host").replaceAll(":\\d+$", "");
+            AtomicInteger now = running.computeIfAbsent(host, h -> new AtomicInteger());
+            peak.computeIfAbsent(host, h -> new AtomicInteger()).accumulateAndGet(now.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(RESPONSE_DELAY_MS);
+                if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    exchange.sendResponseHeaders(304, -1);
+                } else {
+                    exchange.getResponseHeaders().add("ETag", ETAG);
+                    exchange.sendResponseHeaders(200, BODY.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(BODY);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                now.decrementAndGet();
+                exchange.close();
+            }
+        });
+        server.start();
+        int port = server.getAddress().getPort();
+        String base = "http://127.0.0.1:" + port + "/img/";
+        String otherHost = "http://localhost:" + port + "/img/";
+
+        try {
+            checkCoalescing(base);
+            checkHostLimit(base, otherHost);
+            checkConditional(base);
+        } finally {
+            server.stop(0);
+            serverThreads.shutdownNow();
+        }
+
+        System.out.println(failures == 0 ? "All checks passed" : failures + " check(s) failed");
+        return failures == 0;
+    }
+
+    private void checkCoalescing(String base) throws Exception {
+        ImageFetcher fetcher = new ImageFetcher(MAX_PER_HOST);
+        reset();
+        List<CompletableFuture<ImageFetcher.Response>> futures = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            futures.add(fetcher.fetch(base + "dup" + (i % 5), null, null)); // 5 URLs, 10 callers each
+        }
+        int complete = 0;
+        for (CompletableFuture<ImageFetcher.Response> f : futures) {
+            ImageFetcher.Response r = f.get(30, TimeUnit.SECONDS);
+            if (r.isOk() && r.getBody().length == BODY.length) complete++;
+        }
+        check("50 fetches of 5 URLs reach the server 5 times", hits.get() == 5, "hits=" + hits.get());
+        check("the other 45 are counted as coalesced", fetcher.getCoalescedCount() == 45, fetcher.getStats());
+        check("every caller gets the full image", complete == 50, complete + " of 50");
+
+        fetcher.fetch(base + "dup0", null, null).get(30, TimeUnit.SECONDS);
+        check("a finished download is not reused for a later fetch", hits.get() == 6, "hits=" + hits.get());
+    }
+
+    private void checkHostLimit(String base, String otherHost) throws Exception {
+        ImageFetcher fetcher = new ImageFetcher(MAX_PER_HOST);
+        reset();
+        long start = System.nanoTime();
+        List<CompletableFuture<ImageFetcher.Response>> futures = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            futures.add(fetcher.fetch(base + "a" + i, null, null));
+        }
+        for (CompletableFuture<ImageFetcher.Response> f : futures) {
+            f.get(30, TimeUnit.SECONDS);
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        int onePeak = peakOf("127.0.0.1");
+        check("40 distinct URLs on one host run at most " + MAX_PER_HOST + " at a time", onePeak <= MAX_PER_HOST,
+                "peak=" + onePeak);
+        check("... and the limit is actually reached", onePeak == MAX_PER_HOST, "peak=" + onePeak);
+        System.out.println("      40 requests of " + RESPONSE_DELAY_MS + " ms each took " + elapsedMs + " ms");
+
+        reset();
+        futures.clear();
+        for (int i = 0; i < 20; i++) {
+            futures.add(fetcher.fetch(base + "b" + i, null, null));
+            futures.add(fetcher.fetch(otherHost + "b" + i, null, null));
+        }
+        int ok = 0;
+        for (CompletableFuture<ImageFetcher.Response> f : futures) {
+            try {
+                if (f.get(30, TimeUnit.SECONDS).isOk()) ok++;
+            } catch (Exception e) {
+                // localhost may not resolve to the loopback address the server listens on
+            }
+        }
+        if (ok < futures.size()) {
+            System.out.println("SKIP  per-host limit (localhost unreachable here)");
+            return;
+        }
+        check("two hosts are limited separately",
+                peakOf("127.0.0.1") == MAX_PER_HOST && peakOf("localhost") == MAX_PER_HOST,
+                "peaks=" + peak);
+    }
+
+    private void checkConditional(String base) throws Exception {
+        ImageFetcher fetcher = new ImageFetcher(MAX_PER_HOST);
+        reset();
+        ImageFetcher.Response same = fetcher.fetch(base + "c", ETAG, null).get(30, TimeUnit.SECONDS);
+        check("matching ETag gets 304 without a body", same.isNotModified() && same.getBody() == null,
+                "status=" + same.getStatus());
+        ImageFetcher.Response changed = fetcher.fetch(base + "c", "\"v0\"", null).get(30, TimeUnit.SECONDS);
+        check("different ETag gets the image", changed.isOk() && ETAG.equals(changed.getEtag()),
+                "status=" + changed.getStatus() + ", etag=" + changed.getEtag());
+        check("304s are counted", fetcher.getNotModifiedCount() == 1, fetcher.getStats());
+    }
+
+    private void reset() {
+        hits.set(0);
+        running.clear();
+        peak.clear();
+    }
+
+    private int peakOf(String host) {
+        AtomicInteger value = peak.get(host);
+        return value == null ? 0 : value.get();
+    }
+
+    private void check(String name, boolean ok, String detail) {
+        System.out.println((ok ? "PASS  " : "FAIL  ") + name + (ok ? "" : " (" + detail + ")"));
+        if (!ok) failures++;
+    }
+}
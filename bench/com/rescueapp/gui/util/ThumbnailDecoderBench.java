@@ -0,0 +1,96 @@
+package com.rescueapp.gui.util;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Times turning a multi-megapixel JPEG into a 90px-high thumbnail two ways: the old
+ * ImageLoader code (ImageIO.read, then getScaledInstance(SCALE_SMOOTH) wrapped in an
+ * ImageIcon, which waits for the scaled pixels) and ThumbnailDecoder.decode. The JPEGs
+ * are generated in memory, so no test images are needed.
+ * Run from the repository root:
+ * <pre>
+ *   javac -d out $(find src bench -name '*.java')
+ *   java -Djava.awt.headless=true -cp out com.rescueapp.gui.util.ThumbnailDecoderBench
+ * </pre>
+ */
+public class ThumbnailDecoderBench {
+
+    private static final int TARGET_HEIGHT = 90;
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 7;
+    private static final int[][] SIZES = { { 2048, 1536 }, { 4000, 3000 }, { 6000, 4000 } }; // 3, 12 and 24 MP
+
+    private interface Thumbnailer {
+        Icon make(byte[] jpeg) throws IOException;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Thumbnailer old = jpeg -> {
+            BufferedImage original = ImageIO.read(new ByteArrayInputStream(jpeg));
+            int width = (int) ((double) original.getWidth() / original.getHeight() * TARGET_HEIGHT);
+            return new ImageIcon(original.getScaledInstance(width, TARGET_HEIGHT, Image.SCALE_SMOOTH));
+        };
+        Thumbnailer decoder = jpeg -> new ImageIcon(ThumbnailDecoder.decode(new ByteArrayInputStream(jpeg), TARGET_HEIGHT));
+
+        System.out.printf("Median of %d runs per image%n", MEASURED_RUNS);
+        for (int[] size : SIZES) {
+            byte[] jpeg = jpeg(size[0], size[1]);
+            long oldMs = median(old, jpeg);
+            long newMs = median(decoder, jpeg);
+            Icon icon = decoder.make(jpeg);
+            System.out.printf("  %dx%d (%.1f MP, %,d KB JPEG): ImageIO.read + getScaledInstance %5d ms, "
+                            + "ThumbnailDecoder %4d ms (%dx%d)%n",
+                    size[0], size[1], size[0] * size[1] / 1e6, jpeg.length / 1024, oldMs, newMs,
+                    icon.getIconWidth(), icon.getIconHeight());
+        }
+    }
+
+    private static long median(Thumbnailer thumbnailer, byte[] jpeg) throws IOException {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            thumbnailer.make(jpeg);
+        }
+        long[] times = new long[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            Icon icon = thumbnailer.make(jpeg);
+            times[i] = (System.nanoTime() - start) / 1_000_000;
+            if (icon.getIconHeight() != TARGET_HEIGHT) {
+                throw new IllegalStateException("thumbnail is " + icon.getIconHeight() + "px high");
+            }
+        }
+        Arrays.sort(times);
+        return times[MEASURED_RUNS / 2];
+    }
+
+    /** A photo-like JPEG: gradients plus noise and shapes, so it doesn't compress to nothing. */
+    private static byte[] jpeg(int width, int height) throws IOException {
+        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, new Color(90, 140, 60), width, height, new Color(200, 170, 120)));
+        g.fillRect(0, 0, width, height);
+        Random random = new Random(42);
+        for (int i = 0; i < 400; i++) {
+            g.setColor(new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256), 120));
+            int w = random.nextInt(width / 8) + 10;
+            int h = random.nextInt(height / 8) + 10;
+            g.fillOval(random.nextInt(width), random.nextInt(height), w, h);
+        }
+        g.dispose();
+        for (int y = 0; y < height; y += 2) {
+            for (int x = (y / 2) % 3; x < width; x += 3) {
+                img.setRGB(x, y, img.getRGB(x, y) ^ (random.nextInt(32) * 0x010101));
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(img, "jpg", out);
+        return out.toByteArray();
+    }
+}
@@ -1,11 +1,14 @@
 package com.rescueapp;
 
+import com.rescueapp.db.RescueAppOutboxRelay;
 import com.rescueapp.gui.LoginPage;
 import javax.swing.SwingUtilities;
 
 public class MainApp {
 
     public static void main(String[] args) {
+        // Delivers queued notifications, including any left over from a previous run
+        RescueAppOutboxRelay.getInstance().start();
         SwingUtilities.invokeLater(() -> {
             new LoginPage().setVisible(true);
         });
@@ -0,0 +1,281 @@
+package com.rescueapp;
+
+import com.rescueapp.db.RescueAppDbConnector;
+import com.rescueapp.db.RescueAppEntityCache;
+import com.rescueapp.db.RescueAppJdbcMetrics;
+import com.rescueapp.db.RescueAppOutboxRelay;
+import com.rescueapp.db.RescueAppQueryCache;
+import com.rescueapp.db.RescueAppWriteBehindQueue;
+
+import java.lang.reflect.Method;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The application's one place to run blocking background work (JDBC queries, writes and
+ * notification sends), replacing the executors each panel used to create for itself.
+ * - Tasks run on virtual threads when the JVM has them (Java 21+), otherwise on daemon
+ *   platform threads from a cached pool.
+ * - Each Category has its own concurrency limit. Tasks over the limit wait in that
+ *   category's queue, so a burst of notifications can't take every pooled connection
+ *   away from the panels' queries.
+ * - shutdown() stops accepting work, lets queued and running tasks finish for a short
+ *   grace period, writes pending write-behind updates, stops the notification outbox
+ *   relay, then interrupts what is left and closes the connection pool. Every
+ *   dashboard calls it when its window closes.
+ * Queue depth and wait/run latency per category are available from getStats().
+ */
+public final class RescueAppRuntime {
+
+    public enum Category {
+        QUERY(4),        // panel loads
+        WRITE(2),        // inserts/updates started from the UI
+        NOTIFICATION(2); // notification sends, fire and forget
+
+        private final int maxConcurrent;
+
+        Category(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public int getMaxConcurrent() { return maxConcurrent; }
+    }
+
+    private static final long SHUTDOWN_GRACE_MS = 2000;
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final boolean VIRTUAL_THREADS;
+    private static final ExecutorService EXECUTOR;
+    private static final Map<Category, Lane> LANES = new EnumMap<>(Category.class);
+    private static volatile boolean shutdown = false;
+
+    static {
+        ExecutorService virtual = newVirtualThreadExecutor();
+        VIRTUAL_THREADS = virtual != null;
+        EXECUTOR = VIRTUAL_THREADS ? virtual : Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "rescueapp-task-" + THREAD_COUNT.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        for (Category c : Category.values()) {
+            LANES.put(c, new Lane(c));
+        }
+    }
+
+    private RescueAppRuntime() { }
+
+    /**
+     * Queues a task in the given category. The returned Future can be cancelled;
+     * cancel(true) interrupts the task if it has already started.
+     * After shutdown() the Future fails with a RejectedExecutionException.
+     */
+    public static <T> Future<T> submit(Category category, Callable<T> task) {
+        Job<T> job = new Job<>(LANES.get(category), task);
+        if (shutdown) {
+            job.setException(new RejectedExecutionException("RescueAppRuntime has been shut down."));
+            return job;
+        }
+        job.lane.enqueue(job);
+        return job;
+    }
+
+    public static Future<?> submit(Category category, Runnable task) {
+        return submit(category, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public static boolean isShutdown() {
+        return shutdown;
+    }
+
+    public static boolean usesVirtualThreads() {
+        return VIRTUAL_THREADS;
+    }
+
+    /** Stops accepting tasks, waits briefly for outstanding ones, then closes the connection pool. Safe to call twice. */
+    public static synchronized void shutdown() {
+        if (shutdown) return;
+        shutdown = true;
+        System.out.println("RescueAppRuntime: shutting down. " + getStats());
+        System.out.println(RescueAppEntityCache.getAllStats());
+        System.out.println(RescueAppQueryCache.getInstance().getStats());
+        if (RescueAppJdbcMetrics.ENABLED) {
+            System.out.println(RescueAppJdbcMetrics.getReport(10));
+        }
+
+        long deadline = System.currentTimeMillis() + SHUTDOWN_GRACE_MS;
+        try {
+            while (outstanding() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int abandoned = outstanding();
+        if (abandoned > 0) {
+            System.err.println("RescueAppRuntime: " + abandoned + " task(s) still running after "
+                    + SHUTDOWN_GRACE_MS + " ms, interrupting.");
+        }
+        RescueAppWriteBehindQueue.flushAll(); // status clicks still waiting for their batch
+        RescueAppOutboxRelay.getInstance().stop(); // one last delivery pass while the pool is still open
+        EXECUTOR.shutdownNow();
+        try {
+            EXECUTOR.awaitTermination(500, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        RescueAppDbConnector.shutdownPool();
+    }
+
+    private static int outstanding() {
+        int n = 0;
+        for (Lane lane : LANES.values()) {
+            n += lane.queue.size() + lane.active();
+        }
+        return n;
+    }
+
+    /** Per-category queue depth, running tasks, counts and mean/max latencies. */
+    public static String getStats() {
+        StringBuilder sb = new StringBuilder("Runtime (" + (VIRTUAL_THREADS ? "virtual" : "platform") + " threads):");
+        for (Lane lane : LANES.values()) {
+            sb.append(' ').append(lane.stats()).append(';');
+        }
+        return sb.toString();
+    }
+
+    public static int getQueueDepth(Category category) {
+        return LANES.get(category).queue.size();
+    }
+
+    public static int getActiveCount(Category category) {
+        return LANES.get(category).active();
+    }
+
+    /** Executors.newVirtualThreadPerTaskExecutor() through reflection, so the app still runs on Java 11. */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null; // before Java 21 (or preview-only): use platform threads
+        }
+    }
+
+    /** One category: a concurrency limit, the tasks waiting for it and their metrics. */
+    private static final class Lane {
+        final Category category;
+        final Semaphore permits;
+        final ConcurrentLinkedQueue<Job<?>> queue = new ConcurrentLinkedQueue<>();
+
+        final LongAdder completed = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder waitNanos = new LongAdder();
+        final LongAdder runNanos = new LongAdder();
+        final AtomicLong maxWaitNanos = new AtomicLong();
+        final AtomicLong maxRunNanos = new AtomicLong();
+
+        Lane(Category category) {
+            this.category = category;
+            this.permits = new Semaphore(category.maxConcurrent);
+        }
+
+        void enqueue(Job<?> job) {
+            queue.add(job);
+            drain();
+        }
+
+        /** Starts queued jobs while permits are free. Called on enqueue and whenever a job finishes. */
+        void drain() {
+            while (!queue.isEmpty() && permits.tryAcquire()) {
+                Job<?> job = queue.poll();
+                if (job == null) {
+                    permits.release(); // someone else took it
+                    break;
+                }
+                try {
+                    EXECUTOR.execute(job);
+                } catch (RejectedExecutionException e) {
+                    permits.release();
+                    job.cancel(false);
+                }
+            }
+        }
+
+        int active() {
+            return category.maxConcurrent - permits.availablePermits();
+        }
+
+        void record(long waited, long ran, boolean ok) {
+            (ok ? completed : failed).increment();
+            waitNanos.add(waited);
+            runNanos.add(ran);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+            maxRunNanos.accumulateAndGet(ran, Math::max);
+        }
+
+        String stats() {
+            long done = completed.sum() + failed.sum();
+            return String.format("%s queued=%d active=%d/%d done=%d failed=%d wait avg=%.1fms max=%.1fms run avg=%.1fms max=%.1fms",
+                    category, queue.size(), active(), category.maxConcurrent, done, failed.sum(),
+                    done == 0 ? 0.0 : waitNanos.sum() / 1e6 / done, maxWaitNanos.get() / 1e6,
+                    done == 0 ? 0.0 : runNanos.sum() / 1e6 / done, maxRunNanos.get() / 1e6);
+        }
+    }
+
+    private static final class Job<T> extends FutureTask<T> {
+        final Lane lane;
+        final long enqueuedAt = System.nanoTime();
+
+        Job(Lane lane, Callable<T> task) {
+            super(task);
+            this.lane = lane;
+        }
+
+        @Override
+        public void run() {
+            if (isDone()) { // cancelled while queued: don't count it
+                release();
+                return;
+            }
+            long started = System.nanoTime();
+            super.run();
+            boolean ok;
+            try {
+                get();
+                ok = true;
+            } catch (Exception e) {
+                ok = false;
+            }
+            lane.record(started - enqueuedAt, System.nanoTime() - started, ok);
+            release();
+        }
+
+        @Override
+        protected void setException(Throwable t) {
+            super.setException(t);
+            if (!(t instanceof RejectedExecutionException)) {
+                System.err.println("RescueAppRuntime: " + lane.category + " task failed: " + t);
+            }
+        }
+
+        private void release() {
+            lane.permits.release();
+            lane.drain();
+        }
+    }
+}
@@ -2,4 +2,11 @@ package com.rescueapp.core;
 
 public interface Notifiable {
     void receiveNotification(String message);
+
+    /** Live delivery from NotificationBus; by default just hands over the message text. */
+    default void receive(Notification notification) {
+        if (notification.getMessage() != null) {
+            receiveNotification(notification.getMessage());
+        }
+    }
 }
@@ -12,6 +12,8 @@ public class Notification {
 
     private Instant createdAt = Instant.now();
     private boolean read = false;
+    private String type;     // set for digest rows, e.g. "NewReport"
+    private int count = 1;   // how many notifications a digest row stands for
 
     public Notification() {
     }
@@ -67,10 +69,30 @@ public class Notification {
         return createdAt;
     }
 
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
     public boolean isRead() {
         return read;
     }
 
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
    
 
     public String toString() {
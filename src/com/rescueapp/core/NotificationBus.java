@@ -0,0 +1,180 @@
+package com.rescueapp.core;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process publish/subscribe for notifications, so dashboards open in this JVM see a
+ * notification as soon as it is stored instead of on their next database poll.
+ * - Subscribers are Notifiables registered for a user id (and optionally a role, for
+ *   broadcasts written server-side where the individual rows are not known).
+ * - Publishing never blocks: each subscriber has its own bounded queue, drained
+ *   asynchronously on a small shared pool, one delivery at a time per subscriber.
+ * - Coalescing: a notification already queued for a subscriber is not queued twice, and
+ *   role broadcasts are queued as a single "resync" hint however many arrive.
+ * - Backpressure: when a subscriber falls behind and its queue fills up, the queue is
+ *   collapsed into one resync hint, so memory stays bounded and the subscriber reloads
+ *   from the database instead of the publisher waiting for it.
+ * A resync hint is delivered as a Notification with a null id (see isResync()).
+ */
+public final class NotificationBus {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 100;
+
+    private static final NotificationBus INSTANCE = new NotificationBus(DEFAULT_QUEUE_CAPACITY);
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final ExecutorService DISPATCHER = Executors.newFixedThreadPool(2, r -> {
+        Thread t = new Thread(r, "rescueapp-bus-" + THREAD_COUNT.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final int queueCapacity;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong overflows = new AtomicLong();
+
+    NotificationBus(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public static NotificationBus getInstance() {
+        return INSTANCE;
+    }
+
+    /** True for the hint telling a subscriber to re-read its notifications from the database. */
+    public static boolean isResync(Notification n) {
+        return n.getNotificationId() == null;
+    }
+
+    /**
+     * Registers a subscriber for notifications addressed to userId, and for broadcasts to
+     * role (may be null). Close the returned subscription when the subscriber goes away.
+     */
+    public Subscription subscribe(String userId, String role, Notifiable subscriber) {
+        Subscription s = new Subscription(userId, role, subscriber);
+        subscriptions.add(s);
+        return s;
+    }
+
+    /** Queues a stored notification for every subscriber of its receiver. */
+    public void publish(String receiverId, Notification n) {
+        published.incrementAndGet();
+        for (Subscription s : subscriptions) {
+            if (receiverId != null && receiverId.equals(s.userId)) {
+                s.offer(n);
+            }
+        }
+    }
+
+    /** Tells the user's subscribers to re-read, e.g. after a row they may already show has changed. */
+    public void publishResync(String receiverId) {
+        publish(receiverId, resyncHint());
+    }
+
+    /** Tells every subscriber with the role that new notifications were written for it. */
+    public void publishToRole(String role) {
+        published.incrementAndGet();
+        for (Subscription s : subscriptions) {
+            if (role != null && role.equalsIgnoreCase(s.role)) {
+                s.offer(resyncHint());
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    public String getStats() {
+        return String.format("Notification bus: %d subscribers, %d published, %d delivered, %d coalesced, %d overflows",
+                subscriptions.size(), published.get(), delivered.get(), coalesced.get(), overflows.get());
+    }
+
+    private static Notification resyncHint() {
+        return new Notification(null, null, null);
+    }
+
+    /** One subscriber's registration and queue. */
+    public final class Subscription implements AutoCloseable {
+        private final String userId;
+        private final String role;
+        private final Notifiable subscriber;
+        private final ArrayDeque<Notification> queue = new ArrayDeque<>(); // guarded by this
+        private boolean draining = false;                                  // guarded by this
+        private volatile boolean closed = false;
+
+        Subscription(String userId, String role, Notifiable subscriber) {
+            this.userId = userId;
+            this.role = role;
+            this.subscriber = subscriber;
+        }
+
+        void offer(Notification n) {
+            if (closed) return;
+            synchronized (this) {
+                if (isQueued(n)) {
+                    coalesced.incrementAndGet();
+                    return;
+                }
+                if (queue.size() >= queueCapacity) {
+                    // Too far behind: one resync replaces everything pending
+                    overflows.incrementAndGet();
+                    coalesced.addAndGet(queue.size());
+                    queue.clear();
+                    queue.add(resyncHint());
+                } else {
+                    queue.add(n);
+                }
+                if (draining) return;
+                draining = true;
+            }
+            DISPATCHER.execute(this::drain);
+        }
+
+        private boolean isQueued(Notification n) {
+            boolean resync = isResync(n);
+            for (Iterator<Notification> it = queue.iterator(); it.hasNext(); ) {
+                Notification queued = it.next();
+                if (resync ? isResync(queued) : n.equals(queued)) return true;
+            }
+            return false;
+        }
+
+        private void drain() {
+            while (true) {
+                Notification next;
+                synchronized (this) {
+                    next = queue.poll();
+                    if (next == null || closed) {
+                        queue.clear();
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    subscriber.receive(next);
+                    delivered.incrementAndGet();
+                } catch (RuntimeException e) {
+                    System.err.println("NotificationBus: subscriber for " + userId + " failed: " + e.getMessage());
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            subscriptions.remove(this);
+        }
+    }
+}
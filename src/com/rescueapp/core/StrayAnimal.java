@@ -1,6 +1,8 @@
 
 package com.rescueapp.core;
 
+import java.util.function.Supplier;
+
 public class StrayAnimal {
     private String animalId;
     private String name;
@@ -10,6 +12,9 @@ public class StrayAnimal {
     private String photoUrl;
     private String medReport;
     private String status;
+    // Set when a list query left the column out; the first get fetches it (see RescueAppAnimalDAO)
+    private Supplier<String> specificationsLoader;
+    private Supplier<String> medReportLoader;
 
     public StrayAnimal() {
     }
@@ -58,11 +63,21 @@ public class StrayAnimal {
     }
 
     public String getSpecifications() {
+        if (specificationsLoader != null) {
+            specifications = specificationsLoader.get();
+            specificationsLoader = null;
+        }
         return specifications;
     }
 
     public void setSpecifications(String specifications) {
         this.specifications = specifications;
+        this.specificationsLoader = null;
+    }
+
+    /** Defers specifications to the first getSpecifications() call. */
+    public void setSpecificationsLoader(Supplier<String> loader) {
+        this.specificationsLoader = loader;
     }
 
     public String getPhotoUrl() {
@@ -74,11 +89,21 @@ public class StrayAnimal {
     }
 
     public String getMedReport() {
+        if (medReportLoader != null) {
+            medReport = medReportLoader.get();
+            medReportLoader = null;
+        }
         return medReport;
     }
 
     public void setMedReport(String medReport) {
         this.medReport = medReport;
+        this.medReportLoader = null;
+    }
+
+    /** Defers the medical report to the first getMedReport() call. */
+    public void setMedReportLoader(Supplier<String> loader) {
+        this.medReportLoader = loader;
     }
 
     public String getStatus() {
@@ -94,13 +119,14 @@ public class StrayAnimal {
         return "\nAnimal Details:" +
                "\n--------------------------------" +
                "\nAnimal ID       : " + animalId +
-               "\nSpecifications  : " + specifications +
-               "\nMedical Report  : " + medReport +
+               "\nSpecifications  : " + getSpecifications() +
+               "\nMedical Report  : " + getMedReport() +
                "\nCurrent Status  : " + status +
                "\n--------------------------------";
     }
 
 
+    // Doesn't trigger lazy loading
     @Override
     public String toString() {
         return "StrayAnimal{" +
@@ -108,9 +134,9 @@ public class StrayAnimal {
                 ", name='" + name + '\'' +
                 ", age=" + age +
                 ", gender='" + gender + '\'' +
-                ", specifications='" + specifications + '\'' +
+                ", specifications=" + (specificationsLoader != null ? "<not loaded>" : "'" + specifications + '\'') +
                 ", photoUrl='" + photoUrl + '\'' +
-                ", medReport='" + medReport + '\'' +
+                ", medReport=" + (medReportLoader != null ? "<not loaded>" : "'" + medReport + '\'') +
                 ", status='" + status + '\'' +
                 '}';
     }
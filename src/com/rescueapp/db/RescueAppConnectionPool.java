@@ -0,0 +1,293 @@
+package com.rescueapp.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A small, bounded pool of MySQL connections shared by every DAO.
+ * Connections are borrowed per operation and handed back by calling close()
+ * on the returned handle. Idle connections are validated on borrow and evicted
+ * after a while; connections held for too long are reported as leaks.
+ */
+public class RescueAppConnectionPool {
+
+    private static final long BORROW_TIMEOUT_MS = 10_000;
+    private static final long IDLE_TIMEOUT_MS = 5 * 60_000;
+    private static final long LEAK_THRESHOLD_MS = 60_000;
+    private static final long HOUSEKEEPING_INTERVAL_MS = 30_000;
+    private static final long VALIDATION_SKIP_MS = 1_000; // connections returned this recently are trusted
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final int MIN_IDLE = 1;
+    private static final int STATEMENT_CACHE_SIZE = 64; // per physical connection
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+
+    private final Semaphore permits;
+    private final Deque<PooledConnection> idle = new ArrayDeque<>(); // guarded by 'this', most recently used first
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed = false;
+
+    public RescueAppConnectionPool(String url, String user, String password, int maxSize) {
+        if (maxSize < 1) throw new IllegalArgumentException("Pool size must be at least 1");
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "rescueapp-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep,
+                HOUSEKEEPING_INTERVAL_MS, HOUSEKEEPING_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, waiting up to the borrow timeout if the pool is exhausted.
+     * The caller must close() the returned connection to give it back.
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) throw new SQLNonTransientConnectionException("Connection pool has been shut down.");
+
+        try {
+            if (!permits.tryAcquire(BORROW_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("Timed out after " + BORROW_TIMEOUT_MS + " ms waiting for a database connection ("
+                        + maxSize + " in use).");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+
+        try {
+            PooledConnection pooled = takeValidIdle();
+            if (pooled == null) {
+                pooled = new PooledConnection(openPhysical());
+            }
+            pooled.borrowedAt = System.currentTimeMillis();
+            pooled.borrowSite = new Throwable("Connection borrowed here");
+            pooled.leakReported = false;
+            borrowed.add(pooled);
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection takeValidIdle() {
+        while (true) {
+            PooledConnection candidate;
+            synchronized (this) {
+                candidate = idle.pollFirst();
+            }
+            if (candidate == null) return null;
+
+            long idleFor = System.currentTimeMillis() - candidate.lastReturned;
+            if (idleFor < VALIDATION_SKIP_MS || isValid(candidate.physical)) {
+                return candidate;
+            }
+            System.err.println("Connection pool: discarding stale connection after " + idleFor + " ms idle.");
+            discard(candidate);
+        }
+    }
+
+    private Connection openPhysical() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        System.out.println("Connected to MySQL database! (pool " + (maxSize - permits.availablePermits()) + "/" + maxSize + ")");
+        return physical;
+    }
+
+    private void giveBack(PooledConnection pooled) {
+        if (!borrowed.remove(pooled)) return; // already returned
+
+        boolean reusable = !closed;
+        try {
+            if (reusable && pooled.physical.isClosed()) {
+                reusable = false;
+            }
+            if (reusable && !pooled.physical.getAutoCommit()) {
+                // Never hand an open transaction to the next borrower
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Connection pool: resetting returned connection failed: " + e.getMessage());
+            reusable = false;
+        }
+
+        if (reusable) {
+            pooled.lastReturned = System.currentTimeMillis();
+            synchronized (this) {
+                idle.addFirst(pooled);
+            }
+        } else {
+            discard(pooled);
+        }
+        permits.release();
+    }
+
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+
+        // Idle eviction: oldest connections sit at the tail of the deque
+        synchronized (this) {
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext() && idle.size() > MIN_IDLE) {
+                PooledConnection pc = it.next();
+                if (now - pc.lastReturned > IDLE_TIMEOUT_MS) {
+                    it.remove();
+                    discard(pc);
+                }
+            }
+        }
+
+        // Leak detection: report each long-held connection once, with where it was borrowed
+        for (PooledConnection pc : borrowed) {
+            long heldFor = now - pc.borrowedAt;
+            if (heldFor > LEAK_THRESHOLD_MS && !pc.leakReported) {
+                pc.leakReported = true;
+                System.err.println("Connection pool: possible connection leak, held for " + heldFor + " ms.");
+                pc.borrowSite.printStackTrace();
+            }
+        }
+    }
+
+    /** Closes all idle connections and refuses further borrows. Borrowed connections are closed when returned. */
+    public void shutdown() {
+        if (closed) return;
+        closed = true;
+        housekeeper.shutdownNow();
+        synchronized (this) {
+            for (PooledConnection pc : idle) {
+                discard(pc);
+            }
+            idle.clear();
+        }
+        System.out.println("Connection pool shut down (" + borrowed.size() + " connection(s) still borrowed).");
+    }
+
+    public int getMaxSize() { return maxSize; }
+    public int getBorrowedCount() { return borrowed.size(); }
+    public synchronized int getIdleCount() { return idle.size(); }
+
+    private static void discard(PooledConnection pc) {
+        pc.statements.clear();
+        closeQuietly(pc.physical);
+    }
+
+    private static boolean isValid(Connection c) {
+        try {
+            return c.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static void closeQuietly(Connection c) {
+        try {
+            c.close();
+        } catch (SQLException e) {
+            System.err.println("Connection pool: error closing connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * One physical connection. Every borrow gets its own handle so a closed
+     * handle can't be used to reach a connection someone else now holds.
+     */
+    private final class PooledConnection {
+        final Connection physical;
+        final RescueAppStatementCache statements = new RescueAppStatementCache(STATEMENT_CACHE_SIZE);
+        volatile long borrowedAt;
+        volatile long lastReturned = System.currentTimeMillis();
+        volatile Throwable borrowSite;
+        volatile boolean leakReported;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new HandleInvocationHandler(this));
+        }
+    }
+
+    private final class HandleInvocationHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean handleClosed = false;
+
+        HandleInvocationHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!handleClosed) {
+                        handleClosed = true;
+                        giveBack(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return handleClosed || pooled.physical.isClosed();
+                case "prepareStatement":
+                    if (args.length == 1 && !handleClosed) {
+                        String sql = (String) args[0];
+                        PreparedStatement ps = pooled.statements.prepare(pooled.physical, sql, (Connection) proxy);
+                        // writes invalidate cached query results; every execution is timed
+                        return RescueAppJdbcMetrics.wrap(RescueAppQueryCache.trackWrites(ps, sql), sql);
+                    }
+                    break;
+                case "createStatement":
+                    if ((args == null || args.length == 0) && !handleClosed) {
+                        return RescueAppJdbcMetrics.wrap(pooled.physical.createStatement());
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + (handleClosed ? ", returned" : "") + "]";
+                default:
+                    break;
+            }
+            if (handleClosed) {
+                throw new SQLException("Connection has already been returned to the pool.");
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -1,27 +1,162 @@
 package com.rescueapp.db;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class RescueAppDbConnector {
 
+	// Server-side prepares so statements kept by RescueAppStatementCache skip re-parsing on the server too;
+	// rewriteBatchedStatements turns JDBC batches into multi-row INSERTs
+	private static final String URL = "jdbc:mysql://localhost:3306/strayanimalrescue"
+			+ "?useServerPrepStmts=true&rewriteBatchedStatements=true";
+	private static final String USER = "root";
+	private static final String PASSWORD = "animals";
+	private static final int MAX_POOL_SIZE = 8;
+
+	private static volatile boolean poolCreated = false;
+
+	// The transaction open on this thread, shared by every connector instance (and so every DAO)
+	private static final ThreadLocal<Transaction> CURRENT = new ThreadLocal<>();
+
+	/** A group of DAO calls for inTransaction(). */
+	public interface Work<T> {
+		T run() throws SQLException;
+	}
+
+	// Created on first use and shared by every connector instance in the JVM
+	private static class PoolHolder {
+		static final RescueAppConnectionPool POOL = new RescueAppConnectionPool(URL, USER, PASSWORD, MAX_POOL_SIZE);
+		static {
+			poolCreated = true;
+		}
+	}
+
 	public RescueAppDbConnector() {
-		
+
+	}
+
+	/**
+	 * Borrows a pooled connection. Always use it in try-with-resources:
+	 * close() hands the connection back to the pool.
+	 * Inside inTransaction() every call returns the transaction's connection instead,
+	 * and close() leaves it open for the next statement of the unit of work.
+	 */
+	public Connection getConnection() throws SQLException {
+		Transaction tx = CURRENT.get();
+		if (tx != null) {
+			return tx.handle;
+		}
+		return PoolHolder.POOL.borrow();
+	}
+
+	/**
+	 * Runs the work as one unit: all DAO calls it makes on this thread share a single
+	 * connection and are committed once at the end, or rolled back together if anything
+	 * throws. Calls nested inside an open transaction simply join it.
+	 * Actions registered with afterCommit() run once the commit has succeeded.
+	 */
+	public <T> T inTransaction(Work<T> work) throws SQLException {
+		if (CURRENT.get() != null) {
+			return work.run();
+		}
+
+		Transaction tx = new Transaction(PoolHolder.POOL.borrow());
+		boolean committed = false;
+		try {
+			tx.conn.setAutoCommit(false);
+			CURRENT.set(tx);
+			T result = work.run();
+			tx.conn.commit();
+			committed = true;
+			return result;
+		} finally {
+			CURRENT.remove();
+			if (!committed) {
+				try {
+					tx.conn.rollback();
+				} catch (SQLException e) {
+					System.err.println("Transaction rollback failed: " + e.getMessage());
+				}
+			}
+			tx.conn.close(); // the pool restores auto-commit
+			if (committed) {
+				tx.runAfterCommit();
+			}
+		}
 	}
-	
+
+	/**
+	 * Runs the action after the current transaction commits, or right away if there is none.
+	 * Use it for side effects (like notifications) that must not happen for rolled back writes.
+	 */
+	public static void afterCommit(Runnable action) {
+		Transaction tx = CURRENT.get();
+		if (tx != null) {
+			tx.afterCommit.add(action);
+		} else {
+			action.run();
+		}
+	}
+
+	public static boolean isInTransaction() {
+		return CURRENT.get() != null;
+	}
+
 	public Connection getMySQLConnection() {
-		String url = "jdbc:mysql://localhost:3306/strayanimalrescue";
-        String user = "root";
-        String password = "animals";
         Connection conn = null;
         try {
-        	conn = DriverManager.getConnection(url, user, password);
-            System.out.println("Connected to MySQL database!");
+        	conn = getConnection();
         } catch (SQLException e) {
             System.err.println("Error connecting to database: " + e.getMessage());
         }
         return conn;
 	}
 
+	public static RescueAppConnectionPool getPool() {
+		return PoolHolder.POOL;
+	}
+
+	/** Closes the pool on application exit; does nothing if no connection was ever requested. */
+	public static void shutdownPool() {
+		if (poolCreated) {
+			PoolHolder.POOL.shutdown();
+		}
+	}
+
+	private static final class Transaction {
+		final Connection conn;
+		final Connection handle; // what DAOs see: close() is a no-op until the unit of work ends
+		final List<Runnable> afterCommit = new ArrayList<>();
+
+		Transaction(Connection conn) {
+			this.conn = conn;
+			this.handle = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+					new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+						if ("close".equals(method.getName())) {
+							return null;
+						}
+						try {
+							return method.invoke(conn, args);
+						} catch (InvocationTargetException e) {
+							throw e.getCause();
+						}
+					});
+		}
+
+		void runAfterCommit() {
+			for (Runnable action : afterCommit) {
+				try {
+					action.run();
+				} catch (RuntimeException e) {
+					System.err.println("After-commit action failed: " + e.getMessage());
+					e.printStackTrace();
+				}
+			}
+		}
+	}
+
 }
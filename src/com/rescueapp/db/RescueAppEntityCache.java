@@ -0,0 +1,215 @@
+package com.rescueapp.db;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Second-level cache of reference rows (users, NGOs, volunteers, animals) by id, kept by
+ * the DAOs so that opening a dashboard or logging in doesn't re-read rows that rarely change.
+ * - Bounded to maxSize entries, least-recently-used evicted first, each valid for ttlMs.
+ *   The TTL is what bounds staleness for changes made by other clients.
+ * - Besides single rows, the cache can hold the whole table (getAll) while every row of
+ *   the last full load is still present and fresh.
+ * - The DAOs call invalidate() for every write they make; inside a transaction the entry is
+ *   dropped again after commit. A load that overlapped an invalidation is returned to its
+ *   caller but not cached, so a read racing a write can't put the old row back.
+ * - Rows loaded inside a transaction are not cached either: the transaction may still roll back.
+ * - Entities are mutable, so the cache stores and hands out copies.
+ */
+public final class RescueAppEntityCache<K, V> {
+
+    /** Reads from the database on a miss. */
+    public interface Loader<T> {
+        T load() throws SQLException;
+    }
+
+    private static final List<RescueAppEntityCache<?, ?>> CACHES = new CopyOnWriteArrayList<>();
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlMs;
+    private final Function<V, K> idOf;
+    private final UnaryOperator<V> copier;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(64, 0.75f, true); // access order = LRU
+    private List<K> allIds;      // ids of the last full load, in its order; null when not complete
+    private long allLoadedAt;
+    private long generation;     // bumped by every invalidation
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public RescueAppEntityCache(String name, int maxSize, long ttlMs, Function<V, K> idOf, UnaryOperator<V> copier) {
+        if (maxSize < 1) throw new IllegalArgumentException("maxSize must be at least 1");
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlMs = ttlMs;
+        this.idOf = idOf;
+        this.copier = copier;
+        CACHES.add(this);
+    }
+
+    /** The cached row for id, or what the loader returns. Null results are not cached. */
+    public V get(K id, Loader<V> loader) throws SQLException {
+        long gen;
+        synchronized (this) {
+            Entry<V> e = entries.get(id);
+            if (e != null) {
+                if (!isExpired(e.loadedAt)) {
+                    hits.increment();
+                    return copier.apply(e.value);
+                }
+                entries.remove(id);
+                expirations.increment();
+            }
+            gen = generation;
+        }
+        misses.increment();
+        V value = loader.load();
+        if (value != null && !RescueAppDbConnector.isInTransaction()) {
+            synchronized (this) {
+                if (gen == generation) {
+                    store(id, copier.apply(value), System.currentTimeMillis());
+                }
+            }
+        }
+        return value;
+    }
+
+    /** The whole table, from the cache if the last full load is complete and fresh, else from the loader. */
+    public List<V> getAll(Loader<List<V>> loader) throws SQLException {
+        long gen;
+        synchronized (this) {
+            List<V> cached = cachedAll();
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            gen = generation;
+        }
+        misses.increment();
+        List<V> values = loader.load();
+        if (RescueAppDbConnector.isInTransaction()) {
+            return values;
+        }
+        synchronized (this) {
+            if (gen == generation && values.size() <= maxSize) {
+                long now = System.currentTimeMillis();
+                List<K> ids = new ArrayList<>(values.size());
+                for (V v : values) {
+                    K id = idOf.apply(v);
+                    ids.add(id);
+                    store(id, copier.apply(v), now);
+                }
+                allIds = ids;
+                allLoadedAt = now;
+            }
+        }
+        return values;
+    }
+
+    /** Drops the row (and the full-table snapshot) after a write; again after commit when in a transaction. */
+    public void invalidate(K id) {
+        drop(id);
+        if (RescueAppDbConnector.isInTransaction()) {
+            RescueAppDbConnector.afterCommit(() -> drop(id));
+        }
+    }
+
+    /** Drops everything, e.g. after a write whose affected ids aren't known. */
+    public void invalidateAll() {
+        clear();
+        if (RescueAppDbConnector.isInTransaction()) {
+            RescueAppDbConnector.afterCommit(this::clear);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public String getStats() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        double rate = total == 0 ? 0.0 : (100.0 * h / total);
+        return String.format("Entity cache %s: %d hits, %d misses (%.1f%% hit rate), %d expired, %d evicted, %d invalidated, %d entries",
+                name, h, misses.sum(), rate, expirations.sum(), evictions.sum(), invalidations.sum(), size());
+    }
+
+    /** Stats of every entity cache, one line each. */
+    public static String getAllStats() {
+        StringBuilder sb = new StringBuilder();
+        for (RescueAppEntityCache<?, ?> cache : CACHES) {
+            if (sb.length() > 0) sb.append('\n');
+            sb.append(cache.getStats());
+        }
+        return sb.toString();
+    }
+
+    // Copies of the full load, or null if it has expired or lost a row since
+    private List<V> cachedAll() {
+        if (allIds == null) return null;
+        if (isExpired(allLoadedAt)) {
+            allIds = null;
+            return null;
+        }
+        List<V> result = new ArrayList<>(allIds.size());
+        for (K id : allIds) {
+            Entry<V> e = entries.get(id);
+            if (e == null || isExpired(e.loadedAt)) {
+                allIds = null;
+                return null;
+            }
+            result.add(copier.apply(e.value));
+        }
+        return result;
+    }
+
+    private void store(K id, V value, long loadedAt) {
+        entries.put(id, new Entry<>(value, loadedAt));
+        for (Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator(); entries.size() > maxSize && it.hasNext(); ) {
+            it.next();
+            it.remove();
+            evictions.increment();
+            allIds = null;
+        }
+    }
+
+    private synchronized void drop(K id) {
+        generation++;
+        invalidations.increment();
+        entries.remove(id);
+        allIds = null;
+    }
+
+    private synchronized void clear() {
+        generation++;
+        invalidations.increment();
+        entries.clear();
+        allIds = null;
+    }
+
+    private boolean isExpired(long loadedAt) {
+        return System.currentTimeMillis() - loadedAt >= ttlMs;
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long loadedAt;
+
+        Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
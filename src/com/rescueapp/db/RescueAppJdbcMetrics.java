@@ -0,0 +1,310 @@
+package com.rescueapp.db;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * JDBC instrumentation. Pooled connections wrap every statement they hand out, and this
+ * records, per SQL statement and per DAO method that ran it:
+ * - execution latency in a RescueAppLatencyHistogram (p50/p95/p99),
+ * - rows returned (or affected, for writes) and an estimate of the bytes read from results,
+ * - failed executions.
+ * Executions slower than rescueapp.slowQueryMs (default 500) are printed to System.err with
+ * their bind parameters and the last SLOW_LOG_SIZE are kept for getSlowQueries().
+ * The cost per statement is a stack walk to find the calling DAO method, a proxy call per
+ * JDBC method and lock-free counter updates; -Drescueapp.jdbcMetrics=false turns it off.
+ * Results served by RescueAppQueryCache never reach JDBC and are not counted here.
+ */
+public final class RescueAppJdbcMetrics {
+
+    public static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("rescueapp.jdbcMetrics"));
+    private static final long SLOW_QUERY_MS = Long.getLong("rescueapp.slowQueryMs", 500);
+    private static final int SLOW_LOG_SIZE = 50;
+    private static final int MAX_KEYS = 500;          // distinct statements/methods tracked; the rest share one entry
+    private static final int MAX_PARAM_LENGTH = 100;  // longer bind values are cut in the slow log
+    private static final String DAO_PACKAGE = "com.rescueapp.db.dao.";
+    private static final String DB_PACKAGE = "com.rescueapp.db.";
+    private static final Pattern PARAM_LIST = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+
+    private static final Map<String, String> KEYS = new ConcurrentHashMap<>(); // SQL -> normalized, computed once
+    private static final Map<String, Stats> BY_SQL = new ConcurrentHashMap<>();
+    private static final Map<String, Stats> BY_METHOD = new ConcurrentHashMap<>();
+    private static final Deque<String> SLOW_LOG = new ArrayDeque<>(); // guarded by itself
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    private RescueAppJdbcMetrics() { }
+
+    /** Counters for one statement or DAO method. */
+    public static final class Stats {
+        private final String name;
+        private final RescueAppLatencyHistogram latency = new RescueAppLatencyHistogram();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        Stats(String name) {
+            this.name = name;
+        }
+
+        public String getName() { return name; }
+        public RescueAppLatencyHistogram getLatency() { return latency; }
+        public long getRows() { return rows.sum(); }
+        public long getBytes() { return bytes.sum(); }
+        public long getErrors() { return errors.sum(); }
+
+        @Override
+        public String toString() {
+            return name + ": " + latency.summary() + ", " + rows.sum() + " rows, ~"
+                    + bytes.sum() / 1024 + " KB read, " + errors.sum() + " errors";
+        }
+    }
+
+    /** Instruments a prepared statement for the given SQL; returns it unchanged when metrics are off. */
+    public static PreparedStatement wrap(PreparedStatement ps, String sql) {
+        if (!ENABLED) return ps;
+        Probe probe = new Probe(ps, stats(BY_SQL, normalize(sql)), stats(BY_METHOD, callingMethod()), sql);
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> probe.invoke(method, args));
+    }
+
+    /** Instruments a plain statement; each execute(sql) is attributed to its own SQL. */
+    public static Statement wrap(Statement st) {
+        if (!ENABLED) return st;
+        Probe probe = new Probe(st, null, stats(BY_METHOD, callingMethod()), null);
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(),
+                new Class<?>[]{Statement.class}, (proxy, method, args) -> probe.invoke(method, args));
+    }
+
+    public static List<Stats> getStatementStats() {
+        return new ArrayList<>(BY_SQL.values());
+    }
+
+    public static List<Stats> getMethodStats() {
+        return new ArrayList<>(BY_METHOD.values());
+    }
+
+    /** The most recent slow executions, oldest first. */
+    public static List<String> getSlowQueries() {
+        synchronized (SLOW_LOG) {
+            return new ArrayList<>(SLOW_LOG);
+        }
+    }
+
+    /** The DAO methods and statements with the highest p95 latency, 'limit' of each. */
+    public static String getReport(int limit) {
+        StringBuilder sb = new StringBuilder("JDBC metrics (slowest by p95):");
+        appendTop(sb, "DAO methods", getMethodStats(), limit);
+        appendTop(sb, "Statements", getStatementStats(), limit);
+        return sb.toString();
+    }
+
+    private static void appendTop(StringBuilder sb, String title, List<Stats> stats, int limit) {
+        stats.sort(Comparator.comparingLong((Stats s) -> s.latency.getPercentile(95)).reversed());
+        sb.append("\n  ").append(title).append(':');
+        for (int i = 0; i < Math.min(limit, stats.size()); i++) {
+            sb.append("\n    ").append(stats.get(i));
+        }
+    }
+
+    private static Stats stats(Map<String, Stats> map, String key) {
+        Stats s = map.get(key);
+        if (s != null) return s;
+        if (map.size() >= MAX_KEYS) key = "(other)";
+        return map.computeIfAbsent(key, Stats::new);
+    }
+
+    // IN (?, ?, ?) lists of different lengths count as one statement
+    private static String normalize(String sql) {
+        String key = KEYS.get(sql);
+        if (key != null) return key;
+        key = PARAM_LIST.matcher(sql.trim().replaceAll("\\s+", " ")).replaceAll("?, ...");
+        if (KEYS.size() < MAX_KEYS * 2) KEYS.put(sql, key);
+        return key;
+    }
+
+    // The DAO method that prepared the statement, else the first caller outside the db layer
+    private static String callingMethod() {
+        return WALKER.walk(frames -> frames
+                .filter(f -> {
+                    String c = f.getClassName();
+                    return (c.startsWith(DAO_PACKAGE) && !c.startsWith(DAO_PACKAGE + "RowMapper"))
+                            || !(c.startsWith(DB_PACKAGE) || c.startsWith("java.") || c.startsWith("jdk.")
+                                 || c.startsWith("com.sun.") || c.startsWith("com.rescueapp.RescueAppRuntime"));
+                })
+                .findFirst()
+                .map(f -> simpleName(f.getClassName()) + "." + methodName(f.getMethodName()))
+                .orElse("(unknown)"));
+    }
+
+    private static String simpleName(String className) {
+        String name = className.substring(className.lastIndexOf('.') + 1);
+        int inner = name.indexOf('$');
+        return inner < 0 ? name : name.substring(0, inner);
+    }
+
+    // lambda$getAllTasks$3 -> getAllTasks
+    private static String methodName(String method) {
+        if (method.startsWith("lambda$")) {
+            int end = method.indexOf('$', 7);
+            return end < 0 ? method : method.substring(7, end);
+        }
+        return method;
+    }
+
+    private static void logSlow(long micros, String caller, String sql, Object[] params, long rows) {
+        String entry = String.format("Slow query: %.1f ms in %s%s: %s%s", micros / 1000.0, caller,
+                rows >= 0 ? " (" + rows + " rows)" : "", sql.trim().replaceAll("\\s+", " "), params == null ? "" : " " + formatParams(params));
+        System.err.println(entry);
+        synchronized (SLOW_LOG) {
+            if (SLOW_LOG.size() >= SLOW_LOG_SIZE) SLOW_LOG.removeFirst();
+            SLOW_LOG.addLast(entry);
+        }
+    }
+
+    private static String formatParams(Object[] params) {
+        String[] shown = new String[params.length];
+        for (int i = 0; i < params.length; i++) {
+            String v = String.valueOf(params[i]);
+            shown[i] = v.length() > MAX_PARAM_LENGTH ? v.substring(0, MAX_PARAM_LENGTH) + "..." : v;
+        }
+        return Arrays.toString(shown);
+    }
+
+    /** Per-handle state: the bind parameters so far, and where to record executions. */
+    private static final class Probe {
+        private final Statement target;
+        private final Stats sqlStats;      // null for plain statements: looked up per execute(sql)
+        private final Stats methodStats;
+        private final String sql;
+        private Object[] params;           // only touched by the thread using the statement
+        private int paramCount;
+
+        Probe(Statement target, Stats sqlStats, Stats methodStats, String sql) {
+            this.target = target;
+            this.sqlStats = sqlStats;
+            this.methodStats = methodStats;
+            this.sql = sql;
+        }
+
+        Object invoke(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                bind((Integer) args[0], name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                params = null;
+                paramCount = 0;
+            }
+            return call(method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            String text = sql;
+            Stats statement = sqlStats;
+            if (statement == null) {
+                text = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : "(batch)";
+                statement = stats(BY_SQL, normalize(text));
+            }
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = call(method, args);
+            } catch (Throwable t) {
+                statement.errors.increment();
+                methodStats.errors.increment();
+                record(statement, start, text, -1);
+                throw t;
+            }
+            if (result instanceof ResultSet) {
+                record(statement, start, text, -1); // rows are counted as they are read
+                return countRows((ResultSet) result, statement);
+            }
+            record(statement, start, text, affectedRows(result));
+            return result;
+        }
+
+        // rows: affected by a write, or -1 when not known yet
+        private void record(Stats statement, long start, String text, long rows) {
+            long micros = (System.nanoTime() - start) / 1000;
+            statement.latency.record(micros);
+            methodStats.latency.record(micros);
+            if (rows > 0) {
+                statement.rows.add(rows);
+                methodStats.rows.add(rows);
+            }
+            if (micros >= SLOW_QUERY_MS * 1000) {
+                logSlow(micros, methodStats.name, text, params == null ? null : Arrays.copyOf(params, paramCount), rows);
+            }
+        }
+
+        private void bind(int index, Object value) {
+            if (params == null || params.length < index) {
+                params = Arrays.copyOf(params == null ? new Object[0] : params, Math.max(index, 8));
+            }
+            params[index - 1] = value;
+            paramCount = Math.max(paramCount, index);
+        }
+
+        private Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private static long affectedRows(Object result) {
+            if (result instanceof Integer) return Math.max(0, (Integer) result);
+            if (result instanceof Long) return Math.max(0, (Long) result);
+            long total = 0;
+            if (result instanceof int[]) {
+                for (int n : (int[]) result) total += Math.max(0, n);
+            } else if (result instanceof long[]) {
+                for (long n : (long[]) result) total += Math.max(0, n);
+            }
+            return total;
+        }
+
+        // Counts rows as they are read and estimates their size: string length, byte[] length, 8 for the rest
+        private ResultSet countRows(ResultSet rs, Stats statement) {
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+                        Object value;
+                        try {
+                            value = method.invoke(rs, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                        String name = method.getName();
+                        if (name.equals("next")) {
+                            if (Boolean.TRUE.equals(value)) {
+                                statement.rows.increment();
+                                methodStats.rows.increment();
+                            }
+                        } else if (name.startsWith("get") && value != null && args != null && args.length == 1) {
+                            long size = value instanceof String ? ((String) value).length()
+                                    : value instanceof byte[] ? ((byte[]) value).length : 8;
+                            statement.bytes.add(size);
+                            methodStats.bytes.add(size);
+                        }
+                        return value;
+                    });
+        }
+    }
+}
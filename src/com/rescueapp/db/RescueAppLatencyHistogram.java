@@ -0,0 +1,92 @@
+package com.rescueapp.db;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram in microseconds, bucketed the way HdrHistogram does it:
+ * exact below 32, then 16 buckets per power of two, so a percentile is reported within
+ * about 6% of the true value. record() never locks or allocates: it increments the
+ * value's bucket, adds to the count and sum LongAdders, and raises the max with a CAS
+ * that only loops while a new maximum is being set concurrently. Percentiles are read
+ * from a snapshot of the counts while recording goes on.
+ */
+public final class RescueAppLatencyHistogram {
+
+    private static final int SUB_BUCKETS = 16;
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;        // values below this get their own bucket
+    private static final long MAX_VALUE = (1L << 40) - 1;           // ~12 days in microseconds; larger values are clamped
+    private static final int BUCKETS = bucketOf(MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long micros) {
+        long v = Math.max(0, Math.min(micros, MAX_VALUE));
+        counts.incrementAndGet(bucketOf(v));
+        count.increment();
+        sum.add(v);
+        long m = max.get();
+        while (v > m && !max.compareAndSet(m, v)) {
+            m = max.get();
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0.0 : (double) sum.sum() / n;
+    }
+
+    /** The value at the given percentile (0-100), as the upper end of its bucket; 0 if empty. */
+    public long getPercentile(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= target) {
+                return Math.min(upperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /** "n=…, p50=…, p95=…, p99=…, max=…" in milliseconds. */
+    public String summary() {
+        return String.format("n=%d, p50=%.1f ms, p95=%.1f ms, p99=%.1f ms, max=%.1f ms",
+                getCount(), getPercentile(50) / 1000.0, getPercentile(95) / 1000.0,
+                getPercentile(99) / 1000.0, getMax() / 1000.0);
+    }
+
+    // Below LINEAR_LIMIT: the value itself. Above: the top five bits of the value select one of
+    // 16 buckets within its power of two.
+    static int bucketOf(long v) {
+        if (v < LINEAR_LIMIT) return (int) v;
+        int shift = 63 - Long.numberOfLeadingZeros(v) - 4;
+        return shift * SUB_BUCKETS + (int) (v >>> shift);
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < LINEAR_LIMIT) return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        long top = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return ((top + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,211 @@
+package com.rescueapp.db;
+
+import com.rescueapp.db.dao.RescueAppOutboxDAO;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moves notification intents from the outbox (RescueAppOutboxDAO) into 'notifications'
+ * on one background thread, so panels never write notifications themselves.
+ * - Intents are delivered in batches of up to BATCH_SIZE per transaction. The relay is
+ *   woken when an intent is committed and otherwise polls every POLL_INTERVAL_MS, which
+ *   also picks up intents left behind by a client that exited before delivering them.
+ * - If a batch fails, its intents are retried one at a time to find the bad one. A failed
+ *   intent is retried with exponential backoff and marked Dead after MAX_ATTEMPTS.
+ * - If the database can't be reached at all, the whole relay backs off the same way.
+ * Several clients may run a relay against the same database: claimed rows are locked
+ * with SKIP LOCKED, so each intent is handled by one relay at a time.
+ */
+public final class RescueAppOutboxRelay {
+
+    private static final int BATCH_SIZE = 500;
+    private static final long POLL_INTERVAL_MS = 5_000;
+    private static final long RETRY_BASE_MS = 5_000;
+    private static final long RETRY_MAX_MS = 10 * 60_000;
+    private static final int MAX_ATTEMPTS = 8;
+    private static final long STOP_TIMEOUT_MS = 1_500;
+
+    private static final RescueAppOutboxRelay INSTANCE = new RescueAppOutboxRelay();
+
+    private final RescueAppDbConnector db = new RescueAppDbConnector();
+    private final RescueAppOutboxDAO outbox = new RescueAppOutboxDAO(db);
+    private final Object signal = new Object();
+    private boolean woken = false;            // guarded by signal
+    private Thread thread;                    // guarded by this
+    private volatile boolean running = false;
+    private volatile boolean stopped = false;
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder dead = new LongAdder();
+    private volatile String lastError;
+
+    private RescueAppOutboxRelay() { }
+
+    public static RescueAppOutboxRelay getInstance() {
+        return INSTANCE;
+    }
+
+    /** Starts the relay thread if it isn't running. Does nothing after stop(). */
+    public synchronized void start() {
+        if (running || stopped) return;
+        running = true;
+        thread = new Thread(this::runLoop, "rescueapp-outbox-relay");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Asks the relay to look at the outbox now instead of at its next poll; starts it if needed. */
+    public void wake() {
+        start();
+        synchronized (signal) {
+            woken = true;
+            signal.notifyAll();
+        }
+    }
+
+    /**
+     * Makes one last delivery pass and stops the thread, waiting up to STOP_TIMEOUT_MS.
+     * Intents still pending stay in the outbox for the next client to deliver.
+     * Called by RescueAppRuntime.shutdown() before the connection pool is closed.
+     */
+    public void stop() {
+        Thread t;
+        synchronized (this) {
+            stopped = true;
+            running = false;
+            t = thread;
+        }
+        if (t == null) return;
+        synchronized (signal) {
+            woken = true;
+            signal.notifyAll();
+        }
+        try {
+            t.join(STOP_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public String getStats() {
+        return String.format("Outbox relay: %d delivered in %d batches, %d retries scheduled, %d dead%s",
+                delivered.sum(), batches.sum(), retried.sum(), dead.sum(),
+                lastError == null ? "" : ", last error: " + lastError);
+    }
+
+    private void runLoop() {
+        int failures = 0;
+        while (running) {
+            long waitMs = POLL_INTERVAL_MS;
+            try {
+                if (drainOnce() == BATCH_SIZE) {
+                    waitMs = 0; // more is probably waiting
+                }
+                failures = 0;
+            } catch (SQLException | RuntimeException e) {
+                failures++;
+                waitMs = backoff(failures);
+                lastError = e.getMessage();
+                System.err.println("Outbox relay: database unavailable (" + e.getMessage() + "), retrying in " + waitMs + " ms");
+            }
+            if (waitMs > 0) {
+                waitForWork(waitMs);
+            }
+        }
+        try {
+            drainOnce(); // last chance for intents committed just before shutdown
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Outbox relay: final delivery failed, pending notifications stay queued: " + e.getMessage());
+        }
+    }
+
+    private void waitForWork(long ms) {
+        synchronized (signal) {
+            try {
+                if (!woken) signal.wait(ms);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            woken = false;
+        }
+    }
+
+    /** Delivers one batch; returns how many intents were claimed. Throws if the database can't be used at all. */
+    private int drainOnce() throws SQLException {
+        AtomicReference<List<RescueAppOutboxDAO.Entry>> claimed = new AtomicReference<>();
+        try {
+            int n = db.inTransaction(() -> {
+                List<RescueAppOutboxDAO.Entry> batch = outbox.claimDue(BATCH_SIZE);
+                claimed.set(batch);
+                outbox.deliver(batch);
+                return batch.size();
+            });
+            if (n > 0) {
+                delivered.add(n);
+                batches.increment();
+            }
+            return n;
+        } catch (SQLException e) {
+            List<RescueAppOutboxDAO.Entry> batch = claimed.get();
+            if (batch == null || batch.isEmpty() || isConnectionFailure(e)) {
+                throw e;
+            }
+            System.err.println("Outbox relay: batch of " + batch.size() + " failed (" + e.getMessage() + "), delivering one at a time");
+            for (RescueAppOutboxDAO.Entry entry : batch) {
+                deliverOne(entry);
+            }
+            return batch.size();
+        }
+    }
+
+    private void deliverOne(RescueAppOutboxDAO.Entry entry) throws SQLException {
+        try {
+            boolean done = db.inTransaction(() -> {
+                if (!outbox.claim(entry.getOutboxId())) return false; // taken by another relay meanwhile
+                outbox.deliver(Collections.singletonList(entry));
+                return true;
+            });
+            if (done) delivered.increment();
+        } catch (SQLException e) {
+            if (isConnectionFailure(e)) throw e;
+            int attempts = entry.getAttempts() + 1;
+            boolean poison = attempts >= MAX_ATTEMPTS;
+            long delay = backoff(attempts);
+            lastError = e.getMessage();
+            outbox.recordFailure(entry.getOutboxId(), attempts,
+                    new Timestamp(System.currentTimeMillis() + delay), poison, e.getMessage());
+            if (poison) {
+                dead.increment();
+                System.err.println("Outbox relay: giving up on notification " + entry.getOutboxId()
+                        + " for user " + entry.getReceiverId() + " after " + attempts + " attempts: " + e.getMessage());
+            } else {
+                retried.increment();
+                System.err.println("Outbox relay: notification " + entry.getOutboxId() + " failed (attempt "
+                        + attempts + "), retrying in " + delay + " ms: " + e.getMessage());
+            }
+        }
+    }
+
+    private static long backoff(int failures) {
+        long delay = RETRY_BASE_MS << Math.min(failures - 1, 16);
+        return Math.min(delay, RETRY_MAX_MS);
+    }
+
+    // SQLState class 08 is "connection exception"; the pool reports borrow timeouts and shutdown the same way
+    private static boolean isConnectionFailure(SQLException e) {
+        String state = e.getSQLState();
+        return e instanceof SQLNonTransientConnectionException
+                || e instanceof SQLTransientConnectionException
+                || (state != null && state.startsWith("08"));
+    }
+}
@@ -0,0 +1,528 @@
+package com.rescueapp.db;
+
+import java.io.InterruptedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.channels.ClosedByInterruptException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cache of list-query results, so switching tabs or refreshing after a one-row update
+ * doesn't re-run a query whose tables haven't changed.
+ * - Entries are keyed by SQL text and parameters and tagged with the tables the SQL reads
+ *   (its FROM and JOIN clauses). What is cached is the rows of the result set, not mapped
+ *   objects: every caller maps its own copy through the same RowMapper as before.
+ * - Every table has a version. Pooled connections wrap write statements (trackWrites) so
+ *   that executing an INSERT/UPDATE/DELETE bumps the versions of the tables it writes,
+ *   and again after commit when it ran in a transaction. An entry is only used while all
+ *   of its tables are at the versions they had when the query started.
+ * - Identical reads running at the same time share one query (single flight), unless a
+ *   table was written after the running query started.
+ * - Writes by other clients aren't seen here; entries expire after TTL_MS to bound that.
+ * - Reads inside a transaction bypass the cache, since they must see its own writes.
+ * Writes through Connection.createStatement() are not tracked; the DAOs only use it for reads.
+ */
+public final class RescueAppQueryCache {
+
+    /** Turns a (cached) result set into the caller's objects. */
+    public interface Reader<T> {
+        T read(ResultSet rs) throws SQLException;
+    }
+
+    private static final long TTL_MS = 30_000;
+    private static final int MAX_ENTRIES = 200;
+    private static final int MAX_CACHED_ROWS = 10_000;
+    private static final int MAX_PARSED_SQL = 1024;
+
+    private static final Pattern READ_TABLES = Pattern.compile("\\b(?:FROM|JOIN)\\s+`?(\\w+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern INSERT_TABLE = Pattern.compile("^\\s*(?:INSERT|REPLACE)\\b.*?\\bINTO\\s+`?(\\w+)",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern UPDATE_TABLES = Pattern.compile("\\b(?:UPDATE|JOIN)\\s+`?(\\w+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern UPDATE_SET = Pattern.compile("\\bSET\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DELETE_WHERE = Pattern.compile("\\bWHERE\\b", Pattern.CASE_INSENSITIVE);
+
+    private static final RescueAppQueryCache INSTANCE = new RescueAppQueryCache();
+
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> writtenTables = new ConcurrentHashMap<>(); // SQL -> tables, parsed once
+    private final Map<String, Flight> inFlight = new ConcurrentHashMap<>();
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true); // guarded by this; LRU
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+    private final LongAdder stale = new LongAdder();
+    private final LongAdder tableWrites = new LongAdder();
+
+    private RescueAppQueryCache() { }
+
+    public static RescueAppQueryCache getInstance() {
+        return INSTANCE;
+    }
+
+    /** Runs a parameterless query through the cache. */
+    public <T> T query(RescueAppDbConnector db, String sql, Reader<T> reader) throws SQLException {
+        return query(db, sql, Collections.emptyList(), reader);
+    }
+
+    /**
+     * Returns reader's view of the query result, from the cache if its tables haven't been
+     * written since it was loaded. Parameters are bound in order with setObject().
+     */
+    public <T> T query(RescueAppDbConnector db, String sql, List<?> params, Reader<T> reader) throws SQLException {
+        if (RescueAppDbConnector.isInTransaction()) {
+            return reader.read(load(db, sql, params).open());
+        }
+        String key = params.isEmpty() ? sql : sql + '\u0000' + params;
+        Set<String> tables = tablesRead(sql);
+
+        Snapshot cached = null;
+        synchronized (this) {
+            Entry e = entries.get(key);
+            if (e != null) {
+                if (e.isCurrent()) {
+                    cached = e.snapshot;
+                } else {
+                    entries.remove(key);
+                    stale.increment();
+                }
+            }
+        }
+        if (cached != null) {
+            hits.increment();
+            return reader.read(cached.open()); // mapped outside the lock
+        }
+        misses.increment();
+        return reader.read(loadOnce(db, sql, params, key, tables).open());
+    }
+
+    /**
+     * Called by the pool for every prepared statement: if the SQL writes to tables, returns a
+     * wrapper that bumps their versions whenever it executes; otherwise returns ps itself.
+     */
+    public static PreparedStatement trackWrites(PreparedStatement ps, String sql) {
+        Set<String> tables = INSTANCE.tablesWritten(sql);
+        if (tables.isEmpty()) return ps;
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (!name.startsWith("execute")) {
+                        return invoke(ps, method, args);
+                    }
+                    try {
+                        return invoke(ps, method, args);
+                    } finally {
+                        INSTANCE.written(tables); // even on failure: a batch may have been partly applied
+                    }
+                });
+    }
+
+    /** Marks tables as changed, e.g. after a write the pool can't see. */
+    public void written(Set<String> tables) {
+        bump(tables);
+        if (RescueAppDbConnector.isInTransaction()) {
+            RescueAppDbConnector.afterCommit(() -> bump(tables)); // drops results read before the commit
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public String getStats() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        double rate = total == 0 ? 0.0 : (100.0 * h / total);
+        return String.format("Query cache: %d hits, %d misses (%.1f%% hit rate), %d shared in flight, %d stale, %d table writes, %d entries",
+                h, misses.sum(), rate, collapsed.sum(), stale.sum(), tableWrites.sum(), size());
+    }
+
+    // Single flight: the first caller queries, identical callers arriving meanwhile wait for its rows
+    private Snapshot loadOnce(RescueAppDbConnector db, String sql, List<?> params, String key, Set<String> tables) throws SQLException {
+        while (true) {
+            Flight flight = new Flight(tables, versionsOf(tables));
+            Flight running = inFlight.putIfAbsent(key, flight);
+            if (running == null) {
+                return fly(db, sql, params, key, flight);
+            }
+            if (!running.isCurrent()) {
+                // Started before a write we must see; wait for nothing and run our own query
+                if (inFlight.replace(key, running, flight)) {
+                    return fly(db, sql, params, key, flight);
+                }
+                continue;
+            }
+            collapsed.increment();
+            Snapshot shared = running.await();
+            if (shared != null) {
+                return shared;
+            }
+            // The leader was interrupted (its load was cancelled); that failure isn't ours, so try again
+        }
+    }
+
+    private Snapshot fly(RescueAppDbConnector db, String sql, List<?> params, String key, Flight flight) throws SQLException {
+        try {
+            Snapshot snapshot = load(db, sql, params);
+            flight.future.complete(snapshot);
+            if (snapshot.rows.size() <= MAX_CACHED_ROWS) {
+                synchronized (this) {
+                    entries.put(key, new Entry(snapshot, flight.tables, flight.versions, System.currentTimeMillis()));
+                    Iterator<String> it = entries.keySet().iterator();
+                    while (entries.size() > MAX_ENTRIES && it.hasNext()) {
+                        it.next();
+                        it.remove();
+                    }
+                }
+            }
+            return snapshot;
+        } catch (Throwable t) {
+            // Followers retry rather than inherit a cancellation aimed at this caller only
+            inFlight.remove(key, flight); // before waking them, so a retry doesn't find this flight again
+            flight.future.completeExceptionally(isInterruption(t) ? new Aborted() : t);
+            throw t;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    // True if the load failed because this thread was interrupted, however the driver reported it
+    private static boolean isInterruption(Throwable t) {
+        if (Thread.currentThread().isInterrupted()) return true;
+        for (Throwable c = t; c != null; c = c.getCause()) {
+            if (c instanceof InterruptedException || c instanceof InterruptedIOException
+                    || c instanceof ClosedByInterruptException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Snapshot load(RescueAppDbConnector db, String sql, List<?> params) throws SQLException {
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                return Snapshot.of(rs);
+            }
+        }
+    }
+
+    private void bump(Set<String> tables) {
+        for (String table : tables) {
+            versions.merge(table, 1L, Long::sum);
+            tableWrites.increment();
+        }
+    }
+
+    private long[] versionsOf(Set<String> tables) {
+        long[] v = new long[tables.size()];
+        int i = 0;
+        for (String table : tables) {
+            v[i++] = versions.getOrDefault(table, 0L);
+        }
+        return v;
+    }
+
+    private boolean isCurrent(Set<String> tables, long[] loadedAt) {
+        return Arrays.equals(versionsOf(tables), loadedAt);
+    }
+
+    private static Set<String> tablesRead(String sql) {
+        Set<String> tables = new LinkedHashSet<>();
+        Matcher m = READ_TABLES.matcher(sql);
+        while (m.find()) {
+            tables.add(m.group(1).toLowerCase(Locale.ROOT));
+        }
+        return tables;
+    }
+
+    private Set<String> tablesWritten(String sql) {
+        Set<String> tables = writtenTables.get(sql);
+        if (tables == null) {
+            tables = parseWrittenTables(sql);
+            if (writtenTables.size() < MAX_PARSED_SQL) { // IN (...) lists of every length make many distinct strings
+                writtenTables.put(sql, tables);
+            }
+        }
+        return tables;
+    }
+
+    // INSERT/REPLACE: the INTO table. UPDATE: the tables before SET. DELETE: the tables before WHERE.
+    static Set<String> parseWrittenTables(String sql) {
+        String head = sql.trim();
+        int space = head.indexOf(' ');
+        String verb = (space < 0 ? head : head.substring(0, space)).toUpperCase(Locale.ROOT);
+        Set<String> tables = new LinkedHashSet<>();
+        Matcher m;
+        switch (verb) {
+            case "INSERT":
+            case "REPLACE":
+                m = INSERT_TABLE.matcher(head);
+                if (m.find()) tables.add(m.group(1).toLowerCase(Locale.ROOT));
+                break;
+            case "UPDATE":
+                Matcher set = UPDATE_SET.matcher(head);
+                m = UPDATE_TABLES.matcher(set.find() ? head.substring(0, set.start()) : head);
+                while (m.find()) tables.add(m.group(1).toLowerCase(Locale.ROOT));
+                break;
+            case "DELETE":
+                Matcher where = DELETE_WHERE.matcher(head);
+                m = READ_TABLES.matcher(where.find() ? head.substring(0, where.start()) : head);
+                while (m.find()) tables.add(m.group(1).toLowerCase(Locale.ROOT));
+                break;
+            default:
+                break;
+        }
+        return Collections.unmodifiableSet(tables);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class Entry {
+        final Snapshot snapshot;
+        final Set<String> tables;
+        final long[] versions;
+        final long loadedAt;
+
+        Entry(Snapshot snapshot, Set<String> tables, long[] versions, long loadedAt) {
+            this.snapshot = snapshot;
+            this.tables = tables;
+            this.versions = versions;
+            this.loadedAt = loadedAt;
+        }
+
+        boolean isCurrent() {
+            return System.currentTimeMillis() - loadedAt < TTL_MS && RescueAppQueryCache.this.isCurrent(tables, versions);
+        }
+    }
+
+    /** Completes a flight whose leader was interrupted; never thrown to callers. */
+    @SuppressWarnings("serial")
+    private static final class Aborted extends Exception {
+        Aborted() {
+            super(null, null, false, false);
+        }
+    }
+
+    private final class Flight {
+        final Set<String> tables;
+        final long[] versions;
+        final CompletableFuture<Snapshot> future = new CompletableFuture<>();
+
+        Flight(Set<String> tables, long[] versions) {
+            this.tables = tables;
+            this.versions = versions;
+        }
+
+        boolean isCurrent() {
+            return RescueAppQueryCache.this.isCurrent(tables, versions);
+        }
+
+        /** The leader's rows, or null if the leader was interrupted and the caller should query again. */
+        Snapshot await() throws SQLException {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a shared query.", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Aborted) return null;
+                if (cause instanceof SQLException) throw (SQLException) cause;
+                if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+                if (cause instanceof Error) throw (Error) cause;
+                throw new SQLException(cause);
+            }
+        }
+    }
+
+    /**
+     * The rows of one result. open() gives a read-only, forward-only ResultSet over them
+     * supporting what the row mappers use: next, getString/getInt/getLong/getDate/getTimestamp/
+     * getObject by index or label, wasNull and getMetaData.
+     */
+    private static final class Snapshot {
+        final String[] labels;
+        final List<Object[]> rows;
+
+        private Snapshot(String[] labels, List<Object[]> rows) {
+            this.labels = labels;
+            this.rows = rows;
+        }
+
+        static Snapshot of(ResultSet rs) throws SQLException {
+            ResultSetMetaData md = rs.getMetaData();
+            int n = md.getColumnCount();
+            String[] labels = new String[n];
+            int[] types = new int[n];
+            for (int i = 0; i < n; i++) {
+                labels[i] = md.getColumnLabel(i + 1);
+                types[i] = md.getColumnType(i + 1);
+            }
+            List<Object[]> rows = new ArrayList<>();
+            while (rs.next()) {
+                Object[] row = new Object[n];
+                for (int i = 0; i < n; i++) {
+                    switch (types[i]) {
+                        case Types.DATE:
+                            row[i] = rs.getDate(i + 1);
+                            break;
+                        case Types.TIMESTAMP:
+                        case Types.TIMESTAMP_WITH_TIMEZONE:
+                            row[i] = rs.getTimestamp(i + 1);
+                            break;
+                        default:
+                            row[i] = rs.getObject(i + 1);
+                            break;
+                    }
+                }
+                rows.add(row);
+            }
+            return new Snapshot(labels, rows);
+        }
+
+        ResultSet open() {
+            Cursor cursor = new Cursor();
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class}, (proxy, method, args) ->
+                            method.getName().equals("equals") ? proxy == args[0] : cursor.call(method.getName(), args));
+        }
+
+        int findColumn(String label) throws SQLException {
+            for (int i = 0; i < labels.length; i++) {
+                if (labels[i].equalsIgnoreCase(label)) return i + 1;
+            }
+            throw new SQLException("Column '" + label + "' not found.");
+        }
+
+        ResultSetMetaData metaData() {
+            return (ResultSetMetaData) Proxy.newProxyInstance(ResultSetMetaData.class.getClassLoader(),
+                    new Class<?>[]{ResultSetMetaData.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "getColumnCount":
+                                return labels.length;
+                            case "getColumnLabel":
+                            case "getColumnName":
+                                return labels[(Integer) args[0] - 1];
+                            default:
+                                throw new SQLFeatureNotSupportedException("Cached result metadata: " + method.getName());
+                        }
+                    });
+        }
+
+        private final class Cursor {
+            private int row = -1;
+            private boolean closed = false;
+            private boolean lastNull = false;
+
+            Object call(String method, Object[] args) throws SQLException {
+                switch (method) {
+                    case "next":
+                        if (closed) throw new SQLException("Result set is closed.");
+                        if (row < rows.size()) row++;
+                        return row < rows.size();
+                    case "close":
+                        closed = true;
+                        return null;
+                    case "isClosed":
+                        return closed;
+                    case "wasNull":
+                        return lastNull;
+                    case "getMetaData":
+                        return metaData();
+                    case "findColumn":
+                        return findColumn((String) args[0]);
+                    case "getObject":
+                        return value(args);
+                    case "getString": {
+                        Object v = value(args);
+                        return v == null ? null : v.toString();
+                    }
+                    case "getInt": {
+                        Object v = value(args);
+                        return v == null ? 0 : v instanceof Number ? ((Number) v).intValue() : Integer.parseInt(v.toString());
+                    }
+                    case "getLong": {
+                        Object v = value(args);
+                        return v == null ? 0L : v instanceof Number ? ((Number) v).longValue() : Long.parseLong(v.toString());
+                    }
+                    case "getDate":
+                        return toDate(value(args));
+                    case "getTimestamp":
+                        return toTimestamp(value(args));
+                    case "hashCode":
+                        return System.identityHashCode(this);
+                    case "toString":
+                        return "CachedResultSet[" + rows.size() + " rows]";
+                    default:
+                        throw new SQLFeatureNotSupportedException("Cached result set: " + method);
+                }
+            }
+
+            private Object value(Object[] args) throws SQLException {
+                if (closed) throw new SQLException("Result set is closed.");
+                if (row < 0 || row >= rows.size()) throw new SQLException("No current row.");
+                int column = args[0] instanceof String ? findColumn((String) args[0]) : (Integer) args[0];
+                Object v = rows.get(row)[column - 1];
+                lastNull = v == null;
+                return v;
+            }
+        }
+
+        // Dates are mutable, so every read gets its own copy
+        private static java.sql.Date toDate(Object v) {
+            if (v == null) return null;
+            if (v instanceof java.util.Date) return new java.sql.Date(((java.util.Date) v).getTime());
+            if (v instanceof LocalDate) return java.sql.Date.valueOf((LocalDate) v);
+            if (v instanceof LocalDateTime) return java.sql.Date.valueOf(((LocalDateTime) v).toLocalDate());
+            return java.sql.Date.valueOf(v.toString());
+        }
+
+        private static Timestamp toTimestamp(Object v) {
+            if (v == null) return null;
+            if (v instanceof Timestamp) {
+                Timestamp copy = new Timestamp(((Timestamp) v).getTime());
+                copy.setNanos(((Timestamp) v).getNanos());
+                return copy;
+            }
+            if (v instanceof java.util.Date) return new Timestamp(((java.util.Date) v).getTime());
+            if (v instanceof LocalDateTime) return Timestamp.valueOf((LocalDateTime) v);
+            if (v instanceof LocalDate) return Timestamp.valueOf(((LocalDate) v).atStartOfDay());
+            return Timestamp.valueOf(v.toString());
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.rescueapp.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LRU cache of prepared statements for one physical connection, keyed by SQL text.
+ * DAOs keep calling conn.prepareStatement(sql) and close() as before; the pooled
+ * connection routes those calls here so repeated SQL is only parsed once per connection.
+ */
+public class RescueAppStatementCache {
+
+    // Counters are shared by all connections so the hit rate reflects the whole app
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+    private static final LongAdder EVICTIONS = new LongAdder();
+
+    private final int maxSize;
+    private final LinkedHashMap<String, Entry> entries;
+
+    public RescueAppStatementCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true); // access order = LRU
+    }
+
+    /**
+     * Returns a cached statement for the SQL, preparing it on a miss. The returned
+     * statement's close() only resets it for the next caller.
+     *
+     * @param handle the connection handle the caller holds; returned from getConnection()
+     */
+    public synchronized PreparedStatement prepare(Connection physical, String sql, Connection handle) throws SQLException {
+        Entry entry = entries.get(sql);
+        if (entry != null && !entry.inUse) {
+            HITS.increment();
+            entry.inUse = true;
+            return entry.newHandle(handle);
+        }
+
+        MISSES.increment();
+        PreparedStatement ps = physical.prepareStatement(sql);
+        if (entry != null) {
+            // Same SQL is already checked out on this connection (nested use): hand out an uncached one
+            return ps;
+        }
+
+        entry = new Entry(sql, ps);
+        entry.inUse = true;
+        entries.put(sql, entry);
+        evictOverflow();
+        return entry.newHandle(handle);
+    }
+
+    private void evictOverflow() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (entries.size() > maxSize && it.hasNext()) {
+            Entry eldest = it.next();
+            if (eldest.inUse) continue; // closed on release instead
+            it.remove();
+            EVICTIONS.increment();
+            closeQuietly(eldest.statement);
+        }
+    }
+
+    private synchronized void release(Entry entry) {
+        entry.inUse = false;
+        try {
+            entry.statement.clearParameters();
+            entry.statement.clearBatch();
+        } catch (SQLException e) {
+            entries.remove(entry.sql);
+            closeQuietly(entry.statement);
+            return;
+        }
+        if (entries.get(entry.sql) != entry) {
+            closeQuietly(entry.statement); // was evicted while checked out
+        } else {
+            evictOverflow();
+        }
+    }
+
+    /** Closes every cached statement. Called when the physical connection is discarded. */
+    public synchronized void clear() {
+        for (Entry e : entries.values()) {
+            closeQuietly(e.statement);
+        }
+        entries.clear();
+    }
+
+    public synchronized int size() { return entries.size(); }
+
+    public static long getHits() { return HITS.sum(); }
+    public static long getMisses() { return MISSES.sum(); }
+    public static long getEvictions() { return EVICTIONS.sum(); }
+
+    public static String getStats() {
+        long hits = getHits();
+        long total = hits + getMisses();
+        double rate = total == 0 ? 0.0 : (100.0 * hits / total);
+        return String.format("Statement cache: %d hits, %d misses (%.1f%% hit rate), %d evictions",
+                hits, getMisses(), rate, getEvictions());
+    }
+
+    private static void closeQuietly(PreparedStatement ps) {
+        try {
+            ps.close();
+        } catch (SQLException e) {
+            System.err.println("Statement cache: error closing statement: " + e.getMessage());
+        }
+    }
+
+    private final class Entry {
+        final String sql;
+        final PreparedStatement statement;
+        boolean inUse;
+
+        Entry(String sql, PreparedStatement statement) {
+            this.sql = sql;
+            this.statement = statement;
+        }
+
+        PreparedStatement newHandle(Connection connectionHandle) {
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new StatementHandle(this, connectionHandle));
+        }
+    }
+
+    private final class StatementHandle implements InvocationHandler {
+        private final Entry entry;
+        private final Connection connectionHandle;
+        private boolean released = false;
+
+        StatementHandle(Entry entry, Connection connectionHandle) {
+            this.entry = entry;
+            this.connectionHandle = connectionHandle;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!released) {
+                        released = true;
+                        release(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return released;
+                case "getConnection":
+                    return connectionHandle;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + entry.sql + "]";
+                default:
+                    break;
+            }
+            if (released) {
+                throw new SQLException("Statement has already been closed.");
+            }
+            try {
+                return method.invoke(entry.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RescueAppStatementCache[size=" + size() + ", max=" + maxSize + "]";
+    }
+
+}
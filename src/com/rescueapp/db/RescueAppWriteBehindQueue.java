@@ -0,0 +1,239 @@
+package com.rescueapp.db;
+
+import com.rescueapp.RescueAppRuntime;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind for small idempotent status updates ("set status of row X to S").
+ * The UI updates its model right away and submits the change here; changes are
+ * written a little later as one UPDATE ... WHERE id IN (...) per status.
+ * - Repeated updates of the same row before a flush are coalesced: the last status wins.
+ * - A flush runs FLUSH_DELAY_MS after the first pending change, or as soon as
+ *   maxPending rows are waiting, on the runtime's WRITE category. Flushes never overlap,
+ *   so updates reach the database in the order they were made.
+ * - If a flush fails, its rows go back into the queue (unless a newer update replaced
+ *   them) and are retried on the next flush. A row that fails MAX_ATTEMPTS times is
+ *   dropped and reported to the DropListeners, so the UI can tell the user and reload.
+ * - RescueAppRuntime.shutdown() calls flushAll() before closing the pool. It waits for a
+ *   flush already running, then writes what is left.
+ * Readers that reload from the database can overlay getPending() so a change that
+ * hasn't been written yet doesn't appear to be undone.
+ */
+public final class RescueAppWriteBehindQueue {
+
+    /** Writes one status for a chunk of row ids. */
+    public interface BatchWriter {
+        void write(String status, List<String> ids) throws SQLException;
+    }
+
+    /** Told about rows given up on after MAX_ATTEMPTS failed writes. Called on the flushing thread. */
+    public interface DropListener {
+        void dropped(String status, List<String> ids, Exception cause);
+    }
+
+    public static final long FLUSH_DELAY_MS = 2_000;
+    public static final int DEFAULT_MAX_PENDING = 200;
+    public static final int MAX_ATTEMPTS = 5;
+    private static final int MAX_IDS_PER_STATEMENT = 500;
+    private static final long SHUTDOWN_DRAIN_MS = 5_000;
+
+    private static final List<RescueAppWriteBehindQueue> QUEUES = new CopyOnWriteArrayList<>();
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "rescueapp-write-behind");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final String name;
+    private final BatchWriter writer;
+    private final int maxPending;
+    private final Map<String, String> pending = new LinkedHashMap<>(); // guarded by this; id -> status
+    private final Map<String, Integer> attempts = new HashMap<>();     // guarded by this; failed writes of the pending status
+    private boolean scheduled = false;                                 // guarded by this
+    private boolean flushing = false;                                  // guarded by this
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final List<DropListener> dropListeners = new CopyOnWriteArrayList<>();
+
+    public RescueAppWriteBehindQueue(String name, BatchWriter writer) {
+        this(name, writer, DEFAULT_MAX_PENDING);
+    }
+
+    public RescueAppWriteBehindQueue(String name, BatchWriter writer, int maxPending) {
+        if (maxPending < 1) throw new IllegalArgumentException("maxPending must be at least 1");
+        this.name = name;
+        this.writer = writer;
+        this.maxPending = maxPending;
+        QUEUES.add(this);
+    }
+
+    /** Queues "set row id to status", replacing any change for that row not yet written. */
+    public void submit(String id, String status) {
+        submitted.increment();
+        boolean flushNow;
+        synchronized (this) {
+            pending.remove(id); // re-insert so the row moves to the end
+            pending.put(id, status);
+            attempts.remove(id); // a new status starts with a clean slate
+            flushNow = pending.size() >= maxPending;
+            if (!flushNow && (scheduled || flushing)) return;
+            scheduled = true;
+        }
+        if (flushNow) {
+            startFlush();
+        } else {
+            TIMER.schedule(this::startFlush, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** The status queued for the row and not yet written, or null. */
+    public synchronized String getPending(String id) {
+        return pending.get(id);
+    }
+
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    public void addDropListener(DropListener listener) {
+        dropListeners.add(listener);
+    }
+
+    public void removeDropListener(DropListener listener) {
+        dropListeners.remove(listener);
+    }
+
+    public String getStats() {
+        return String.format("Write-behind %s: %d submitted, %d rows written in %d statements, %d failed flushes, %d rows dropped, %d pending",
+                name, submitted.sum(), written.sum(), statements.sum(), failures.sum(), dropped.sum(), getPendingCount());
+    }
+
+    /**
+     * Writes everything pending on the calling thread, after waiting for a flush that is
+     * already running. Used at shutdown, when the runtime takes no more tasks.
+     */
+    public static void flushAll() {
+        long deadline = System.currentTimeMillis() + SHUTDOWN_DRAIN_MS;
+        for (RescueAppWriteBehindQueue q : QUEUES) {
+            q.drain(deadline);
+        }
+    }
+
+    // Failed rows are retried right away, so this ends once each is written or dropped
+    private void drain(long deadline) {
+        try {
+            for (int round = 0; round <= MAX_ATTEMPTS; round++) {
+                synchronized (this) {
+                    while (flushing) {
+                        long left = deadline - System.currentTimeMillis();
+                        if (left <= 0) break;
+                        wait(left);
+                    }
+                    if (flushing || pending.isEmpty()) break;
+                }
+                flushNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int lost = getPendingCount();
+        if (lost > 0) {
+            System.err.println("Write-behind " + name + ": " + lost + " row(s) not written before shutdown.");
+        }
+    }
+
+    private void startFlush() {
+        if (RescueAppRuntime.isShutdown()) return; // flushAll() takes it from here
+        RescueAppRuntime.submit(RescueAppRuntime.Category.WRITE, (Runnable) this::flushNow);
+    }
+
+    private void flushNow() {
+        Map<String, String> batch;
+        synchronized (this) {
+            scheduled = false;
+            if (flushing || pending.isEmpty()) return; // the running flush reschedules when it's done
+            flushing = true;
+            batch = new LinkedHashMap<>(pending);
+            pending.clear();
+        }
+
+        Map<String, List<String>> byStatus = new LinkedHashMap<>();
+        for (Map.Entry<String, String> e : batch.entrySet()) {
+            byStatus.computeIfAbsent(e.getValue(), s -> new ArrayList<>()).add(e.getKey());
+        }
+        Map<String, String> failed = new LinkedHashMap<>();
+        Map<String, Exception> causes = new HashMap<>();
+        List<String> done = new ArrayList<>();
+        for (Map.Entry<String, List<String>> e : byStatus.entrySet()) {
+            List<String> ids = e.getValue();
+            for (int from = 0; from < ids.size(); from += MAX_IDS_PER_STATEMENT) {
+                List<String> chunk = ids.subList(from, Math.min(from + MAX_IDS_PER_STATEMENT, ids.size()));
+                try {
+                    writer.write(e.getKey(), chunk);
+                    written.add(chunk.size());
+                    statements.increment();
+                    done.addAll(chunk);
+                } catch (SQLException | RuntimeException ex) {
+                    failures.increment();
+                    System.err.println("Write-behind " + name + ": failed to write " + chunk.size()
+                            + " row(s) as '" + e.getKey() + "': " + ex.getMessage());
+                    for (String id : chunk) failed.put(id, e.getKey());
+                    causes.putIfAbsent(e.getKey(), ex);
+                }
+            }
+        }
+
+        Map<String, List<String>> givenUp = new LinkedHashMap<>();
+        boolean again;
+        synchronized (this) {
+            for (String id : done) {
+                if (!pending.containsKey(id)) attempts.remove(id);
+            }
+            for (Map.Entry<String, String> e : failed.entrySet()) {
+                String id = e.getKey();
+                if (pending.containsKey(id)) continue; // a newer update wins over the failed one
+                int tries = attempts.merge(id, 1, Integer::sum);
+                if (tries >= MAX_ATTEMPTS) {
+                    attempts.remove(id);
+                    givenUp.computeIfAbsent(e.getValue(), st -> new ArrayList<>()).add(id);
+                } else {
+                    pending.put(id, e.getValue());
+                }
+            }
+            flushing = false;
+            notifyAll(); // drain() may be waiting for this flush
+            again = !pending.isEmpty() && !scheduled;
+            if (again) scheduled = true;
+        }
+        for (Map.Entry<String, List<String>> e : givenUp.entrySet()) {
+            dropped.add(e.getValue().size());
+            System.err.println("Write-behind " + name + ": giving up on " + e.getValue().size() + " row(s) as '"
+                    + e.getKey() + "' after " + MAX_ATTEMPTS + " failed attempts.");
+            for (DropListener listener : dropListeners) {
+                try {
+                    listener.dropped(e.getKey(), e.getValue(), causes.get(e.getKey()));
+                } catch (RuntimeException ex) {
+                    ex.printStackTrace();
+                }
+            }
+        }
+        if (again && !RescueAppRuntime.isShutdown()) {
+            TIMER.schedule(this::startFlush, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -1,25 +1,43 @@
 package com.rescueapp.db.dao;
 
 import com.rescueapp.core.AdoptionRequest;
-import com.rescueapp.core.StrayAnimal; // Added import
 import com.rescueapp.core.User;     // Added import
 import com.rescueapp.db.RescueAppDbConnector;
+import com.rescueapp.db.RescueAppQueryCache;
 
 import java.sql.*;
-import java.time.Instant; // Added import
 import java.util.ArrayList;
 import java.util.List;
 
 public class RescueAppAdoptionDAO {
-    private Connection conn;
+    private final RescueAppDbConnector db;
+    private final RescueAppAnimalDAO animalDAO;
 
-    public RescueAppAdoptionDAO(RescueAppDbConnector conn) {
-        this.conn = conn.getMySQLConnection();
+    /** Outcome of approveRequest(). */
+    public static final class ApprovalResult {
+        private final boolean approved;
+        private final List<String> rejectedAdopterIds;
+
+        ApprovalResult(boolean approved, List<String> rejectedAdopterIds) {
+            this.approved = approved;
+            this.rejectedAdopterIds = rejectedAdopterIds;
+        }
+
+        /** False if the request was no longer pending or the animal had already been adopted. */
+        public boolean isApproved() { return approved; }
+
+        /** Adopters whose competing pending requests were rejected by this approval. */
+        public List<String> getRejectedAdopterIds() { return rejectedAdopterIds; }
+    }
+
+    public RescueAppAdoptionDAO(RescueAppDbConnector db) {
+        this.db = db;
+        this.animalDAO = new RescueAppAnimalDAO(db);
     }
 
     public AdoptionRequest addRequest(AdoptionRequest r) throws SQLException {
         String sql = "INSERT INTO adoption (reqId, reqdate, userId, animalId, name, contact, status) VALUES (?, ?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, r.getRequestId());
             ps.setString(2, r.getRequestDate().toString());
             ps.setString(3, r.getAdopter().getUserId());
@@ -32,15 +50,86 @@ public class RescueAppAdoptionDAO {
         return r;
     }
     
+    /**
+     * Sets the status of a request that is still Pending. Returns false if it no longer is,
+     * e.g. because another operator approved or rejected it in the meantime.
+     */
     public boolean updateRequestStatus(String requestId, String status) throws SQLException {
-        String sql = "UPDATE adoption SET status = ? WHERE reqId = ?";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        String sql = "UPDATE adoption SET status = ? WHERE reqId = ? AND status = 'Pending'";
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, status);
             ps.setString(2, requestId);
             return ps.executeUpdate() > 0;
         }
     }
 
+    /**
+     * Approves a pending request and marks its animal adopted as one compare-and-set: the
+     * single UPDATE only matches while the request is still Pending and the animal is not
+     * already Adopted, so when two operators approve requests for the same animal at once,
+     * exactly one succeeds. In the same transaction every other pending request for that
+     * animal is rejected, and their adopters are returned so they can be notified in one batch.
+     * The animal's pending requests are locked first, in reqId order, so concurrent approvals
+     * for the same animal queue up behind each other instead of deadlocking.
+     */
+    public ApprovalResult approveRequest(String requestId, String animalId) throws SQLException {
+        if (animalId == null) {
+            // No animal to reserve: just the conditional status change
+            String sql = "UPDATE adoption SET status = 'Approved' WHERE reqId = ? AND status = 'Pending'";
+            try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setString(1, requestId);
+                return new ApprovalResult(ps.executeUpdate() > 0, new ArrayList<>());
+            }
+        }
+
+        String lockSql = "SELECT reqId, userId FROM adoption WHERE animalId = ? AND status = 'Pending' "
+                       + "ORDER BY reqId FOR UPDATE";
+        String casSql = "UPDATE adoption a JOIN animals an ON an.animalId = a.animalId "
+                      + "SET a.status = 'Approved', an.status = 'Adopted' "
+                      + "WHERE a.reqId = ? AND a.animalId = ? AND a.status = 'Pending' "
+                      + "AND (an.status IS NULL OR an.status <> 'Adopted')";
+        String rejectSql = "UPDATE adoption SET status = 'Rejected' WHERE animalId = ? AND status = 'Pending' AND reqId <> ?";
+
+        return db.inTransaction(() -> {
+            try (Connection conn = db.getConnection()) {
+                boolean pending = false;
+                List<String> rejected = new ArrayList<>();
+                try (PreparedStatement ps = conn.prepareStatement(lockSql)) {
+                    ps.setString(1, animalId);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            if (requestId.equals(rs.getString(1))) {
+                                pending = true;
+                                continue;
+                            }
+                            String userId = rs.getString(2);
+                            if (userId != null && !rejected.contains(userId)) rejected.add(userId);
+                        }
+                    }
+                }
+                if (!pending) {
+                    return new ApprovalResult(false, new ArrayList<>()); // already processed, nothing written
+                }
+
+                try (PreparedStatement ps = conn.prepareStatement(casSql)) {
+                    ps.setString(1, requestId);
+                    ps.setString(2, animalId);
+                    if (ps.executeUpdate() == 0) {
+                        return new ApprovalResult(false, new ArrayList<>()); // animal already adopted, nothing written
+                    }
+                }
+                RescueAppAnimalDAO.invalidate(animalId); // now Adopted
+
+                try (PreparedStatement ps = conn.prepareStatement(rejectSql)) {
+                    ps.setString(1, animalId);
+                    ps.setString(2, requestId);
+                    ps.executeUpdate();
+                }
+                return new ApprovalResult(true, rejected);
+            }
+        });
+    }
+
     /**
      * Corrected method: Fetches all requests with full User and Animal details joined.
      * Uses LEFT JOIN to ensure requests show even if the Animal or User record is missing.
@@ -49,47 +138,21 @@ public class RescueAppAdoptionDAO {
         List<AdoptionRequest> list = new ArrayList<>();
         
         // Use LEFT JOIN to prevent missing/deleted animals from crashing the query
-        String sql = "SELECT a.*, " +
+        // Only what the request tables show; the animal's text fields load lazily if ever read
+        String sql = "SELECT a.reqId, a.reqdate, a.status, " +
                      "u.userId AS adopterId, u.name AS adopterName, u.email, u.contact, u.role, " +
-                     "an.animalId AS animal_id, an.specifications, an.medreport, an.status AS animalStatus " +
+                     "an.animalId AS animal_id, an.status AS animalStatus " +
                      "FROM adoption a " +
                      "LEFT JOIN users u ON a.userId = u.userId " +
                      "LEFT JOIN animals an ON a.animalId = an.animalId";
 
-        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+        return RescueAppQueryCache.getInstance().query(db, sql, rs -> {
+            RowMapper<AdoptionRequest> mapper = RowMappers.adoptionRequest(rs, animalDAO);
             while (rs.next()) {
-                AdoptionRequest r = new AdoptionRequest();
-                r.setRequestId(rs.getString("reqId"));
-                r.setRequestDate(Instant.parse(rs.getString("reqdate")));
-                r.setStatus(rs.getString("status"));
-                
-                
-                if (rs.getString("adopterId") != null) {
-                    User adopter = new User(
-                            rs.getString("adopterId"),
-                            rs.getString("adopterName"),
-                            rs.getString("email"),
-                            rs.getString("role"),
-                            rs.getString("contact")
-                    );
-                    r.setAdopter(adopter);
-                }
-
-               
-                if (rs.getString("animal_id") != null) {
-                    StrayAnimal animal = new StrayAnimal();
-                    animal.setAnimalId(rs.getString("animal_id"));
-                    animal.setSpecifications(rs.getString("specifications"));
-                    animal.setMedReport(rs.getString("medreport"));
-                    animal.setStatus(rs.getString("animalStatus"));
-                    r.setAnimal(animal);
-                }
-                // If animal_id is null, r.getAnimal() remains null, which is handled in the panel.
-
-                list.add(r);
+                list.add(mapper.map(rs));
             }
-        }
-        return list;
+            return list;
+        });
     }
     
     // Public method now calls the detailed fetch method
@@ -2,21 +2,33 @@ package com.rescueapp.db.dao;
 
 import com.rescueapp.core.StrayAnimal;
 import com.rescueapp.db.RescueAppDbConnector;
+import com.rescueapp.db.RescueAppEntityCache;
 
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 public class RescueAppAnimalDAO {
-	private Connection conn; 
+	static final String SPECIFICATIONS = "specifications";
+	static final String MED_REPORT = "medreport";
 
-	public RescueAppAnimalDAO(RescueAppDbConnector conn) {
-		this.conn =  conn.getMySQLConnection();
+	private static final String ALL_COLUMNS = "animalId, specifications, photourl, medreport, status";
+	// What the adoption list shows; the medical report is fetched only if something asks for it
+	private static final String LIST_COLUMNS = "animalId, specifications, photourl, status";
+	// Animal status changes more often than user data, so copies expire sooner
+	private static final RescueAppEntityCache<String, StrayAnimal> CACHE =
+			new RescueAppEntityCache<>("animals", 1000, 60_000, StrayAnimal::getAnimalId, RescueAppAnimalDAO::copy);
+
+	private final RescueAppDbConnector db; 
+
+	public RescueAppAnimalDAO(RescueAppDbConnector db) {
+		this.db = db;
 	}
 
     public StrayAnimal addAnimal(StrayAnimal a) throws SQLException {
         String sql = "INSERT INTO animals (animalId, specifications, photourl, medreport, status) VALUES (?, ?, ?, ?, ?)";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, a.getAnimalId());
             ps.setString(2, a.getSpecifications());
             ps.setString(3, a.getPhotoUrl());
@@ -24,56 +36,126 @@ public class RescueAppAnimalDAO {
             ps.setString(5, a.getStatus());
             ps.executeUpdate();
         }
+        CACHE.invalidate(a.getAnimalId());
         return a;
     }
    
     public boolean updateAnimalStatus(String animalId, String status) throws SQLException {
         String sql = "UPDATE animals SET status = ? WHERE animalId = ?";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, status);
             ps.setString(2, animalId);
             return ps.executeUpdate() > 0; // Returns true if a row was updated
+        } finally {
+            CACHE.invalidate(animalId);
         }
     }
     public boolean updateAnimal(StrayAnimal a) throws SQLException {
         String sql = "UPDATE animals SET specifications = ?, photourl = ?, medreport = ?, status = ? WHERE animalId = ?";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, a.getSpecifications());
             ps.setString(2, a.getPhotoUrl());
             ps.setString(3, a.getMedReport());
             ps.setString(4, a.getStatus());
             ps.setString(5, a.getAnimalId());
             return ps.executeUpdate() > 0;
+        } finally {
+            CACHE.invalidate(a.getAnimalId());
         }
     }
     
     public boolean deleteAnimal(String animalId) throws SQLException {
         String sql = "DELETE FROM animals WHERE animalId = ?";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, animalId);
             return ps.executeUpdate() > 0;
+        } finally {
+            CACHE.invalidate(animalId);
         }
     }
     
     public List<StrayAnimal> getAllAnimals() throws SQLException {
+        return CACHE.getAll(this::loadAll);
+    }
+
+    private List<StrayAnimal> loadAll() throws SQLException {
         List<StrayAnimal> list = new ArrayList<>();
-        String sql = "SELECT * FROM animals";
-        try (
+        String sql = "SELECT " + ALL_COLUMNS + " FROM animals"; // the management tables show every field
+        try (Connection conn = db.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
+            RowMapper<StrayAnimal> mapper = RowMappers.animal(rs);
             while (rs.next()) {
-                StrayAnimal a = new StrayAnimal();
-                a.setAnimalId(rs.getString("animalId"));
-                a.setSpecifications(rs.getString("specifications"));
-                a.setPhotoUrl(rs.getString("photourl"));
-                a.setMedReport(rs.getString("medreport"));
-                a.setStatus(rs.getString("status"));
-                list.add(a);
+                list.add(mapper.map(rs));
             }
         }
         return list;
     }
-}
 
+    /** Looks up one animal by primary key, or null if it doesn't exist. */
+    public StrayAnimal findById(String animalId) throws SQLException {
+        return CACHE.get(animalId, () -> loadById(animalId));
+    }
 
+    private StrayAnimal loadById(String animalId) throws SQLException {
+        String sql = "SELECT " + ALL_COLUMNS + " FROM animals WHERE animalId = ?";
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, animalId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? RowMappers.animal(rs).map(rs) : null;
+            }
+        }
+    }
 
+    /**
+     * Animals with the given status (case-insensitive, per the column collation), using idx_animals_status.
+     * The medical report is not selected; getMedReport() loads it on first use.
+     */
+    public List<StrayAnimal> findByStatus(String status) throws SQLException {
+        List<StrayAnimal> list = new ArrayList<>();
+        String sql = "SELECT " + LIST_COLUMNS + " FROM animals WHERE status = ?";
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, status);
+            try (ResultSet rs = ps.executeQuery()) {
+                RowMapper<StrayAnimal> mapper = RowMappers.animal(rs, this);
+                while (rs.next()) {
+                    list.add(mapper.map(rs));
+                }
+            }
+        }
+        return list;
+    }
+
+    /** Drops the cached copy of an animal changed by another DAO (e.g. adoption approval). */
+    static void invalidate(String animalId) {
+        CACHE.invalidate(animalId);
+    }
+
+    // Cached animals are always fully loaded, so the getters don't trigger lazy loads here
+    private static StrayAnimal copy(StrayAnimal a) {
+        return new StrayAnimal(a.getAnimalId(), a.getName(), a.getAge(), a.getGender(),
+                a.getSpecifications(), a.getPhotoUrl(), a.getMedReport(), a.getStatus());
+    }
+
+    /** Reads one text column (SPECIFICATIONS or MED_REPORT) of an animal; null if the animal is gone. */
+    String loadColumn(String animalId, String column) throws SQLException {
+        String sql = "SELECT " + column + " FROM animals WHERE animalId = ?";
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, animalId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    /** A loader handle for StrayAnimal's lazy fields. A failed load throws, and the next access tries again. */
+    Supplier<String> lazyColumn(String animalId, String column) {
+        return () -> {
+            try {
+                return loadColumn(animalId, column);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Could not load " + column + " of animal " + animalId, e);
+            }
+        };
+    }
+}
\ No newline at end of file
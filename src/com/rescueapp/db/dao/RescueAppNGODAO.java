@@ -2,42 +2,47 @@ package com.rescueapp.db.dao;
 
 import com.rescueapp.core.NGO;
 import com.rescueapp.db.RescueAppDbConnector;
+import com.rescueapp.db.RescueAppEntityCache;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 
 public class RescueAppNGODAO {
-    private Connection conn;
+    private static final String COLUMNS = "userId, name, email, contact";
+    private static final RescueAppEntityCache<String, NGO> CACHE =
+            new RescueAppEntityCache<>("ngos", 1000, 5 * 60_000, NGO::getUserId, RescueAppNGODAO::copy);
 
-    public RescueAppNGODAO(RescueAppDbConnector conn) {
-        this.conn =  conn.getMySQLConnection();
+    private final RescueAppDbConnector db;
+
+    public RescueAppNGODAO(RescueAppDbConnector db) {
+        this.db = db;
     }
 
     public NGO addNGO(NGO ngo) throws SQLException {
         String sql = "INSERT INTO ngos (userId, name, email, contact) VALUES (?, ?, ?, ?)";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, ngo.getUserId());
             ps.setString(2, ngo.getName());
             ps.setString(3, ngo.getEmail());
             ps.setString(4, ngo.getContact());
             ps.executeUpdate();
         }
+        CACHE.invalidate(ngo.getUserId());
         return ngo;
     }
 
     public NGO getNgo(String userId) throws SQLException {
-        String sql = "SELECT * FROM ngos WHERE userId=?";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        return CACHE.get(userId, () -> loadNgo(userId));
+    }
+
+    private NGO loadNgo(String userId) throws SQLException {
+        String sql = "SELECT " + COLUMNS + " FROM ngos WHERE userId=?";
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, userId);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    return new NGO(
-                        rs.getString("userId"),
-                        rs.getString("name"),
-                        rs.getString("email"),
-                        rs.getString("contact")
-                    );
+                    return RowMappers.ngo(rs).map(rs);
                 }
             }
         }
@@ -45,16 +50,16 @@ public class RescueAppNGODAO {
     }
 
     public List<NGO> getAllNgos() throws SQLException {
+        return CACHE.getAll(this::loadAll);
+    }
+
+    private List<NGO> loadAll() throws SQLException {
         List<NGO> list = new ArrayList<>();
-        String sql = "SELECT * FROM ngos";
-        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+        String sql = "SELECT " + COLUMNS + " FROM ngos";
+        try (Connection conn = db.getConnection(); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            RowMapper<NGO> mapper = RowMappers.ngo(rs);
             while (rs.next()) {
-                list.add(new NGO(
-                    rs.getString("userId"),
-                    rs.getString("name"),
-                    rs.getString("email"),
-                    rs.getString("contact")
-                ));
+                list.add(mapper.map(rs));
             }
         }
         return list;
@@ -62,20 +67,28 @@ public class RescueAppNGODAO {
 
     public boolean updateNGO(NGO user) throws SQLException {
         String sql = "UPDATE ngos SET name=?, email=?, role=? WHERE userId=?";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, user.getName());
             ps.setString(2, user.getEmail());
             ps.setString(3, user.getRole());
             ps.setString(4, user.getUserId());
             return ps.executeUpdate() > 0;
+        } finally {
+            CACHE.invalidate(user.getUserId());
         }
     }
 
     public boolean deleteUser(String userId) throws SQLException {
         String sql = "DELETE FROM ngos WHERE userId=?";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, userId);
             return ps.executeUpdate() > 0;
+        } finally {
+            CACHE.invalidate(userId);
         }
     }
+
+    private static NGO copy(NGO n) {
+        return new NGO(n.getUserId(), n.getName(), n.getEmail(), n.getContact());
+    }
 }
\ No newline at end of file
@@ -1,20 +1,141 @@
 package com.rescueapp.db.dao;
 
 import com.rescueapp.core.Notification;
+import com.rescueapp.core.NotificationBus;
 import com.rescueapp.core.User;
 import com.rescueapp.db.RescueAppDbConnector;
+import com.rescueapp.db.RescueAppWriteBehindQueue;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.sql.*;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID; // Import for new method
 
+/**
+ * Stores notifications. Every write is also published on the NotificationBus once it is
+ * committed, so open dashboards see it without polling.
+ * Digest writes (addDigest...) merge notifications of one type for one recipient within
+ * a time window into a single row with a count: the row id is derived from recipient,
+ * type and window, and a repeat turns the INSERT into an update of that row.
+ */
 public class RescueAppNotificationDAO {
-    private Connection conn;
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    public static final long DEFAULT_DIGEST_WINDOW_MS = 10 * 60_000;
 
-    public RescueAppNotificationDAO(RescueAppDbConnector conn) {
-        this.conn = conn.getMySQLConnection();
+    /** Digest type for "new stray animal report" notifications to NGOs. */
+    public static final String TYPE_NEW_REPORT = "NewReport";
+
+    // A repeat inside the window bumps the count; a digest that was already read starts counting again
+    private static final String DIGEST_UPSERT =
+            " ON DUPLICATE KEY UPDATE itemCount = IF(status = 'Read', 1, itemCount + 1), " +
+            "message = VALUES(message), date = VALUES(date), status = 'Unread'";
+
+    // Mark-as-read clicks, coalesced and written in batches (markAsReadLater)
+    private static final RescueAppWriteBehindQueue READ_QUEUE = new RescueAppWriteBehindQueue("notification read",
+            (status, ids) -> new RescueAppNotificationDAO(new RescueAppDbConnector()).markAsRead(ids));
+
+    private static final String INSERT_SQL = "INSERT INTO notifications (notificationId, receiverId, message, date, status) " +
+                                             "VALUES (?, ?, ?, ?, ?)";
+
+    private final RescueAppDbConnector db;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private long digestWindowMs = DEFAULT_DIGEST_WINDOW_MS;
+
+    public RescueAppNotificationDAO(RescueAppDbConnector db) {
+        this.db = db;
+    }
+
+    /** Number of rows sent per JDBC batch by {@link #addNotifications(Collection, String)}. */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) throw new IllegalArgumentException("Batch size must be at least 1");
+        this.batchSize = batchSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /** Length of the window in which digest notifications of one type are merged per recipient. */
+    public void setDigestWindowMillis(long digestWindowMs) {
+        if (digestWindowMs < 1) throw new IllegalArgumentException("Digest window must be positive");
+        this.digestWindowMs = digestWindowMs;
+    }
+
+    public long getDigestWindowMillis() {
+        return digestWindowMs;
+    }
+
+    /**
+     * Adds a notification of the given type to the user's digest row for the current window,
+     * creating the row if this is the first one. Returns the row's id.
+     */
+    public String addDigestNotification(String userId, String type, String message) throws SQLException {
+        long now = System.currentTimeMillis();
+        String digestId = digestId(userId, type, windowStart(now));
+        String sql = "INSERT INTO notifications (notificationId, receiverId, message, date, status, type, itemCount) " +
+                     "VALUES (?, ?, ?, ?, 'Unread', ?, 1)" + DIGEST_UPSERT;
+        Timestamp date = new Timestamp(now);
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, digestId);
+            ps.setString(2, userId);
+            ps.setString(3, message);
+            ps.setTimestamp(4, date);
+            ps.setString(5, type);
+            ps.executeUpdate();
+        }
+        // The merged count is only known to the database: subscribers re-read the row
+        RescueAppDbConnector.afterCommit(() -> NotificationBus.getInstance().publishResync(userId));
+        return digestId;
+    }
+
+    /**
+     * Digest variant of addNotificationToRole: one INSERT ... SELECT that creates or bumps
+     * each recipient's digest row. The ids are computed by the server with the same MD5
+     * formula as digestId(), so per-user and per-role digests of a type share a row.
+     * Returns the affected-row count reported by the server (1 per new row, 2 per merged one).
+     */
+    public int addDigestNotificationToRole(String role, String type, String message) throws SQLException {
+        long now = System.currentTimeMillis();
+        String sql = "INSERT INTO notifications (notificationId, receiverId, message, date, status, type, itemCount) " +
+                     "SELECT MD5(CONCAT(u.userId, '|', ?, '|', ?)), u.userId, ?, ?, 'Unread', ?, 1 " +
+                     "FROM users u WHERE u.role = ?" + DIGEST_UPSERT;
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, type);
+            ps.setString(2, Long.toString(windowStart(now)));
+            ps.setString(3, message);
+            ps.setTimestamp(4, new Timestamp(now));
+            ps.setString(5, type);
+            ps.setString(6, role);
+            int affected = ps.executeUpdate();
+            if (affected > 0) {
+                RescueAppDbConnector.afterCommit(() -> NotificationBus.getInstance().publishToRole(role));
+            }
+            return affected;
+        }
+    }
+
+    private long windowStart(long timeMillis) {
+        return timeMillis - (timeMillis % digestWindowMs);
+    }
+
+    /** MD5 hex of "userId|type|windowStart", matching MySQL's MD5(CONCAT(...)) in addDigestNotificationToRole. */
+    static String digestId(String userId, String type, long windowStart) {
+        try {
+            byte[] hash = MessageDigest.getInstance("MD5")
+                    .digest((userId + "|" + type + "|" + windowStart).getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(32);
+            for (byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e); // required on every JVM
+        }
     }
 
     /**
@@ -23,20 +144,96 @@ public class RescueAppNotificationDAO {
      */
     public boolean addNotification(String userId, String message) throws SQLException {
         String notifId = UUID.randomUUID().toString();
+        Timestamp now = new Timestamp(System.currentTimeMillis()); // Current time
         
-        String sql = "INSERT INTO notifications (notificationId, receiverId, message, date, status) " +
-                     "VALUES (?, ?, ?, ?, ?)";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(INSERT_SQL)) {
             ps.setString(1, notifId);
             ps.setString(2, userId);
             ps.setString(3, message);
-            ps.setTimestamp(4, new Timestamp(System.currentTimeMillis())); // Current time
+            ps.setTimestamp(4, now);
             ps.setString(5, "Unread");
             
-            return ps.executeUpdate() > 0;
+            boolean added = ps.executeUpdate() > 0;
+            if (added) {
+                publishAfterCommit(userId, notifId, message, now);
+            }
+            return added;
         }
     }
     
+    /**
+     * Sends the same message to many users in one transaction, written as JDBC
+     * batches of {@link #getBatchSize()} rows (the driver rewrites each batch
+     * into a multi-row INSERT). Returns the number of notifications written.
+     */
+    public int addNotifications(Collection<String> userIds, String message) throws SQLException {
+        if (userIds == null || userIds.isEmpty()) return 0;
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        // Joins the caller's unit of work if there is one, instead of committing it early
+        return db.inTransaction(() -> {
+            int written = 0;
+            try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(INSERT_SQL)) {
+                int pending = 0;
+                for (String userId : userIds) {
+                    String notifId = UUID.randomUUID().toString();
+                    ps.setString(1, notifId);
+                    ps.setString(2, userId);
+                    ps.setString(3, message);
+                    ps.setTimestamp(4, now);
+                    ps.setString(5, "Unread");
+                    ps.addBatch();
+                    publishAfterCommit(userId, notifId, message, now);
+                    if (++pending == batchSize) {
+                        written += countRows(ps.executeBatch());
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    written += countRows(ps.executeBatch());
+                }
+            }
+            return written;
+        });
+    }
+
+    /**
+     * Sends a message to every user with the given role using a single
+     * INSERT ... SELECT, so the recipient list never leaves the server.
+     * Returns the number of notifications written.
+     */
+    public int addNotificationToRole(String role, String message) throws SQLException {
+        String sql = "INSERT INTO notifications (notificationId, receiverId, message, date, status) " +
+                     "SELECT UUID(), u.userId, ?, ?, 'Unread' FROM users u WHERE u.role = ?";
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, message);
+            ps.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
+            ps.setString(3, role);
+            int written = ps.executeUpdate();
+            if (written > 0) {
+                // Row ids were generated by the server: subscribers re-read instead
+                RescueAppDbConnector.afterCommit(() -> NotificationBus.getInstance().publishToRole(role));
+            }
+            return written;
+        }
+    }
+
+    /** Publishes a stored notification on the bus once the current transaction (if any) commits. */
+    private static void publishAfterCommit(String userId, String notifId, String message, Timestamp date) {
+        Notification n = new Notification(notifId, message, null);
+        n.setCreatedAt(date.toInstant());
+        RescueAppDbConnector.afterCommit(() -> NotificationBus.getInstance().publish(userId, n));
+    }
+
+    // With rewriteBatchedStatements the driver may report SUCCESS_NO_INFO instead of per-row counts
+    private static int countRows(int[] results) {
+        int rows = 0;
+        for (int r : results) {
+            rows += (r == Statement.SUCCESS_NO_INFO) ? 1 : Math.max(r, 0);
+        }
+        return rows;
+    }
+
     /**
      * Original method (also corrected to use your table structure)
      * Adds a notification from a full Notification object.
@@ -44,7 +241,7 @@ public class RescueAppNotificationDAO {
     public boolean addNotification(Notification n) throws SQLException {
         String sql = "INSERT INTO notifications (notificationId, receiverId, message, date, status) " +
                      "VALUES (?, ?, ?, ?, ?)";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             
             String recipientId = null;
             if (n.getRecipient() instanceof User) {
@@ -68,7 +265,11 @@ public class RescueAppNotificationDAO {
             ps.setTimestamp(4, Timestamp.from(n.getCreatedAt())); // Matches 'date' (datetime) column
             ps.setString(5, n.isRead() ? "Read" : "Unread"); // Matches 'status' column
             
-            return ps.executeUpdate() > 0;
+            boolean added = ps.executeUpdate() > 0;
+            if (added && !n.isRead()) {
+                publishAfterCommit(recipientId, n.getNotificationId(), n.getMessage(), Timestamp.from(n.getCreatedAt()));
+            }
+            return added;
         }
     }
 
@@ -78,40 +279,102 @@ public class RescueAppNotificationDAO {
      */
     public List<Notification> getNotificationsForUser(String userId) throws SQLException {
         List<Notification> list = new ArrayList<>();
-        String sql = "SELECT * FROM notifications WHERE receiverId = ? ORDER BY status DESC, date DESC"; 
+        String sql = "SELECT notificationId, message, date, status, type, itemCount FROM notifications WHERE receiverId = ? ORDER BY status DESC, date DESC";
         
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, userId);
             try (ResultSet rs = ps.executeQuery()) {
+                RowMapper<Notification> mapper = RowMappers.notification(rs);
                 while (rs.next()) {
-                    String notifId = rs.getString("notificationId");
-                    String message = rs.getString("message");
-                    Timestamp ts = rs.getTimestamp("date"); // Use 'date' column
-                    String status = rs.getString("status"); // Use 'status' column
-                    
-                    Notification n = new Notification(notifId, message, null); 
-                    
-                    boolean isRead = (status != null && status.equalsIgnoreCase("Read"));
-                    if (isRead) {
-                        n.markAsRead();
-                    }
-                    
-                    list.add(n);
+                    list.add(mapper.map(rs));
                 }
             }
         }
         return list;
     }
 
+    /**
+     * Notifications for the user dated at or after the given watermark, oldest first.
+     * The bound is inclusive because 'date' only has one-second precision: callers keep
+     * the newest date they have seen and skip ids they already hold.
+     */
+    public List<Notification> getNotificationsSince(String userId, Instant since) throws SQLException {
+        List<Notification> list = new ArrayList<>();
+        String sql = "SELECT notificationId, message, date, status, type, itemCount FROM notifications " +
+                     "WHERE receiverId = ? AND date >= ? ORDER BY date, notificationId";
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, userId);
+            ps.setTimestamp(2, Timestamp.from(since));
+            try (ResultSet rs = ps.executeQuery()) {
+                RowMapper<Notification> mapper = RowMappers.notification(rs);
+                while (rs.next()) {
+                    list.add(mapper.map(rs));
+                }
+            }
+        }
+        return list;
+    }
+
+    /** Unread notifications for the user; answered from the (receiverId, status, date) index alone. */
+    public int countUnread(String userId) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM notifications WHERE receiverId = ? AND status = 'Unread'";
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
     /**
      * Marks a specific notification as read.
      * (Corrected to use 'status' column)
      */
     public boolean markAsRead(String notificationId) throws SQLException {
         String sql = "UPDATE notifications SET status = 'Read' WHERE notificationId = ?";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, notificationId);
             return ps.executeUpdate() > 0;
         }
     }
+
+    /** Marks many notifications read with a single UPDATE ... WHERE notificationId IN (...). Returns the rows changed. */
+    public int markAsRead(Collection<String> notificationIds) throws SQLException {
+        if (notificationIds == null || notificationIds.isEmpty()) return 0;
+        StringBuilder sql = new StringBuilder("UPDATE notifications SET status = 'Read' WHERE notificationId IN (");
+        for (int i = 0; i < notificationIds.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(")");
+
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+            int i = 1;
+            for (String id : notificationIds) {
+                ps.setString(i++, id);
+            }
+            return ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Queues the notification to be marked read shortly, merged with other clicks into one UPDATE.
+     * The caller updates its own view right away; isReadPending() covers reloads in between.
+     */
+    public void markAsReadLater(String notificationId) {
+        READ_QUEUE.submit(notificationId, "Read");
+    }
+
+    /** True if markAsReadLater() was called for the notification and hasn't been written yet. */
+    public boolean isReadPending(String notificationId) {
+        return READ_QUEUE.getPending(notificationId) != null;
+    }
+
+    /** Told when mark-as-read clicks are given up on after repeated write failures. */
+    public static void addReadDropListener(RescueAppWriteBehindQueue.DropListener listener) {
+        READ_QUEUE.addDropListener(listener);
+    }
+
+    public static void removeReadDropListener(RescueAppWriteBehindQueue.DropListener listener) {
+        READ_QUEUE.removeDropListener(listener);
+    }
 }
\ No newline at end of file
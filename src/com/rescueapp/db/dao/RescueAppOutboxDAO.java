@@ -0,0 +1,191 @@
+package com.rescueapp.db.dao;
+
+import com.rescueapp.core.Notification;
+import com.rescueapp.core.NotificationBus;
+import com.rescueapp.db.RescueAppDbConnector;
+import com.rescueapp.db.RescueAppOutboxRelay;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The notification outbox. Panels record a notification intent here in the same
+ * transaction as the change it reports, so the notification exists exactly when the
+ * change does. RescueAppOutboxRelay later moves pending intents into 'notifications'.
+ * An intent's id becomes the notification's id, so delivering it twice is harmless.
+ */
+public class RescueAppOutboxDAO {
+
+    public static final String STATUS_PENDING = "Pending";
+    public static final String STATUS_DEAD = "Dead";
+
+    /** notifications.message is VARCHAR(255); longer messages are cut so the insert can't fail the caller's transaction. */
+    static final int MAX_MESSAGE_LENGTH = 255;
+
+    private static final String ENQUEUE_SQL = "INSERT INTO notification_outbox " +
+            "(outboxId, receiverId, message, createdAt, status, attempts, nextAttemptAt) VALUES (?, ?, ?, ?, 'Pending', 0, ?)";
+
+    /** One pending notification intent. */
+    public static final class Entry {
+        private final String outboxId;
+        private final String receiverId;
+        private final String message;
+        private final Timestamp createdAt;
+        private final int attempts;
+
+        Entry(String outboxId, String receiverId, String message, Timestamp createdAt, int attempts) {
+            this.outboxId = outboxId;
+            this.receiverId = receiverId;
+            this.message = message;
+            this.createdAt = createdAt;
+            this.attempts = attempts;
+        }
+
+        public String getOutboxId() { return outboxId; }
+        public String getReceiverId() { return receiverId; }
+        public String getMessage() { return message; }
+        public Timestamp getCreatedAt() { return createdAt; }
+        public int getAttempts() { return attempts; }
+    }
+
+    private final RescueAppDbConnector db;
+
+    public RescueAppOutboxDAO(RescueAppDbConnector db) {
+        this.db = db;
+    }
+
+    /**
+     * Records a notification for one user. Call it inside the transaction that makes the
+     * change being reported; the relay is woken once that transaction commits.
+     */
+    public void enqueue(String userId, String message) throws SQLException {
+        if (userId == null) return;
+        List<String> one = new ArrayList<>();
+        one.add(userId);
+        enqueue(one, message);
+    }
+
+    /** Records the same notification for many users as one JDBC batch. */
+    public void enqueue(Collection<String> userIds, String message) throws SQLException {
+        if (userIds == null || userIds.isEmpty()) return;
+        if (message == null) {
+            throw new IllegalArgumentException("Notification message must not be null.");
+        }
+        if (message.length() > MAX_MESSAGE_LENGTH) {
+            message = message.substring(0, MAX_MESSAGE_LENGTH - 3) + "...";
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(ENQUEUE_SQL)) {
+            for (String userId : userIds) {
+                ps.setString(1, UUID.randomUUID().toString());
+                ps.setString(2, userId);
+                ps.setString(3, message);
+                ps.setTimestamp(4, now);
+                ps.setTimestamp(5, now);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        RescueAppDbConnector.afterCommit(() -> RescueAppOutboxRelay.getInstance().wake());
+    }
+
+    /**
+     * Locks up to 'limit' intents that are due, oldest first. Rows locked by another
+     * client's relay are skipped rather than waited for. Must run inside a transaction,
+     * which holds the locks until deliver() and commit.
+     */
+    public List<Entry> claimDue(int limit) throws SQLException {
+        String sql = "SELECT outboxId, receiverId, message, createdAt, attempts FROM notification_outbox " +
+                     "WHERE status = 'Pending' AND nextAttemptAt <= ? ORDER BY nextAttemptAt LIMIT ? FOR UPDATE SKIP LOCKED";
+        List<Entry> list = new ArrayList<>();
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setTimestamp(1, new Timestamp(System.currentTimeMillis()));
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                RowMapper<Entry> mapper = RowMappers.outboxEntry(rs);
+                while (rs.next()) {
+                    list.add(mapper.map(rs));
+                }
+            }
+        }
+        return list;
+    }
+
+    /** Locks a single pending intent; false if it is gone or another relay holds it. Must run inside a transaction. */
+    public boolean claim(String outboxId) throws SQLException {
+        String sql = "SELECT outboxId FROM notification_outbox WHERE outboxId = ? AND status = 'Pending' FOR UPDATE SKIP LOCKED";
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, outboxId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /**
+     * Writes the claimed intents to 'notifications' and removes them from the outbox, both as
+     * JDBC batches. A notification that already exists (an earlier delivery whose outbox delete
+     * was lost) is left as it is. Subscribers on the NotificationBus are told after commit.
+     */
+    public void deliver(List<Entry> entries) throws SQLException {
+        if (entries.isEmpty()) return;
+        // Not INSERT IGNORE: that would also swallow the errors that make an intent undeliverable
+        String insertSql = "INSERT INTO notifications (notificationId, receiverId, message, date, status) " +
+                           "VALUES (?, ?, ?, ?, 'Unread') ON DUPLICATE KEY UPDATE notificationId = notificationId";
+        String deleteSql = "DELETE FROM notification_outbox WHERE outboxId = ?";
+        try (Connection conn = db.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(insertSql)) {
+                for (Entry e : entries) {
+                    ps.setString(1, e.outboxId);
+                    ps.setString(2, e.receiverId);
+                    ps.setString(3, e.message);
+                    ps.setTimestamp(4, e.createdAt);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            try (PreparedStatement ps = conn.prepareStatement(deleteSql)) {
+                for (Entry e : entries) {
+                    ps.setString(1, e.outboxId);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+        }
+        for (Entry e : entries) {
+            Notification n = new Notification(e.outboxId, e.message, null);
+            n.setCreatedAt(e.createdAt.toInstant());
+            RescueAppDbConnector.afterCommit(() -> NotificationBus.getInstance().publish(e.receiverId, n));
+        }
+    }
+
+    /**
+     * Records a failed delivery: the intent is retried at nextAttemptAt, or marked Dead
+     * (kept for inspection, never retried) when dead is true.
+     */
+    public void recordFailure(String outboxId, int attempts, Timestamp nextAttemptAt, boolean dead, String error) throws SQLException {
+        String sql = "UPDATE notification_outbox SET attempts = ?, nextAttemptAt = ?, status = ?, lastError = ? WHERE outboxId = ?";
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, attempts);
+            ps.setTimestamp(2, nextAttemptAt);
+            ps.setString(3, dead ? STATUS_DEAD : STATUS_PENDING);
+            ps.setString(4, error != null && error.length() > 255 ? error.substring(0, 255) : error);
+            ps.setString(5, outboxId);
+            ps.executeUpdate();
+        }
+    }
+
+    /** Number of intents with the given status, e.g. for monitoring dead letters. */
+    public int countByStatus(String status) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM notification_outbox WHERE status = ?";
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, status);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+}
@@ -3,23 +3,25 @@ package com.rescueapp.db.dao;
 import com.rescueapp.core.Report;
 import com.rescueapp.core.User; // <-- Added missing import
 import com.rescueapp.db.RescueAppDbConnector;
+import com.rescueapp.db.RescueAppQueryCache;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 public class RescueAppReportDAO {
-    private final Connection conn;
+    private final RescueAppDbConnector db;
 
-    public RescueAppReportDAO(RescueAppDbConnector conn1) {
-        this.conn = conn1.getMySQLConnection();
+    public RescueAppReportDAO(RescueAppDbConnector db) {
+        this.db = db;
     }
 
     
     public Report addReport(Report r) throws SQLException {
         String sql = "INSERT INTO reports (reportId, description, status, reporterId, date, photoUrl, location, urgency) " +
                      "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, r.getReportId());
             ps.setString(2, r.getDescription());
             ps.setString(3, r.getStatus());
@@ -39,30 +41,14 @@ public class RescueAppReportDAO {
                      "FROM reports r LEFT JOIN users u ON r.reporterId = u.userId " +
                      "ORDER BY r.date DESC, r.reportId DESC"; // Show newest first
 
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
+        // Served from the query cache until 'reports' or 'users' is written
+        return RescueAppQueryCache.getInstance().query(db, sql, rs -> {
+            RowMapper<Report> mapper = RowMappers.report(rs);
             while (rs.next()) {
-                Report r = new Report();
-                r.setReportId(rs.getString("reportId"));
-                r.setDescription(rs.getString("description"));
-                r.setStatus(rs.getString("status"));
-                r.setLocation(rs.getString("location"));
-                r.setPhotoUrl(rs.getString("photoUrl"));
-                r.setUrgency(rs.getString("urgency"));
-                r.setDate(rs.getDate("date")); // Get as java.sql.Date
-
-                String reporterId = rs.getString("reporterId");
-                if (reporterId != null) {
-                    User reporter = new User();
-                    reporter.setUserId(reporterId);
-                    reporter.setName(rs.getString("reporterName"));
-                    r.setReporter(reporter);
-                }
-                list.add(r);
+                list.add(mapper.map(rs));
             }
-        }
-        return list;
+            return list;
+        });
     }
 
  // ... (inside RescueAppReportDAO class)
@@ -72,73 +58,105 @@ public class RescueAppReportDAO {
         // ... (implementation) ...
         List<Report> list = new ArrayList<>();
         String sql = "SELECT r.*, u.name as reporterName FROM reports r LEFT JOIN users u ON r.reporterId = u.userId ORDER BY r.date DESC";
-        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+        return RescueAppQueryCache.getInstance().query(db, sql, rs -> {
+             RowMapper<Report> mapper = RowMappers.report(rs);
              while (rs.next()) {
-                Report report = new Report();
-                report.setReportId(rs.getString("reportId"));
-                report.setDescription(rs.getString("description"));
-                report.setStatus(rs.getString("status"));
-                report.setLocation(rs.getString("location"));
-                report.setPhotoUrl(rs.getString("photoUrl"));
-                report.setUrgency(rs.getString("urgency"));
-                Date date = rs.getDate("date");
-                if (date != null) report.setDate(date);
-
-                User reporter = new User();
-                reporter.setUserId(rs.getString("reporterId"));
-                reporter.setName(rs.getString("reporterName"));
-                report.setReporter(reporter);
-
+                Report report = mapper.map(rs);
+                if (report.getReporter() == null) report.setReporter(new User()); // this method never returned a null reporter
                 list.add(report);
              }
+             return list;
+        });
+    }
+    /**
+     * Keyset (seek) pagination over reports, newest first, ordered by (date DESC, reportId DESC).
+     * Pass the last report of the previous page as 'after', or null for the first page.
+     * Unlike OFFSET paging, each page costs the same no matter how deep the user scrolls.
+     * Reports without a date sort last, as they do in getAllReportsWithDetails().
+     */
+    public List<Report> getReportsPage(Report after, int limit) throws SQLException {
+        String base = "SELECT r.*, u.name as reporterName " +
+                      "FROM reports r LEFT JOIN users u ON r.reporterId = u.userId ";
+        String order = " ORDER BY r.date DESC, r.reportId DESC LIMIT ?";
+        String sql;
+        if (after == null) {
+            sql = base + order;
+        } else if (after.getDate() != null) {
+            sql = base + "WHERE (r.date < ? OR (r.date = ? AND r.reportId < ?) OR r.date IS NULL)" + order;
+        } else {
+            sql = base + "WHERE r.date IS NULL AND r.reportId < ?" + order; // already into the undated tail
         }
-        return list;
+
+        List<Object> params = new ArrayList<>();
+        if (after != null) {
+            if (after.getDate() != null) {
+                java.sql.Date afterDate = new java.sql.Date(after.getDate().getTime());
+                params.add(afterDate);
+                params.add(afterDate);
+            }
+            params.add(after.getReportId());
+        }
+        params.add(limit);
+
+        List<Report> page = new ArrayList<>(limit);
+        return RescueAppQueryCache.getInstance().query(db, sql, params, rs -> {
+            RowMapper<Report> mapper = RowMappers.report(rs);
+            while (rs.next()) {
+                page.add(mapper.map(rs));
+            }
+            return page;
+        });
     }
+
     public boolean updateReportStatus(String reportId, String newStatus) throws SQLException {
         String sql = "UPDATE reports SET status = ? WHERE reportId = ?";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, newStatus);
             ps.setString(2, reportId);
             return ps.executeUpdate() > 0;
         }
     }
 
+    /** Sets one status on many reports with a single UPDATE ... WHERE reportId IN (...). Returns the rows changed. */
+    public int updateStatuses(Collection<String> reportIds, String newStatus) throws SQLException {
+        if (reportIds == null || reportIds.isEmpty()) return 0;
+        StringBuilder sql = new StringBuilder("UPDATE reports SET status = ? WHERE reportId IN (");
+        for (int i = 0; i < reportIds.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(")");
+
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+            ps.setString(1, newStatus);
+            int i = 2;
+            for (String reportId : reportIds) {
+                ps.setString(i++, reportId);
+            }
+            return ps.executeUpdate();
+        }
+    }
+
     // ... (rest of the DAO class)
 
     
     public String getReportById(String reportId) {
-        String reportDetails = "";
-        RescueAppDbConnector db = new RescueAppDbConnector();
-        Connection localConn = db.getMySQLConnection();
-        PreparedStatement pstmt = null;
-        ResultSet rs = null;
-
-        if (localConn == null) return "Error: Could not connect to database.";
-
-        try {
-            String sql = "SELECT reportId, description, date, status, location, urgency FROM reports WHERE reportId = ?";
-            pstmt = localConn.prepareStatement(sql);
+        String sql = "SELECT reportId, description, date, status, location, urgency FROM reports WHERE reportId = ?";
+        try (Connection conn = db.getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, reportId);
-            rs = pstmt.executeQuery();
-
-            if (rs.next()) {
-                reportDetails = String.format(
-                    "\nReport Details:\n------------------\n" +
-                    "Report ID: %s\nDescription: %s\nDate: %s\nStatus: %s\nLocation: %s\nUrgency: %s\n------------------",
-                    rs.getString("reportId"), rs.getString("description"), rs.getString("date"),
-                    rs.getString("status"), rs.getString("location"), rs.getString("urgency")
-                );
-            } else {
-                reportDetails = "No report found for ID: " + reportId;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return String.format(
+                        "\nReport Details:\n------------------\n" +
+                        "Report ID: %s\nDescription: %s\nDate: %s\nStatus: %s\nLocation: %s\nUrgency: %s\n------------------",
+                        rs.getString("reportId"), rs.getString("description"), rs.getString("date"),
+                        rs.getString("status"), rs.getString("location"), rs.getString("urgency")
+                    );
+                }
+                return "No report found for ID: " + reportId;
             }
-        } catch (Exception e) {
+        } catch (SQLException e) {
             e.printStackTrace();
-            reportDetails = "Error fetching report: " + e.getMessage();
-        } finally {
-            try { if (rs != null) rs.close(); } catch (SQLException e) { e.printStackTrace(); }
-            try { if (pstmt != null) pstmt.close(); } catch (SQLException e) { e.printStackTrace(); }
-            try { if (localConn != null) localConn.close(); } catch (SQLException e) { e.printStackTrace(); }
+            return "Error fetching report: " + e.getMessage();
         }
-        return reportDetails;
     }
 }
\ No newline at end of file
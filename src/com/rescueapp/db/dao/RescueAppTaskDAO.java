@@ -1,50 +1,45 @@
 package com.rescueapp.db.dao;
 
 import com.rescueapp.core.Task;
-import com.rescueapp.core.User;
 import com.rescueapp.db.RescueAppDbConnector;
+import com.rescueapp.db.RescueAppQueryCache;
+import com.rescueapp.db.RescueAppWriteBehindQueue;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 public class RescueAppTaskDAO {
-    private Connection conn;
+    // Status clicks from the volunteer panel, coalesced and written in batches (updateTaskStatusLater)
+    private static final RescueAppWriteBehindQueue STATUS_QUEUE = new RescueAppWriteBehindQueue("task status",
+            (status, ids) -> new RescueAppTaskDAO(new RescueAppDbConnector()).updateStatuses(ids, status));
 
-    public RescueAppTaskDAO(RescueAppDbConnector conn) {
-        this.conn = conn.getMySQLConnection();
+    private final RescueAppDbConnector db;
+
+    public RescueAppTaskDAO(RescueAppDbConnector db) {
+        this.db = db;
     }
 
    
     public List<Task> getTasksForVolunteer(String volunteerId) throws SQLException {
         List<Task> taskList = new ArrayList<>();
-        String sql = "SELECT * FROM tasks WHERE userId = ?";
-
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, volunteerId);
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    Task task = new Task();
-                    task.setTaskId(rs.getString("taskId"));
-                    task.setDescription(rs.getString("description"));
-                    task.setStatus(rs.getString("status"));
-                    task.setDate(rs.getDate("date"));
-
-                    User assignee = new User();
-                    assignee.setUserId(rs.getString("userId"));
-                    task.setAssignee(assignee);
-
-                    taskList.add(task);
-                }
+        String sql = "SELECT taskId, description, status, date, userId FROM tasks WHERE userId = ?";
+
+        return RescueAppQueryCache.getInstance().query(db, sql, Collections.singletonList(volunteerId), rs -> {
+            RowMapper<Task> mapper = RowMappers.task(rs);
+            while (rs.next()) {
+                taskList.add(mapper.map(rs)); // userId is the volunteer, so the assignee is always set
             }
-        }
-        return taskList;
+            return taskList;
+        });
     }
     
     public boolean assignTask(String taskId, String assigneeId) throws SQLException {
         // Your table uses 'userId' for assignee
         String sql = "UPDATE tasks SET userId = ? WHERE taskId = ?"; 
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, assigneeId);
             ps.setString(2, taskId);
             return ps.executeUpdate() > 0;
@@ -54,18 +49,59 @@ public class RescueAppTaskDAO {
     // ... (rest of the DAO class)
     public boolean updateTaskStatus(String taskId, String newStatus) throws SQLException {
         String sql = "UPDATE tasks SET status = ? WHERE taskId = ?";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, newStatus);
             ps.setString(2, taskId);
             return ps.executeUpdate() > 0;
         }
     }
 
+    /** Sets one status on many tasks with a single UPDATE ... WHERE taskId IN (...). Returns the rows changed. */
+    public int updateStatuses(Collection<String> taskIds, String newStatus) throws SQLException {
+        if (taskIds == null || taskIds.isEmpty()) return 0;
+        StringBuilder sql = new StringBuilder("UPDATE tasks SET status = ? WHERE taskId IN (");
+        for (int i = 0; i < taskIds.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(")");
+
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+            ps.setString(1, newStatus);
+            int i = 2;
+            for (String taskId : taskIds) {
+                ps.setString(i++, taskId);
+            }
+            return ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Queues a status change to be written shortly, merged with other pending changes.
+     * The caller updates its own view right away; getPendingStatus() covers reloads in between.
+     */
+    public void updateTaskStatusLater(String taskId, String newStatus) {
+        STATUS_QUEUE.submit(taskId, newStatus);
+    }
+
+    /** A status queued by updateTaskStatusLater() that hasn't been written yet, or null. */
+    public String getPendingStatus(String taskId) {
+        return STATUS_QUEUE.getPending(taskId);
+    }
+
+    /** Told when queued status changes are given up on after repeated write failures. */
+    public static void addStatusDropListener(RescueAppWriteBehindQueue.DropListener listener) {
+        STATUS_QUEUE.addDropListener(listener);
+    }
+
+    public static void removeStatusDropListener(RescueAppWriteBehindQueue.DropListener listener) {
+        STATUS_QUEUE.removeDropListener(listener);
+    }
+
     
     public Task addTask(Task task) throws SQLException {
         // Ensure the 'tasks' table has columns: taskId, description, userId, date, status
         String sql = "INSERT INTO tasks (taskId, description, userId, date, status) VALUES (?, ?, ?, ?, ?)";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, task.getTaskId());
             ps.setString(2, task.getDescription());
             ps.setString(3, task.getAssignee() != null ? task.getAssignee().getUserId() : null); // Handle unassigned
@@ -83,28 +119,13 @@ public class RescueAppTaskDAO {
                      "FROM tasks t LEFT JOIN users u ON t.userId = u.userId " +
                      "ORDER BY t.date DESC, t.taskId DESC";
 
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
+        // Served from the query cache until 'tasks' or 'users' is written
+        return RescueAppQueryCache.getInstance().query(db, sql, rs -> {
+            RowMapper<Task> mapper = RowMappers.task(rs);
             while (rs.next()) {
-                Task task = new Task();
-                task.setTaskId(rs.getString("taskId"));
-                task.setDescription(rs.getString("description"));
-                task.setStatus(rs.getString("status"));
-                task.setDate(rs.getDate("date"));
-
-                User assignee = null;
-                String assigneeId = rs.getString("userId");
-                if (assigneeId != null) {
-                    assignee = new User();
-                    assignee.setUserId(assigneeId);
-                    assignee.setName(rs.getString("assigneeName"));
-                }
-                task.setAssignee(assignee);
-
-                taskList.add(task);
+                taskList.add(mapper.map(rs));
             }
-        }
-        return taskList;
+            return taskList;
+        });
     }
 }
\ No newline at end of file
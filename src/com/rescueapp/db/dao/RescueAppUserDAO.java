@@ -2,21 +2,33 @@ package com.rescueapp.db.dao;
 
 import com.rescueapp.core.User;
 import com.rescueapp.db.RescueAppDbConnector;
+import com.rescueapp.db.RescueAppEntityCache;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 public class RescueAppUserDAO {
-    private Connection conn;
+    private static final String COLUMNS = "userId, name, email, contact, role";
+    private static final long CACHE_TTL_MS = 5 * 60_000;
 
-    public RescueAppUserDAO(RescueAppDbConnector conn) {
-        this.conn =  conn.getMySQLConnection();
+    // Shared by all instances, so a write through any DAO invalidates what the others read
+    private static final RescueAppEntityCache<String, User> CACHE =
+            new RescueAppEntityCache<>("users", 1000, CACHE_TTL_MS, User::getUserId, RescueAppUserDAO::copy);
+    // Login looks users up by name; names are case-insensitive in the database, so the key is lowercased
+    private static final RescueAppEntityCache<String, User> BY_NAME =
+            new RescueAppEntityCache<>("users by name", 1000, CACHE_TTL_MS, u -> nameKey(u.getName()), RescueAppUserDAO::copy);
+
+    private final RescueAppDbConnector db;
+
+    public RescueAppUserDAO(RescueAppDbConnector db) {
+        this.db = db;
     }
 
     public User addUser(User user) throws SQLException {
     	String sql = "INSERT INTO users (userId, name, email, contact, role) VALUES (?, ?, ?, ?, ?)";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
         	ps.setString(1, user.getUserId());
         	ps.setString(2, user.getName());
         	ps.setString(3, user.getEmail());
@@ -24,22 +36,22 @@ public class RescueAppUserDAO {
         	ps.setString(5, user.getRole());
             ps.executeUpdate();
         }
+        invalidate(user.getUserId());
         return user;
     }
 
     public User getUser(String userId) throws SQLException {
-        String sql = "SELECT * FROM users WHERE name=?";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        if (userId == null) return null;
+        return BY_NAME.get(nameKey(userId), () -> loadByName(userId));
+    }
+
+    private User loadByName(String userId) throws SQLException {
+        String sql = "SELECT " + COLUMNS + " FROM users WHERE name=?";
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, userId);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    return new User(
-                        rs.getString("userId"),
-                        rs.getString("name"),
-                        rs.getString("email"),
-                        rs.getString("role"),
-                        rs.getString("contact")
-                    );
+                    return RowMappers.user(rs).map(rs);
                 }
             }
         }
@@ -47,17 +59,59 @@ public class RescueAppUserDAO {
     }
 
     public List<User> getAllUsers() throws SQLException {
+        return CACHE.getAll(this::loadAll);
+    }
+
+    private List<User> loadAll() throws SQLException {
         List<User> list = new ArrayList<>();
-        String sql = "SELECT * FROM users";
-        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+        String sql = "SELECT " + COLUMNS + " FROM users";
+        try (Connection conn = db.getConnection(); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            RowMapper<User> mapper = RowMappers.user(rs);
             while (rs.next()) {
-                list.add(new User(
-                    rs.getString("userId"),
-                    rs.getString("name"),
-                    rs.getString("email"),
-                    rs.getString("role"),
-                    rs.getString("contact")
-                ));
+                list.add(mapper.map(rs));
+            }
+        }
+        return list;
+    }
+
+    /** Looks up a user by primary key (getUser() looks up by name), or null if not found. */
+    public User findById(String userId) throws SQLException {
+        return CACHE.get(userId, () -> loadById(userId));
+    }
+
+    private User loadById(String userId) throws SQLException {
+        String sql = "SELECT " + COLUMNS + " FROM users WHERE userId = ?";
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? RowMappers.user(rs).map(rs) : null;
+            }
+        }
+    }
+
+    /**
+     * Users holding any of the given roles (case-insensitive, per the column collation),
+     * using idx_users_role. E.g. findByRole("Volunteer", "NGO").
+     */
+    public List<User> findByRole(String... roles) throws SQLException {
+        List<User> list = new ArrayList<>();
+        if (roles.length == 0) return list;
+
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM users WHERE role IN (");
+        for (int i = 0; i < roles.length; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(") ORDER BY name");
+
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < roles.length; i++) {
+                ps.setString(i + 1, roles[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                RowMapper<User> mapper = RowMappers.user(rs);
+                while (rs.next()) {
+                    list.add(mapper.map(rs));
+                }
             }
         }
         return list;
@@ -66,20 +120,38 @@ public class RescueAppUserDAO {
     
     public boolean updateUser(User user) throws SQLException {
         String sql = "UPDATE users SET name = ?, email = ?, contact = ? WHERE userId = ?";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, user.getName());    // 1st '?': name
             ps.setString(2, user.getEmail());   // 2nd '?': email
             ps.setString(3, user.getContact()); // 3rd '?': contact
             ps.setString(4, user.getUserId());  // 4th '?': userId
             return ps.executeUpdate() > 0;
+        } finally {
+            invalidate(user.getUserId());
         }
     }
 
     public boolean deleteUser(String userId) throws SQLException {
         String sql = "DELETE FROM users WHERE userId=?";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, userId);
             return ps.executeUpdate() > 0;
+        } finally {
+            invalidate(userId);
         }
     }
+
+    /** Drops cached copies of a user; called for every write to the users table, also from other DAOs. */
+    static void invalidate(String userId) {
+        CACHE.invalidate(userId);
+        BY_NAME.invalidateAll(); // the old name isn't known here
+    }
+
+    private static String nameKey(String name) {
+        return name == null ? "" : name.toLowerCase(Locale.ROOT);
+    }
+
+    private static User copy(User u) {
+        return new User(u.getUserId(), u.getName(), u.getEmail(), u.getRole(), u.getContact());
+    }
 }
\ No newline at end of file
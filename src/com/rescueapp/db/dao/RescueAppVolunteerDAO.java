@@ -3,64 +3,64 @@ package com.rescueapp.db.dao;
 import com.rescueapp.core.User;
 import com.rescueapp.core.Volunteer;
 import com.rescueapp.db.RescueAppDbConnector;
+import com.rescueapp.db.RescueAppEntityCache;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 
 public class RescueAppVolunteerDAO {
-    private Connection conn;
+    private static final RescueAppEntityCache<String, Volunteer> CACHE =
+            new RescueAppEntityCache<>("volunteers", 1000, 5 * 60_000, Volunteer::getUserId, RescueAppVolunteerDAO::copy);
 
-        public RescueAppVolunteerDAO(RescueAppDbConnector conn) {
-            this.conn =  conn.getMySQLConnection();
+    private final RescueAppDbConnector db;
+
+        public RescueAppVolunteerDAO(RescueAppDbConnector db) {
+            this.db = db;
         }
 
+        /** Writes the users row and the volunteers row in one transaction: both or neither. */
         public Volunteer addVolunteer(Volunteer volunteer) throws SQLException {
-            
-            try (PreparedStatement psUser = conn.prepareStatement(
-                    "INSERT INTO users (userId, name, email, contact, role) VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE name=VALUES(name), email=VALUES(email), contact=VALUES(contact)")) {
-                psUser.setString(1, volunteer.getUserId());
-                psUser.setString(2, volunteer.getName());
-                psUser.setString(3, volunteer.getEmail());
-                psUser.setString(4, volunteer.getContact());
-                psUser.setString(5, "Volunteer"); // Set role explicitly
-                psUser.executeUpdate();
-            } catch (SQLException e) {
-                System.err.println("Warning: Could not insert/update user record for volunteer: " + e.getMessage());
-                
-            }
-
-            
+            String userSql = "INSERT INTO users (userId, name, email, contact, role) VALUES (?, ?, ?, ?, ?) "
+                           + "ON DUPLICATE KEY UPDATE name=VALUES(name), email=VALUES(email), contact=VALUES(contact)";
             String sql = "INSERT INTO volunteers (userId, name, email, contact, availability) VALUES (?, ?, ?, ?, ?)";
-            try (PreparedStatement ps = conn.prepareStatement(sql)) {
-                ps.setString(1, volunteer.getUserId());
-                ps.setString(2, volunteer.getName());
-                ps.setString(3, volunteer.getEmail());
-                ps.setString(4, volunteer.getContact());
-                ps.setString(5, volunteer.getAvailability());
-                ps.executeUpdate();
-            }
-            return volunteer;
+            return db.inTransaction(() -> {
+                try (Connection conn = db.getConnection()) {
+                    try (PreparedStatement psUser = conn.prepareStatement(userSql)) {
+                        psUser.setString(1, volunteer.getUserId());
+                        psUser.setString(2, volunteer.getName());
+                        psUser.setString(3, volunteer.getEmail());
+                        psUser.setString(4, volunteer.getContact());
+                        psUser.setString(5, "Volunteer"); // Set role explicitly
+                        psUser.executeUpdate();
+                    }
+                    try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                        ps.setString(1, volunteer.getUserId());
+                        ps.setString(2, volunteer.getName());
+                        ps.setString(3, volunteer.getEmail());
+                        ps.setString(4, volunteer.getContact());
+                        ps.setString(5, volunteer.getAvailability());
+                        ps.executeUpdate();
+                    }
+                }
+                invalidate(volunteer.getUserId());
+                return volunteer;
+            });
         }
 
        
         public Volunteer getVolunteer(String userId) throws SQLException {
+            return CACHE.get(userId, () -> loadVolunteer(userId));
+        }
+
+        private Volunteer loadVolunteer(String userId) throws SQLException {
             String sql = "SELECT v.userId, v.name, v.email, v.contact, v.availability, u.role " +
                          "FROM volunteers v LEFT JOIN users u ON v.userId = u.userId WHERE v.userId=?";
-            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
                 ps.setString(1, userId);
                 try (ResultSet rs = ps.executeQuery()) {
                     if (rs.next()) {
-                        // Create Volunteer object using specific constructor if available
-                        Volunteer vol = new Volunteer(
-                            rs.getString("userId"),
-                            rs.getString("name"),
-                            rs.getString("email"),
-                            rs.getString("contact")
-                            );
-                        vol.setAvailability(rs.getString("availability"));
-                        // vol.setRole(rs.getString("role")); // Role comes from User table potentially
-                        return vol;
+                        return RowMappers.volunteer(rs).map(rs);
                     }
                 }
             }
@@ -69,72 +69,104 @@ public class RescueAppVolunteerDAO {
 
         
         public List<Volunteer> getAllVolunteers() throws SQLException {
+            return CACHE.getAll(this::loadAll);
+        }
+
+        private List<Volunteer> loadAll() throws SQLException {
             List<Volunteer> list = new ArrayList<>();
             String sql = "SELECT v.userId, v.name, v.email, v.contact, v.availability, u.role " +
                          "FROM volunteers v LEFT JOIN users u ON v.userId = u.userId";
-            try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            try (Connection conn = db.getConnection(); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+                RowMapper<Volunteer> mapper = RowMappers.volunteer(rs);
                 while (rs.next()) {
-                     Volunteer vol = new Volunteer(
-                        rs.getString("userId"),
-                        rs.getString("name"),
-                        rs.getString("email"),
-                        rs.getString("contact")
-                     );
-                     vol.setAvailability(rs.getString("availability"));
-                     // vol.setRole(rs.getString("role"));
-                     list.add(vol);
+                     list.add(mapper.map(rs));
                 }
             }
             return list;
         }
 
-        
-        public boolean updateVolunteer(Volunteer volunteer) throws SQLException {
-            // Update users table
-             try (PreparedStatement psUser = conn.prepareStatement(
-                    "UPDATE users SET name = ?, email = ?, contact = ? WHERE userId = ?")) {
-                psUser.setString(1, volunteer.getName());
-                psUser.setString(2, volunteer.getEmail());
-                psUser.setString(3, volunteer.getContact());
-                psUser.setString(4, volunteer.getUserId());
-                psUser.executeUpdate(); // Don't check return value here, main update is below
-            } catch (SQLException e) {
-                 System.err.println("Warning: Could not update user record for volunteer: " + e.getMessage());
-                 // Decide if this should be fatal
-            }
+        /** Same as getVolunteer(); named to match the other DAOs' primary-key lookups. */
+        public Volunteer findById(String userId) throws SQLException {
+            return getVolunteer(userId);
+        }
 
-            // Update volunteers table
-            String sql = "UPDATE volunteers SET name=?, email=?, contact=?, availability=? WHERE userId=?";
-            try (PreparedStatement ps = conn.prepareStatement(sql)) {
-                ps.setString(1, volunteer.getName());
-                ps.setString(2, volunteer.getEmail());
-                ps.setString(3, volunteer.getContact());
-                ps.setString(4, volunteer.getAvailability());
-                ps.setString(5, volunteer.getUserId());
-                return ps.executeUpdate() > 0; // Return true if volunteer table was updated
+        /** Volunteers with the given availability (e.g. "Weekends"), using idx_volunteers_availability. */
+        public List<Volunteer> findByAvailability(String availability) throws SQLException {
+            List<Volunteer> list = new ArrayList<>();
+            String sql = "SELECT v.userId, v.name, v.email, v.contact, v.availability, u.role " +
+                         "FROM volunteers v LEFT JOIN users u ON v.userId = u.userId WHERE v.availability = ?";
+            try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setString(1, availability);
+                try (ResultSet rs = ps.executeQuery()) {
+                    RowMapper<Volunteer> mapper = RowMappers.volunteer(rs);
+                    while (rs.next()) {
+                        list.add(mapper.map(rs));
+                    }
+                }
             }
+            return list;
         }
 
         
+        /** Updates the users row and the volunteers row in one transaction: both or neither. */
+        public boolean updateVolunteer(Volunteer volunteer) throws SQLException {
+            String userSql = "UPDATE users SET name = ?, email = ?, contact = ? WHERE userId = ?";
+            String sql = "UPDATE volunteers SET name=?, email=?, contact=?, availability=? WHERE userId=?";
+            return db.inTransaction(() -> {
+                boolean updated;
+                try (Connection conn = db.getConnection()) {
+                    try (PreparedStatement psUser = conn.prepareStatement(userSql)) {
+                        psUser.setString(1, volunteer.getName());
+                        psUser.setString(2, volunteer.getEmail());
+                        psUser.setString(3, volunteer.getContact());
+                        psUser.setString(4, volunteer.getUserId());
+                        psUser.executeUpdate(); // Don't check return value here, main update is below
+                    }
+                    try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                        ps.setString(1, volunteer.getName());
+                        ps.setString(2, volunteer.getEmail());
+                        ps.setString(3, volunteer.getContact());
+                        ps.setString(4, volunteer.getAvailability());
+                        ps.setString(5, volunteer.getUserId());
+                        updated = ps.executeUpdate() > 0; // True if volunteer table was updated
+                    }
+                }
+                invalidate(volunteer.getUserId());
+                return updated;
+            });
+        }
+
+        /** Deletes the volunteers row, then the users row, in one transaction: both or neither. */
         public boolean deleteVolunteer(String userId) throws SQLException {
-            boolean deletedFromVolunteers = false;
-            // Delete from volunteers table first
-            String sqlVol = "DELETE FROM volunteers WHERE userId=?";
-            try (PreparedStatement ps = conn.prepareStatement(sqlVol)) {
-                ps.setString(1, userId);
-                deletedFromVolunteers = ps.executeUpdate() > 0;
-            }
+            return db.inTransaction(() -> {
+                boolean deletedFromVolunteers;
+                try (Connection conn = db.getConnection()) {
+                    // Delete from volunteers table first
+                    try (PreparedStatement ps = conn.prepareStatement("DELETE FROM volunteers WHERE userId=?")) {
+                        ps.setString(1, userId);
+                        deletedFromVolunteers = ps.executeUpdate() > 0;
+                    }
+                    if (deletedFromVolunteers) {
+                        try (PreparedStatement ps = conn.prepareStatement("DELETE FROM users WHERE userId=?")) {
+                            ps.setString(1, userId);
+                            ps.executeUpdate();
+                        }
+                    }
+                }
+                invalidate(userId);
+                return deletedFromVolunteers;
+            });
+        }
 
-            
-            if (deletedFromVolunteers) {
-                String sqlUser = "DELETE FROM users WHERE userId=?";
-                 try (PreparedStatement ps = conn.prepareStatement(sqlUser)) {
-                    ps.setString(1, userId);
-                    ps.executeUpdate(); // We assume this works if the volunteer existed
-                 } catch (SQLException e) {
-                     System.err.println("Warning: Could not delete user record for volunteer: " + e.getMessage());
-                     }
-            }
-            return deletedFromVolunteers;
+        // Volunteer writes touch the users row as well
+        private static void invalidate(String userId) {
+            CACHE.invalidate(userId);
+            RescueAppUserDAO.invalidate(userId);
+        }
+
+        private static Volunteer copy(Volunteer v) {
+            Volunteer c = new Volunteer(v.getUserId(), v.getName(), v.getEmail(), v.getContact());
+            c.setAvailability(v.getAvailability());
+            return c;
         }
     }
\ No newline at end of file
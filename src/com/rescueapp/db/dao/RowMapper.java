@@ -0,0 +1,12 @@
+package com.rescueapp.db.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the current row of a ResultSet to an object. Obtained from RowMappers once per
+ * result set, with every column index already resolved, and then called for each row.
+ */
+interface RowMapper<T> {
+    T map(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,314 @@
+package com.rescueapp.db.dao;
+
+import com.rescueapp.core.AdoptionRequest;
+import com.rescueapp.core.NGO;
+import com.rescueapp.core.Notification;
+import com.rescueapp.core.Report;
+import com.rescueapp.core.StrayAnimal;
+import com.rescueapp.core.Task;
+import com.rescueapp.core.User;
+import com.rescueapp.core.Volunteer;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Row mappers for the core entities, shared by the DAOs.
+ * - Column labels are looked up once per result set, from its ResultSetMetaData, and
+ *   rows are then read by index. rs.getString("name") repeats a case-insensitive search
+ *   of the columns for every value of every row.
+ * - Columns a query may leave out (like the reporter name of a joined query) are optional:
+ *   the mapped field is simply left null.
+ * - Low-cardinality values (statuses, roles, urgency, availability, notification type)
+ *   are interned, so a large result holds one String per distinct value instead of one
+ *   per row.
+ * bench/com/rescueapp/db/dao/RowMapperBench times task() against the old by-label loop.
+ */
+final class RowMappers {
+
+    // Interning is meant for a few dozen distinct values; stop adding if a column turns out not to be one
+    private static final int MAX_INTERNED = 1024;
+    private static final ConcurrentHashMap<String, String> INTERNED = new ConcurrentHashMap<>();
+
+    private RowMappers() { }
+
+    /** The canonical instance of a low-cardinality value. */
+    static String intern(String value) {
+        if (value == null) return null;
+        String canonical = INTERNED.get(value);
+        if (canonical != null) return canonical;
+        if (INTERNED.size() >= MAX_INTERNED) return value;
+        canonical = INTERNED.putIfAbsent(value, value);
+        return canonical != null ? canonical : value;
+    }
+
+    static RowMapper<Report> report(ResultSet rs) throws SQLException {
+        Columns c = new Columns(rs);
+        int reportId = c.required("reportId");
+        int description = c.required("description");
+        int status = c.required("status");
+        int location = c.required("location");
+        int photoUrl = c.required("photoUrl");
+        int urgency = c.required("urgency");
+        int date = c.required("date");
+        int reporterId = c.optional("reporterId");
+        int reporterName = c.optional("reporterName");
+        return row -> {
+            Report r = new Report();
+            r.setReportId(row.getString(reportId));
+            r.setDescription(row.getString(description));
+            r.setStatus(intern(row.getString(status)));
+            r.setLocation(row.getString(location));
+            r.setPhotoUrl(row.getString(photoUrl));
+            r.setUrgency(intern(row.getString(urgency)));
+            r.setDate(row.getDate(date));
+            String reporter = getString(row, reporterId);
+            if (reporter != null) {
+                User u = new User();
+                u.setUserId(reporter);
+                u.setName(getString(row, reporterName));
+                r.setReporter(u);
+            }
+            return r;
+        };
+    }
+
+    /** Tasks; the assignee is set when userId is not null, with its name if the query selects assigneeName. */
+    static RowMapper<Task> task(ResultSet rs) throws SQLException {
+        Columns c = new Columns(rs);
+        int taskId = c.required("taskId");
+        int description = c.required("description");
+        int status = c.required("status");
+        int date = c.required("date");
+        int userId = c.optional("userId");
+        int assigneeName = c.optional("assigneeName");
+        return row -> {
+            Task t = new Task();
+            t.setTaskId(row.getString(taskId));
+            t.setDescription(row.getString(description));
+            t.setStatus(intern(row.getString(status)));
+            t.setDate(row.getDate(date));
+            String assigneeId = getString(row, userId);
+            if (assigneeId != null) {
+                User assignee = new User();
+                assignee.setUserId(assigneeId);
+                assignee.setName(getString(row, assigneeName));
+                t.setAssignee(assignee);
+            }
+            return t;
+        };
+    }
+
+    static RowMapper<StrayAnimal> animal(ResultSet rs) throws SQLException {
+        return animal(rs, null);
+    }
+
+    /**
+     * Animals. When the query leaves out specifications or medreport and 'lazy' is given,
+     * the missing field is fetched through it on first access instead.
+     */
+    static RowMapper<StrayAnimal> animal(ResultSet rs, RescueAppAnimalDAO lazy) throws SQLException {
+        Columns c = new Columns(rs);
+        int animalId = c.required("animalId");
+        int specifications = c.optional("specifications");
+        int photoUrl = c.required("photourl");
+        int medReport = c.optional("medreport");
+        int status = c.required("status");
+        return row -> {
+            StrayAnimal a = new StrayAnimal();
+            a.setAnimalId(row.getString(animalId));
+            a.setPhotoUrl(row.getString(photoUrl));
+            a.setStatus(intern(row.getString(status)));
+            setText(row, a, specifications, medReport, lazy);
+            return a;
+        };
+    }
+
+    static RowMapper<User> user(ResultSet rs) throws SQLException {
+        Columns c = new Columns(rs);
+        int userId = c.required("userId");
+        int name = c.required("name");
+        int email = c.required("email");
+        int role = c.required("role");
+        int contact = c.required("contact");
+        return row -> new User(
+                row.getString(userId),
+                row.getString(name),
+                row.getString(email),
+                intern(row.getString(role)),
+                row.getString(contact));
+    }
+
+    static RowMapper<Volunteer> volunteer(ResultSet rs) throws SQLException {
+        Columns c = new Columns(rs);
+        int userId = c.required("userId");
+        int name = c.required("name");
+        int email = c.required("email");
+        int contact = c.required("contact");
+        int availability = c.required("availability");
+        return row -> {
+            Volunteer v = new Volunteer(
+                    row.getString(userId),
+                    row.getString(name),
+                    row.getString(email),
+                    row.getString(contact));
+            v.setAvailability(intern(row.getString(availability)));
+            return v;
+        };
+    }
+
+    static RowMapper<NGO> ngo(ResultSet rs) throws SQLException {
+        Columns c = new Columns(rs);
+        int userId = c.required("userId");
+        int name = c.required("name");
+        int email = c.required("email");
+        int contact = c.required("contact");
+        return row -> new NGO(
+                row.getString(userId),
+                row.getString(name),
+                row.getString(email),
+                row.getString(contact));
+    }
+
+    /**
+     * Adoption requests joined with their adopter (adopterId, adopterName, email, role, contact)
+     * and animal (animal_id, animalStatus, and optionally specifications and medreport, which
+     * are otherwise loaded through 'lazy'); either may be missing.
+     */
+    static RowMapper<AdoptionRequest> adoptionRequest(ResultSet rs, RescueAppAnimalDAO lazy) throws SQLException {
+        Columns c = new Columns(rs);
+        int reqId = c.required("reqId");
+        int reqDate = c.required("reqdate");
+        int status = c.required("status");
+        int adopterId = c.required("adopterId");
+        int adopterName = c.required("adopterName");
+        int email = c.required("email");
+        int role = c.required("role");
+        int contact = c.required("contact");
+        int animalId = c.required("animal_id");
+        int specifications = c.optional("specifications");
+        int medReport = c.optional("medreport");
+        int animalStatus = c.required("animalStatus");
+        return row -> {
+            AdoptionRequest r = new AdoptionRequest();
+            r.setRequestId(row.getString(reqId));
+            r.setRequestDate(Instant.parse(row.getString(reqDate)));
+            r.setStatus(intern(row.getString(status)));
+
+            String adopter = row.getString(adopterId);
+            if (adopter != null) {
+                r.setAdopter(new User(
+                        adopter,
+                        row.getString(adopterName),
+                        row.getString(email),
+                        intern(row.getString(role)),
+                        row.getString(contact)));
+            }
+
+            String animal = row.getString(animalId);
+            if (animal != null) { // otherwise getAnimal() stays null, which the panels handle
+                StrayAnimal a = new StrayAnimal();
+                a.setAnimalId(animal);
+                a.setStatus(intern(row.getString(animalStatus)));
+                setText(row, a, specifications, medReport, lazy);
+                r.setAnimal(a);
+            }
+            return r;
+        };
+    }
+
+    static RowMapper<Notification> notification(ResultSet rs) throws SQLException {
+        Columns c = new Columns(rs);
+        int notificationId = c.required("notificationId");
+        int message = c.required("message");
+        int date = c.required("date");
+        int status = c.required("status");
+        int type = c.optional("type");
+        int itemCount = c.optional("itemCount");
+        return row -> {
+            Notification n = new Notification(row.getString(notificationId), row.getString(message), null);
+            Timestamp ts = row.getTimestamp(date);
+            if (ts != null) {
+                n.setCreatedAt(ts.toInstant());
+            }
+            String s = row.getString(status);
+            if (s != null && s.equalsIgnoreCase("Read")) {
+                n.markAsRead();
+            }
+            if (type > 0) {
+                n.setType(intern(row.getString(type)));
+            }
+            if (itemCount > 0) {
+                n.setCount(Math.max(1, row.getInt(itemCount)));
+            }
+            return n;
+        };
+    }
+
+    static RowMapper<RescueAppOutboxDAO.Entry> outboxEntry(ResultSet rs) throws SQLException {
+        Columns c = new Columns(rs);
+        int outboxId = c.required("outboxId");
+        int receiverId = c.required("receiverId");
+        int message = c.required("message");
+        int createdAt = c.required("createdAt");
+        int attempts = c.required("attempts");
+        return row -> new RescueAppOutboxDAO.Entry(
+                row.getString(outboxId),
+                row.getString(receiverId),
+                row.getString(message),
+                row.getTimestamp(createdAt),
+                row.getInt(attempts));
+    }
+
+    // Reads the animal's text columns that were selected and defers the others to 'lazy'
+    private static void setText(ResultSet rs, StrayAnimal a, int specifications, int medReport,
+                                RescueAppAnimalDAO lazy) throws SQLException {
+        if (specifications > 0) {
+            a.setSpecifications(rs.getString(specifications));
+        } else if (lazy != null) {
+            a.setSpecificationsLoader(lazy.lazyColumn(a.getAnimalId(), RescueAppAnimalDAO.SPECIFICATIONS));
+        }
+        if (medReport > 0) {
+            a.setMedReport(rs.getString(medReport));
+        } else if (lazy != null) {
+            a.setMedReportLoader(lazy.lazyColumn(a.getAnimalId(), RescueAppAnimalDAO.MED_REPORT));
+        }
+    }
+
+    private static String getString(ResultSet rs, int column) throws SQLException {
+        return column > 0 ? rs.getString(column) : null;
+    }
+
+    /** Column label to 1-based index for one result set. The first of duplicate labels wins, as with ResultSet.findColumn. */
+    private static final class Columns {
+        private final Map<String, Integer> byLabel = new HashMap<>();
+
+        Columns(ResultSet rs) throws SQLException {
+            ResultSetMetaData md = rs.getMetaData();
+            for (int i = 1; i <= md.getColumnCount(); i++) {
+                byLabel.putIfAbsent(md.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+            }
+        }
+
+        int required(String label) throws SQLException {
+            Integer index = byLabel.get(label.toLowerCase(Locale.ROOT));
+            if (index == null) {
+                throw new SQLException("Column '" + label + "' not found.");
+            }
+            return index;
+        }
+
+        /** 0 if the result set has no such column. */
+        int optional(String label) {
+            Integer index = byLabel.get(label.toLowerCase(Locale.ROOT));
+            return index != null ? index : 0;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+-- Schema changes applied on top of databasebackup.sql.
+-- Safe to run once against an existing strayanimalrescue database.
+
+USE strayanimalrescue;
+
+-- Keyset pagination of reports (RescueAppReportDAO.getReportsPage) seeks on (date, reportId)
+CREATE INDEX idx_reports_date_id ON reports (date, reportId);
+
+-- Server-side lookups by status / role / availability (findByStatus, findByRole, findByAvailability)
+CREATE INDEX idx_animals_status ON animals (status);
+CREATE INDEX idx_users_role ON users (role);
+CREATE INDEX idx_volunteers_availability ON volunteers (availability);
+
+-- Adoption approval rejects the other pending requests for the same animal (RescueAppAdoptionDAO.approveRequest)
+CREATE INDEX idx_adoption_animal_status ON adoption (animalId, status);
+
+-- Notification delta sync and unread badge (getNotificationsSince, countUnread)
+CREATE INDEX idx_notifications_receiver_status_date ON notifications (receiverId, status, date);
+
+-- Notification digests: one row per recipient, type and window, with the number of merged notifications
+ALTER TABLE notifications
+  ADD COLUMN type VARCHAR(40) DEFAULT NULL,
+  ADD COLUMN itemCount INT NOT NULL DEFAULT 1;
+
+-- Transactional outbox: notification intents written with the change they report,
+-- moved into notifications by RescueAppOutboxRelay. Dead rows failed MAX_ATTEMPTS times.
+CREATE TABLE notification_outbox (
+  outboxId VARCHAR(36) NOT NULL,
+  receiverId VARCHAR(36) NOT NULL,
+  message VARCHAR(255) NOT NULL,
+  createdAt DATETIME NOT NULL,
+  status VARCHAR(10) NOT NULL DEFAULT 'Pending',
+  attempts INT NOT NULL DEFAULT 0,
+  nextAttemptAt DATETIME NOT NULL,
+  lastError VARCHAR(255) DEFAULT NULL,
+  PRIMARY KEY (outboxId),
+  KEY idx_outbox_status_next (status, nextAttemptAt)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
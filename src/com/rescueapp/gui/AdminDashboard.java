@@ -1,5 +1,7 @@
 package com.rescueapp.gui;
 
+import com.rescueapp.RescueAppRuntime;
+
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.WindowAdapter;
@@ -14,7 +16,6 @@ import com.rescueapp.gui.admin.ReportViewPanel; // <-- New view-only report pane
 @SuppressWarnings("serial")
 public class AdminDashboard extends JFrame {
     
-    // Keep reference only if needed for shutdown (Adoption panel uses executor)
     private AdoptionRequestPanel adoptionPanel; 
 
     public AdminDashboard() {
@@ -38,14 +39,12 @@ public class AdminDashboard extends JFrame {
 
         add(tabs);
         
-        // Add shutdown hook for the adoption panel's executor
+        // Finish background work and close the connection pool before exiting
         addWindowListener(new WindowAdapter() {
             @Override
             public void windowClosing(WindowEvent e) {
-                System.out.println("Admin Dashboard closing, shutting down executor...");
-                if (adoptionPanel != null) {
-                    adoptionPanel.shutdownExecutor();
-                }
+                System.out.println("Admin Dashboard closing, shutting down background tasks...");
+                RescueAppRuntime.shutdown();
                 super.windowClosing(e);
             }
         });
@@ -3,11 +3,11 @@ package com.rescueapp.gui;
 import com.rescueapp.core.User;
 import com.rescueapp.db.RescueAppDbConnector;
 import com.rescueapp.db.dao.RescueAppUserDAO;
+import com.rescueapp.gui.util.AsyncLoader;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
-import java.sql.SQLException;
 
 @SuppressWarnings("serial")
 public class LoginPage extends JFrame {
@@ -17,6 +17,7 @@ public class LoginPage extends JFrame {
     private JButton registerButton;
 
     private RescueAppUserDAO userDao;
+    private final AsyncLoader<User> loginLoader = new AsyncLoader<>(getRootPane());
 
     public LoginPage() {
         try {
@@ -94,9 +95,9 @@ public class LoginPage extends JFrame {
             return;
         }
 
-        try {
-            User user = userDao.getUser(userId);
+        if (loginLoader.isLoading()) return; // already checking this user
 
+        loginLoader.load(() -> userDao.getUser(userId), user -> {
             if (user != null && user.getRole().equalsIgnoreCase(selectedRole)) {
                 JOptionPane.showMessageDialog(this, "Login Successful! Welcome, " + user.getName() + ".", "Success", JOptionPane.INFORMATION_MESSAGE);
                 this.dispose();
@@ -123,10 +124,10 @@ public class LoginPage extends JFrame {
             } else {
                 JOptionPane.showMessageDialog(this, "Invalid User ID or Role. Please try again.", "Login Failed", JOptionPane.ERROR_MESSAGE);
             }
-        } catch (SQLException ex) {
+        }, ex -> {
             ex.printStackTrace();
             JOptionPane.showMessageDialog(this, "Database error during login.", "DB Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
 
     private JLabel createLabel(String text, Font font) {
@@ -1,5 +1,6 @@
 package com.rescueapp.gui;
 
+import com.rescueapp.RescueAppRuntime;
 import com.rescueapp.core.User;
 import com.rescueapp.gui.ngo.NgoAnimalPanel;
 import com.rescueapp.gui.ngo.NgoAdoptionRequestPanel;
@@ -19,7 +20,6 @@ public class NgoDashboard extends JFrame {
     private User loggedInNgo;
     private NgoAdoptionRequestPanel adoptionPanel;
     private NgoTaskManagementPanel taskPanel;
-    // No need for reference to NgoReportPanel if it doesn't have an executor
 
     public NgoDashboard(User user) {
         this.loggedInNgo = user;
@@ -33,7 +33,7 @@ public class NgoDashboard extends JFrame {
         tabs.setFont(new Font("Segoe UI", Font.PLAIN, 14));
         tabs.setTabLayoutPolicy(JTabbedPane.SCROLL_TAB_LAYOUT);
 
-        // Create instances of panels with executors
+        // Create panel instances
         adoptionPanel = new NgoAdoptionRequestPanel();
         taskPanel = new NgoTaskManagementPanel();
 
@@ -43,7 +43,9 @@ public class NgoDashboard extends JFrame {
         tabs.add("Task Management", taskPanel);
         tabs.add("User Reports", new NgoReportPanel());
         tabs.add("My Profile", new MyProfilePanel(loggedInNgo));
-        tabs.add("My Notifications", new NotificationPanel(loggedInNgo)); // <-- Add Notification tab
+        NotificationPanel notificationPanel = new NotificationPanel(loggedInNgo);
+        tabs.add("My Notifications", notificationPanel);
+        notificationPanel.installTabBadge(tabs); // unread count in the tab title
 
         add(tabs);
 
@@ -51,14 +53,8 @@ public class NgoDashboard extends JFrame {
         addWindowListener(new WindowAdapter() {
             @Override
             public void windowClosing(WindowEvent e) {
-                System.out.println("NgoDashboard closing, shutting down executors...");
-                if (adoptionPanel != null) {
-                    adoptionPanel.shutdownExecutor();
-                }
-                if (taskPanel != null) {
-                    taskPanel.shutdownExecutor();
-                }
-                // ReportAnimalPanel executor is shut down by UserDashboard
+                System.out.println("NgoDashboard closing, shutting down background tasks...");
+                RescueAppRuntime.shutdown(); // also closes the connection pool
                 super.windowClosing(e);
             }
         });
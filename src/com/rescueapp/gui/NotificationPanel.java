@@ -1,32 +1,67 @@
 package com.rescueapp.gui;
 
+import com.rescueapp.RescueAppRuntime;
+import com.rescueapp.core.Notifiable;
 import com.rescueapp.core.Notification;
+import com.rescueapp.core.NotificationBus;
 import com.rescueapp.core.User;
 import com.rescueapp.db.RescueAppDbConnector;
+import com.rescueapp.db.RescueAppWriteBehindQueue;
 import com.rescueapp.db.dao.RescueAppNotificationDAO;
+import com.rescueapp.gui.util.AsyncLoader;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
 import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Lists the user's notifications. After the first full load only deltas are fetched:
+ * rows dated at or after the newest one already shown are merged into the list model in
+ * place. A timer polls the unread count (one indexed COUNT) and syncs when it changes,
+ * and installTabBadge() shows that count in the dashboard's tab title.
+ * While shown, the panel is also subscribed to the NotificationBus, so notifications
+ * stored by this JVM are merged the moment they are committed.
+ */
 @SuppressWarnings("serial")
-public class NotificationPanel extends JPanel {
+public class NotificationPanel extends JPanel implements Notifiable {
+
+    private static final int POLL_INTERVAL_MS = 30_000;
+    // Other clients stamp 'date' with their own clock: re-read a little behind the watermark
+    private static final long SYNC_OVERLAP_SECONDS = 60;
+    // Same order as getNotificationsForUser: unread first, then newest first
+    private static final Comparator<Notification> DISPLAY_ORDER =
+            Comparator.comparing(Notification::isRead)
+                      .thenComparing(Notification::getCreatedAt, Comparator.reverseOrder());
 
     private JList<Notification> notificationList;
     private DefaultListModel<Notification> listModel;
     private RescueAppNotificationDAO notificationDAO;
     private User loggedInUser;
     private Map<Notification, String> notificationIdMap; // Maps list object to its ID
+    private final AsyncLoader<List<Notification>> loader;
+    private final Timer pollTimer;
+    private Instant watermark;      // newest 'date' merged so far; null until the first full load
+    private boolean syncing = false;
+    private JTabbedPane badgeTabs;
+    private NotificationBus.Subscription subscription;
+    // Mark-as-read clicks the write-behind queue gave up on: reload so they show as unread again
+    private final RescueAppWriteBehindQueue.DropListener readDropListener =
+            (status, ids, cause) -> SwingUtilities.invokeLater(this::loadNotifications);
+    private String badgeTitle;
 
     public NotificationPanel(User user) {
         super(new BorderLayout(10, 10));
         this.loggedInUser = user;
         this.notificationIdMap = new HashMap<>();
+        this.loader = new AsyncLoader<>(this);
 
         try {
             RescueAppDbConnector db = new RescueAppDbConnector();
@@ -41,7 +76,7 @@ public class NotificationPanel extends JPanel {
 
         JLabel title = new JLabel("My Notifications");
         title.setFont(new Font("Segoe UI", Font.BOLD, 20));
-        add(title, BorderLayout.NORTH);
+        add(loader.decorate(title), BorderLayout.NORTH);
 
         listModel = new DefaultListModel<>();
         notificationList = new JList<>(listModel);
@@ -59,30 +94,83 @@ public class NotificationPanel extends JPanel {
         bottomPanel.add(refreshButton);
         add(bottomPanel, BorderLayout.SOUTH);
 
-        // Auto-refresh when tab is shown
+        // Fetch what arrived since the last sync when the tab is shown
         this.addComponentListener(new ComponentAdapter() {
             @Override
             public void componentShown(ComponentEvent e) {
-                System.out.println("Notification tab shown, refreshing...");
-                loadNotifications();
+                syncNotifications();
             }
         });
 
+        pollTimer = new Timer(POLL_INTERVAL_MS, e -> pollUnreadCount());
+        pollTimer.setCoalesce(true);
+
         loadNotifications(); // Initial load
     }
 
+    /**
+     * Shows the unread count in the title of the tab holding this panel, e.g. "My Notifications (3)".
+     * Call after the panel has been added to the tabs.
+     */
+    public void installTabBadge(JTabbedPane tabs) {
+        int index = tabs.indexOfComponent(this);
+        if (index < 0) return;
+        badgeTabs = tabs;
+        badgeTitle = tabs.getTitleAt(index);
+        updateBadge();
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        pollTimer.start();
+        RescueAppNotificationDAO.addReadDropListener(readDropListener);
+        if (subscription == null && loggedInUser != null) {
+            subscription = NotificationBus.getInstance().subscribe(loggedInUser.getUserId(), loggedInUser.getRole(), this);
+        }
+    }
+
+    @Override
+    public void removeNotify() {
+        pollTimer.stop(); // the dashboard was closed
+        RescueAppNotificationDAO.removeReadDropListener(readDropListener);
+        if (subscription != null) {
+            subscription.close();
+            subscription = null;
+        }
+        super.removeNotify();
+    }
+
+    // --- Live delivery from the NotificationBus (called on a bus thread) ---
+
+    @Override
+    public void receive(Notification notification) {
+        if (NotificationBus.isResync(notification)) {
+            SwingUtilities.invokeLater(this::syncNotifications); // e.g. a role broadcast: ids only known to the DB
+        } else {
+            SwingUtilities.invokeLater(() -> mergeNotifications(Collections.singletonList(notification)));
+        }
+    }
+
+    @Override
+    public void receiveNotification(String message) {
+        SwingUtilities.invokeLater(this::syncNotifications);
+    }
+
     private void loadNotifications() {
         System.out.println("NotificationPanel: Loading notifications for user: " + (loggedInUser != null ? loggedInUser.getUserId() : "null"));
-        listModel.clear();
-        notificationIdMap.clear();
         if (notificationDAO == null) {
              System.out.println("NotificationPanel: DAO is null, cannot load.");
+             listModel.clear();
+             notificationIdMap.clear();
              listModel.addElement(new Notification("","Error: DB Connection Failed.", null));
             return;
         }
 
-        try {
-            List<Notification> notifications = notificationDAO.getNotificationsForUser(loggedInUser.getUserId());
+        String userId = loggedInUser.getUserId();
+        loader.load(() -> notificationDAO.getNotificationsForUser(userId), notifications -> {
+            listModel.clear();
+            notificationIdMap.clear();
             System.out.println("NotificationPanel: Fetched " + notifications.size() + " notifications from DB.");
             if(notifications.isEmpty()){
                 // Create a dummy, non-functional notification object to display the message
@@ -91,20 +179,141 @@ public class NotificationPanel extends JPanel {
                 listModel.addElement(noNotif);
             } else {
                 for (Notification n : notifications) {
-                    System.out.println("  - Adding notification to list: " + n.getMessage() + " (Read: " + n.isRead() + ")");
+                    applyPendingRead(n);
                     listModel.addElement(n);
                     notificationIdMap.put(n, n.getNotificationId()); // Store ID from the object
+                    advanceWatermark(n);
                 }
             }
-        } catch (SQLException e) {
-            System.err.println("!!! NotificationPanel: SQL Error loading notifications: " + e.getMessage());
+            if (watermark == null) {
+                watermark = Instant.now(); // nothing yet: only newer rows are of interest
+            }
+            updateBadge();
+        }, e -> {
+            String kind = (e instanceof SQLException) ? "SQL" : "Unexpected";
+            System.err.println("!!! NotificationPanel: " + kind + " Error loading notifications: " + e.getMessage());
             e.printStackTrace();
+            listModel.clear();
+            notificationIdMap.clear();
             listModel.addElement(new Notification("","Error loading notifications.", null));
-        } catch (Exception e) {
-             System.err.println("!!! NotificationPanel: Unexpected Error loading notifications: " + e.getMessage());
-             e.printStackTrace();
-             listModel.addElement(new Notification("","Error loading notifications.", null));
+        });
+    }
+
+    /** Fetches only notifications at or after the watermark and merges them into the list. */
+    private void syncNotifications() {
+        if (watermark == null || loader.isLoading()) {
+            if (!loader.isLoading()) loadNotifications();
+            return;
         }
+        if (syncing || notificationDAO == null || RescueAppRuntime.isShutdown()) return;
+        syncing = true;
+
+        String userId = loggedInUser.getUserId();
+        Instant since = watermark.minusSeconds(SYNC_OVERLAP_SECONDS);
+        RescueAppRuntime.submit(RescueAppRuntime.Category.QUERY, () -> {
+            List<Notification> delta = null;
+            try {
+                delta = notificationDAO.getNotificationsSince(userId, since);
+            } catch (SQLException e) {
+                System.err.println("NotificationPanel: delta sync failed: " + e.getMessage());
+            }
+            final List<Notification> fetched = delta;
+            SwingUtilities.invokeLater(() -> {
+                syncing = false;
+                if (fetched != null) mergeNotifications(fetched);
+            });
+        });
+    }
+
+    /**
+     * Inserts new notifications at their sorted position. A listed notification is only
+     * replaced when it changed, which is how digest rows show their growing count.
+     */
+    private void mergeNotifications(List<Notification> delta) {
+        int added = 0;
+        for (Notification n : delta) {
+            applyPendingRead(n);
+            if (notificationIdMap.containsKey(n)) {
+                int existing = listModel.indexOf(n);
+                Notification shown = existing >= 0 ? listModel.get(existing) : null;
+                if (shown == null || (shown.getCount() == n.getCount() && shown.isRead() == n.isRead())) {
+                    continue; // already shown (the sync window overlaps the previous one)
+                }
+                listModel.remove(existing); // an updated digest: re-insert at its new position
+                notificationIdMap.remove(shown);
+            }
+            if (added == 0) {
+                removePlaceholders();
+            }
+            int index = 0;
+            while (index < listModel.size() && DISPLAY_ORDER.compare(listModel.get(index), n) <= 0) {
+                index++;
+            }
+            listModel.add(index, n);
+            notificationIdMap.put(n, n.getNotificationId());
+            advanceWatermark(n);
+            added++;
+        }
+        updateBadge();
+    }
+
+    /** One indexed COUNT; a full delta sync only runs when the count differs from what is shown. */
+    private void pollUnreadCount() {
+        if (watermark == null || syncing || notificationDAO == null || RescueAppRuntime.isShutdown()) return;
+        String userId = loggedInUser.getUserId();
+        RescueAppRuntime.submit(RescueAppRuntime.Category.QUERY, () -> {
+            try {
+                int unread = notificationDAO.countUnread(userId);
+                SwingUtilities.invokeLater(() -> {
+                    if (unread != countUnreadShown()) syncNotifications();
+                });
+            } catch (SQLException e) {
+                System.err.println("NotificationPanel: unread count failed: " + e.getMessage());
+            }
+        });
+    }
+
+    /** A read click not yet written by the write-behind queue still shows as read after a reload. */
+    private void applyPendingRead(Notification n) {
+        if (!n.isRead() && n.getNotificationId() != null && notificationDAO.isReadPending(n.getNotificationId())) {
+            n.markAsRead();
+        }
+    }
+
+    private void advanceWatermark(Notification n) {
+        Instant created = n.getCreatedAt();
+        if (created != null && (watermark == null || created.isAfter(watermark))) {
+            watermark = created;
+        }
+    }
+
+    /** Drops the "No new notifications." / error rows, which have no id. */
+    private void removePlaceholders() {
+        for (int i = listModel.size() - 1; i >= 0; i--) {
+            String id = listModel.get(i).getNotificationId();
+            if (id == null || id.isEmpty()) {
+                listModel.remove(i);
+            }
+        }
+    }
+
+    private int countUnreadShown() {
+        int unread = 0;
+        for (int i = 0; i < listModel.size(); i++) {
+            Notification n = listModel.get(i);
+            if (!n.isRead() && n.getNotificationId() != null && !n.getNotificationId().isEmpty()) {
+                unread++;
+            }
+        }
+        return unread;
+    }
+
+    private void updateBadge() {
+        if (badgeTabs == null) return;
+        int index = badgeTabs.indexOfComponent(this);
+        if (index < 0) return;
+        int unread = countUnreadShown();
+        badgeTabs.setTitleAt(index, unread > 0 ? badgeTitle + " (" + unread + ")" : badgeTitle);
     }
 
     private void markAsRead() {
@@ -125,19 +334,11 @@ public class NotificationPanel extends JPanel {
             return;
         }
 
-        try {
-            boolean success = notificationDAO.markAsRead(notificationId);
-            if (success) {
-                selected.markAsRead();
-                notificationList.repaint(); // Refresh the specific item visually
-                JOptionPane.showMessageDialog(this, "Notification marked as read.", "Success", JOptionPane.INFORMATION_MESSAGE);
-            } else {
-                 JOptionPane.showMessageDialog(this, "Failed to update notification status in DB.", "Update Failed", JOptionPane.ERROR_MESSAGE);
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Failed to update notification.", "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        // Shown as read at once; the UPDATE is batched with other clicks by the write-behind queue
+        notificationDAO.markAsReadLater(notificationId);
+        selected.markAsRead();
+        notificationList.repaint(); // Refresh the specific item visually
+        updateBadge();
     }
 
     // --- Inner class for custom list rendering ---
@@ -148,6 +349,9 @@ public class NotificationPanel extends JPanel {
             if (value instanceof Notification) {
                 Notification n = (Notification) value;
                 String text = n.getMessage();
+                if (n.getCount() > 1) {
+                    text = text + " (+" + (n.getCount() - 1) + " more)"; // digest row
+                }
                 if (n.isRead()) {
                     setText("<html><i style='color:gray;'>" + text + "</i></html>"); // Removed "(Read)" for cleaner look
                 } else {
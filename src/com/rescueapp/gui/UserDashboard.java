@@ -1,5 +1,6 @@
 package com.rescueapp.gui;
 
+import com.rescueapp.RescueAppRuntime;
 import com.rescueapp.core.User;
 import com.rescueapp.gui.user.AnimalAdoptionPanel;
 import com.rescueapp.gui.user.MyProfilePanel;
@@ -15,7 +16,7 @@ import java.awt.*;
 public class UserDashboard extends JFrame {
 
     private User loggedInUser;
-    private ReportAnimalPanel reportPanel; // <-- Reference to panel with executor
+    private ReportAnimalPanel reportPanel;
 
     public UserDashboard(User user) {
         this.loggedInUser = user;
@@ -36,7 +37,9 @@ public class UserDashboard extends JFrame {
         tabs.add("Adopt an Animal", new AnimalAdoptionPanel(loggedInUser));
         tabs.add("Report an Animal", reportPanel); // <-- Add instance
         tabs.add("My Profile", new MyProfilePanel(loggedInUser));
-        tabs.add("My Notifications", new NotificationPanel(loggedInUser));
+        NotificationPanel notificationPanel = new NotificationPanel(loggedInUser);
+        tabs.add("My Notifications", notificationPanel);
+        notificationPanel.installTabBadge(tabs); // unread count in the tab title
 
         add(tabs);
 
@@ -44,11 +47,8 @@ public class UserDashboard extends JFrame {
         addWindowListener(new WindowAdapter() {
             @Override
             public void windowClosing(WindowEvent e) {
-                System.out.println("UserDashboard closing, shutting down executor...");
-                // --- ADD SHUTDOWN FOR REPORT PANEL ---
-                if (reportPanel != null) {
-                     reportPanel.shutdownExecutor(); // Call shutdown directly
-                }
+                System.out.println("UserDashboard closing, shutting down background tasks...");
+                RescueAppRuntime.shutdown(); // lets pending NGO notifications finish first
                 super.windowClosing(e);
             }
         });
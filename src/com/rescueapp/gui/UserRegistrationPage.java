@@ -2,6 +2,7 @@ package com.rescueapp.gui;
 
 import com.rescueapp.core.User; // Import User class
 import com.rescueapp.db.dao.RescueAppUserDAO; // Import DAO
+import com.rescueapp.gui.util.AsyncWriter;
 
 import javax.swing.*;
 import java.awt.*;
@@ -15,6 +16,7 @@ public class UserRegistrationPage extends JFrame {
     private JComboBox<String> roleComboBox;
     private JButton submitButton;
     private RescueAppUserDAO userDao; // Store the DAO instance
+    private final AsyncWriter writer = new AsyncWriter(this);
 
     // Constructor accepts the DAO
     public UserRegistrationPage(RescueAppUserDAO dao) {
@@ -124,9 +126,7 @@ public class UserRegistrationPage extends JFrame {
         String userId = UUID.randomUUID().toString(); // Generate ID
         User newUser = new User(userId, name, email, role, contact);
 
-        try {
-            userDao.addUser(newUser);
-
+        writer.run(() -> { userDao.addUser(newUser); return null; }, done -> {
             JOptionPane.showMessageDialog(this,
                     "User Registered Successfully!\n\n" +
                             "Generated User ID: " + userId +
@@ -139,18 +139,15 @@ public class UserRegistrationPage extends JFrame {
                     JOptionPane.INFORMATION_MESSAGE);
 
             this.dispose(); // Close registration window
-
-        } catch (SQLException ex) {
+        }, ex -> {
             ex.printStackTrace();
-            
-            if (ex.getMessage().contains("Duplicate entry")) {
+            if (!(ex instanceof SQLException)) {
+                 JOptionPane.showMessageDialog(this, "An unexpected error occurred during registration.", "Error", JOptionPane.ERROR_MESSAGE);
+            } else if (ex.getMessage() != null && ex.getMessage().contains("Duplicate entry")) {
                  JOptionPane.showMessageDialog(this, "Registration failed. Email or Contact already exists.", "Database Error", JOptionPane.ERROR_MESSAGE);
             } else {
                  JOptionPane.showMessageDialog(this, "Registration failed due to a database error.", "Database Error", JOptionPane.ERROR_MESSAGE);
             }
-        } catch (Exception ex) { 
-             ex.printStackTrace();
-             JOptionPane.showMessageDialog(this, "An unexpected error occurred during registration.", "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.rescueapp.gui;
 
+import com.rescueapp.RescueAppRuntime;
 import com.rescueapp.core.User;
 import com.rescueapp.gui.volunteer.VolunteerTaskPanel;
 import com.rescueapp.gui.volunteer.VolunteerReportPanel;
@@ -8,6 +9,8 @@ import com.rescueapp.gui.NotificationPanel; // <-- Import NotificationPanel
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 
 @SuppressWarnings("serial")
 public class VolunteerDashboard extends JFrame {
@@ -29,9 +32,20 @@ public class VolunteerDashboard extends JFrame {
         tabs.add("My Tasks", new VolunteerTaskPanel(loggedInVolunteer));
         tabs.add("Manage Reports", new VolunteerReportPanel(loggedInVolunteer));
         tabs.add("My Profile", new MyProfilePanel(loggedInVolunteer));
-        tabs.add("My Notifications", new NotificationPanel(loggedInVolunteer)); // <-- Add Notification tab
+        NotificationPanel notificationPanel = new NotificationPanel(loggedInVolunteer);
+        tabs.add("My Notifications", notificationPanel);
+        notificationPanel.installTabBadge(tabs); // unread count in the tab title
 
         add(tabs);
-        // No executors to shut down in this dashboard yet
+
+        // Add shutdown hook
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                System.out.println("VolunteerDashboard closing, shutting down background tasks...");
+                RescueAppRuntime.shutdown();
+                super.windowClosing(e);
+            }
+        });
     }
 }
\ No newline at end of file
@@ -3,12 +3,13 @@ package com.rescueapp.gui.admin;
 import com.rescueapp.core.StrayAnimal;
 import com.rescueapp.db.RescueAppDbConnector;
 import com.rescueapp.db.dao.RescueAppAnimalDAO;
+import com.rescueapp.gui.util.AsyncLoader;
+import com.rescueapp.gui.util.AsyncWriter;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
-import java.sql.SQLException;
 import java.util.List;
 import java.util.UUID;
 
@@ -18,6 +19,8 @@ public class AdminAnimalManagementPanel extends JPanel {
     private JTable table;
     private DefaultTableModel model;
     private RescueAppAnimalDAO animalDAO;
+    private final AsyncLoader<List<StrayAnimal>> loader;
+    private final AsyncWriter writer = new AsyncWriter(this);
 
     
     private JTextField animalIdField = new JTextField(15);
@@ -31,6 +34,7 @@ public class AdminAnimalManagementPanel extends JPanel {
 
     public AdminAnimalManagementPanel() {
         super(new BorderLayout(10, 10));
+        loader = new AsyncLoader<>(this);
 
         try {
             RescueAppDbConnector db = new RescueAppDbConnector();
@@ -45,7 +49,7 @@ public class AdminAnimalManagementPanel extends JPanel {
 
         JLabel title = new JLabel("Manage All Stray Animals");
         title.setFont(new Font("Segoe UI", Font.BOLD, 20));
-        add(title, BorderLayout.NORTH);
+        add(loader.decorate(title), BorderLayout.NORTH);
 
         JPanel tablePanel = new JPanel(new BorderLayout());
         String[] columns = {"Animal ID", "Specifications", "Photo URL", "Medical Report", "Status"};
@@ -119,17 +123,16 @@ public class AdminAnimalManagementPanel extends JPanel {
     }
 
     private void loadAnimals() {
-        model.setRowCount(0);
         if (animalDAO == null) return;
-        try {
-            List<StrayAnimal> animals = animalDAO.getAllAnimals();
+        loader.load(animalDAO::getAllAnimals, animals -> {
+            model.setRowCount(0);
             for (StrayAnimal a : animals) {
                 model.addRow(new Object[]{ a.getAnimalId(), a.getSpecifications(), a.getPhotoUrl(), a.getMedReport(), a.getStatus() });
             }
-        } catch (SQLException e) {
+        }, e -> {
             e.printStackTrace();
             JOptionPane.showMessageDialog(this, "Error loading animals.", "DB Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
 
     private void populateFormFromSelectedRow() {
@@ -157,13 +160,12 @@ public class AdminAnimalManagementPanel extends JPanel {
         animal.setAnimalId(UUID.randomUUID().toString());
         animal.setSpecifications(specificationsArea.getText().trim()); animal.setPhotoUrl(photoUrlField.getText().trim());
         animal.setMedReport(medReportField.getText().trim()); animal.setStatus((String) statusComboBox.getSelectedItem());
-        try {
-            animalDAO.addAnimal(animal);
+        writer.run(() -> { animalDAO.addAnimal(animal); return null; }, done -> {
             JOptionPane.showMessageDialog(this, "Animal added!", "Success", JOptionPane.INFORMATION_MESSAGE);
             loadAnimals(); clearForm();
-        } catch (SQLException ex) {
+        }, ex -> {
             ex.printStackTrace(); JOptionPane.showMessageDialog(this, "Failed to add animal.", "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
 
     private void handleUpdateAnimal(ActionEvent e) {
@@ -172,13 +174,12 @@ public class AdminAnimalManagementPanel extends JPanel {
         if (specificationsArea.getText().trim().isEmpty() || medReportField.getText().trim().isEmpty()) { JOptionPane.showMessageDialog(this, "Specifications and Medical Report required.", "Input Error", JOptionPane.WARNING_MESSAGE); return; }
         String animalId = animalIdField.getText(); String newStatus = (String) statusComboBox.getSelectedItem();
         // Add logic here to update other fields if an updateAnimal(StrayAnimal) method exists in DAO
-        try {
-            boolean success = animalDAO.updateAnimalStatus(animalId, newStatus);
+        writer.run(() -> animalDAO.updateAnimalStatus(animalId, newStatus), success -> {
             if (success) {
                  JOptionPane.showMessageDialog(this, "Animal status updated!", "Success", JOptionPane.INFORMATION_MESSAGE);
                  loadAnimals(); clearForm();
             } else { JOptionPane.showMessageDialog(this, "Failed to update animal status.", "Update Failed", JOptionPane.ERROR_MESSAGE); }
-        } catch (SQLException ex) { ex.printStackTrace(); JOptionPane.showMessageDialog(this, "Database error during update.", "Database Error", JOptionPane.ERROR_MESSAGE); }
+        }, ex -> { ex.printStackTrace(); JOptionPane.showMessageDialog(this, "Database error during update.", "Database Error", JOptionPane.ERROR_MESSAGE); });
     }
 
     private JLabel createLabel(String text, Font font) { JLabel label = new JLabel(text); label.setFont(font); return label;
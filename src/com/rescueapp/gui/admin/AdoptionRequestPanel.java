@@ -6,7 +6,9 @@ import com.rescueapp.core.User;         // Ensure this is imported
 import com.rescueapp.db.RescueAppDbConnector;
 import com.rescueapp.db.dao.RescueAppAdoptionDAO;
 import com.rescueapp.db.dao.RescueAppAnimalDAO;
-import com.rescueapp.db.dao.RescueAppNotificationDAO;
+import com.rescueapp.db.dao.RescueAppOutboxDAO;
+import com.rescueapp.gui.util.AsyncLoader;
+import com.rescueapp.gui.util.AsyncWriter;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
@@ -14,9 +16,6 @@ import java.awt.*;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.UUID; // Ensure this is imported
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 
 @SuppressWarnings("serial")
 public class AdoptionRequestPanel extends JPanel { // Ensure 'extends JPanel' is correct
@@ -25,8 +24,10 @@ public class AdoptionRequestPanel extends JPanel { // Ensure 'extends JPanel' is
     private DefaultTableModel model;
     private RescueAppAdoptionDAO adoptionDAO;
     private RescueAppAnimalDAO animalDAO;
-    private RescueAppNotificationDAO notificationDAO;
-    private final ExecutorService notificationExecutor = Executors.newSingleThreadExecutor();
+    private RescueAppDbConnector db;
+    private RescueAppOutboxDAO outboxDAO;
+    private final AsyncLoader<List<AdoptionRequest>> loader;
+    private final AsyncWriter writer = new AsyncWriter(this);
 
     // Default constructor for view-only (used by Admin)
     public AdoptionRequestPanel() {
@@ -36,12 +37,13 @@ public class AdoptionRequestPanel extends JPanel { // Ensure 'extends JPanel' is
     // Main constructor (used by NGO, potentially)
     public AdoptionRequestPanel(boolean showButtons) {
         super(new BorderLayout(10, 10));
+        loader = new AsyncLoader<>(this);
 
         try {
-            RescueAppDbConnector db = new RescueAppDbConnector();
+            db = new RescueAppDbConnector();
             adoptionDAO = new RescueAppAdoptionDAO(db);
             animalDAO = new RescueAppAnimalDAO(db);
-            notificationDAO = new RescueAppNotificationDAO(db);
+            outboxDAO = new RescueAppOutboxDAO(db);
         } catch (Exception e) {
             e.printStackTrace();
             JOptionPane.showMessageDialog(this, "Error connecting to DB.", "DB Error", JOptionPane.ERROR_MESSAGE);
@@ -52,7 +54,7 @@ public class AdoptionRequestPanel extends JPanel { // Ensure 'extends JPanel' is
 
         JLabel title = new JLabel("Adoption Requests"); // Simplified title
         title.setFont(new Font("Segoe UI", Font.BOLD, 20));
-        add(title, BorderLayout.NORTH);
+        add(loader.decorate(title), BorderLayout.NORTH);
 
         String[] columns = {"Request ID", "Animal ID", "User ID", "User Name", "Request Date", "Status"};
         model = new DefaultTableModel(columns, 0) {
@@ -96,27 +98,11 @@ public class AdoptionRequestPanel extends JPanel { // Ensure 'extends JPanel' is
         loadAllAdoptionRequests();
     }
 
-    public void shutdownExecutor() {
-        if (notificationExecutor != null && !notificationExecutor.isShutdown()) {
-             System.out.println("Shutting down notification executor...");
-            notificationExecutor.shutdown();
-             try {
-                 if (!notificationExecutor.awaitTermination(1, TimeUnit.SECONDS)) {
-                     notificationExecutor.shutdownNow();
-                 }
-             } catch (InterruptedException e) {
-                 notificationExecutor.shutdownNow();
-                 Thread.currentThread().interrupt(); // Re-interrupt thread
-             }
-        }
-    }
-
     private void loadAllAdoptionRequests() {
-        model.setRowCount(0);
         if (adoptionDAO == null) { /* Handle error */ return; }
-        try {
-            // Using getAllRequests which returns AdoptionRequest objects
-            List<AdoptionRequest> requests = adoptionDAO.getAllRequests();
+        // Using getAllRequests which returns AdoptionRequest objects
+        loader.load(adoptionDAO::getAllRequests, requests -> {
+            model.setRowCount(0);
             for (AdoptionRequest req : requests) {
                 String adopterName = (req.getAdopter() != null && req.getAdopter().getName() != null) ? req.getAdopter().getName() : "N/A";
                 String adopterId = (req.getAdopter() != null) ? req.getAdopter().getUserId() : "N/A";
@@ -127,24 +113,17 @@ public class AdoptionRequestPanel extends JPanel { // Ensure 'extends JPanel' is
                         req.getRequestId(), animalId, adopterId, adopterName, reqDateStr, req.getStatus()
                 });
             }
-        } catch (Exception e) { // Catch broader exceptions during loading
+        }, e -> {
             e.printStackTrace();
+            model.setRowCount(0);
             model.addRow(new Object[]{"Error", "N/A", "N/A", "Could not load data", "N/A", "N/A"});
-        }
+        });
     }
 
-    private void sendNotificationInBackground(String userId, String message) {
-        if (notificationDAO != null && userId != null && !userId.equals("N/A") && !notificationExecutor.isShutdown()) {
-            notificationExecutor.submit(() -> {
-                try {
-                    // Use the simpler addNotification method
-                    notificationDAO.addNotification(userId, message);
-                    System.out.println("Notification sent background to user " + userId);
-                } catch (SQLException e) {
-                    System.err.println("Failed to send notification (background) to user " + userId + ": " + e.getMessage());
-                }
-            });
-        }
+    /** Queues the notification in the caller's transaction; the outbox relay delivers it after commit. */
+    private void queueNotification(String userId, String message) throws SQLException {
+        if (userId == null || userId.equals("N/A")) return;
+        outboxDAO.enqueue(userId, message);
     }
 
     private void processRequest(boolean isApproved) {
@@ -157,30 +136,54 @@ public class AdoptionRequestPanel extends JPanel { // Ensure 'extends JPanel' is
         String userId = (String) model.getValueAt(selectedRow, 2);
         String currentStatus = (String) model.getValueAt(selectedRow, 5);
 
-        if (adoptionDAO == null || animalDAO == null || notificationDAO == null) { /* Handle DB error */ return; }
+        if (adoptionDAO == null || animalDAO == null || outboxDAO == null) { /* Handle DB error */ return; }
 
         if (!"Pending".equalsIgnoreCase(currentStatus)) { /* Handle already processed */ return; }
 
         String newStatus = isApproved ? "Approved" : "Rejected";
 
-        try {
-            boolean success = adoptionDAO.updateRequestStatus(requestId, newStatus);
+        if (isApproved && animalId != null && !animalId.equals("N/A")) {
+            // Compare-and-set on the animal; competing pending requests are rejected in the same transaction,
+            // and the notifications are queued in it too, so they exist exactly when the approval does
+            writer.run(() -> db.inTransaction(() -> {
+                RescueAppAdoptionDAO.ApprovalResult r = adoptionDAO.approveRequest(requestId, animalId);
+                if (r.isApproved()) {
+                    queueNotification(userId, "Your adoption request for animal ID " + animalId + " has been Approved.");
+                    outboxDAO.enqueue(r.getRejectedAdopterIds(), "Your adoption request for animal ID " + animalId + " has been Rejected because the animal has been adopted.");
+                }
+                return r;
+            }), result -> {
+                if (!result.isApproved()) {
+                    JOptionPane.showMessageDialog(this, "This request could not be approved: it was already processed or the animal has been adopted.", "Approval Failed", JOptionPane.WARNING_MESSAGE);
+                    loadAllAdoptionRequests(); // Show the current state
+                    return;
+                }
+                JOptionPane.showMessageDialog(this, "Request successfully Approved!" + (result.getRejectedAdopterIds().isEmpty() ? "" : "\n" + result.getRejectedAdopterIds().size() + " competing request(s) were rejected."), "Success", JOptionPane.INFORMATION_MESSAGE);
+                loadAllAdoptionRequests(); // Refresh table
+            }, this::showDatabaseError);
+            return;
+        }
 
-            if (success && isApproved && animalId != null && !animalId.equals("N/A")) {
-                animalDAO.updateAnimalStatus(animalId, "Adopted");
+        String notificationMessage = "Your adoption request for animal ID " + (animalId != null ? animalId : "?") + " has been " + newStatus + ".";
+        writer.run(() -> db.inTransaction(() -> {
+            boolean updated = adoptionDAO.updateRequestStatus(requestId, newStatus);
+            if (updated) {
+                queueNotification(userId, notificationMessage);
             }
-
+            return updated;
+        }), success -> {
             if (success) {
                 JOptionPane.showMessageDialog(this, "Request successfully " + newStatus + "!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                String notificationMessage = "Your adoption request for animal ID " + (animalId != null ? animalId : "?") + " has been " + newStatus + ".";
-                sendNotificationInBackground(userId, notificationMessage);
                 loadAllAdoptionRequests(); // Refresh table
             } else {
-                JOptionPane.showMessageDialog(this, "Failed to update request status.", "Update Failed", JOptionPane.ERROR_MESSAGE);
+                JOptionPane.showMessageDialog(this, "This request could not be " + newStatus.toLowerCase() + ": it was already processed.", "Update Failed", JOptionPane.WARNING_MESSAGE);
+                loadAllAdoptionRequests(); // Show the current state
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Database error: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, this::showDatabaseError);
+    }
+
+    private void showDatabaseError(Exception e) {
+        e.printStackTrace();
+        JOptionPane.showMessageDialog(this, "Database error: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
     }
 }
\ No newline at end of file
@@ -3,12 +3,12 @@ package com.rescueapp.gui.admin;
 import com.rescueapp.core.StrayAnimal;
 import com.rescueapp.db.RescueAppDbConnector;
 import com.rescueapp.db.dao.RescueAppAnimalDAO;
+import com.rescueapp.gui.util.AsyncLoader;
 import com.rescueapp.gui.util.ImageRenderer; // <-- Import Image Renderer
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.SQLException;
 import java.util.List;
 
 @SuppressWarnings("serial")
@@ -17,9 +17,11 @@ public class AnimalManagementPanel extends JPanel {
     private JTable table;
     private DefaultTableModel model;
     private RescueAppAnimalDAO animalDAO;
+    private final AsyncLoader<List<StrayAnimal>> loader;
 
     public AnimalManagementPanel() {
         super(new BorderLayout(10, 10));
+        loader = new AsyncLoader<>(this);
         
         try {
             RescueAppDbConnector db = new RescueAppDbConnector();
@@ -34,7 +36,7 @@ public class AnimalManagementPanel extends JPanel {
 
         JLabel title = new JLabel("Manage All Animals");
         title.setFont(new Font("Segoe UI", Font.BOLD, 20));
-        add(title, BorderLayout.NORTH);
+        add(loader.decorate(title), BorderLayout.NORTH);
 
         // --- COLUMNS UPDATED ---
         String[] columns = {"Animal ID", "Photo", "Specifications", "Status", "Medical Record"};
@@ -78,17 +80,16 @@ public class AnimalManagementPanel extends JPanel {
 
     // --- (loadAnimals, addAnimal, editAnimal, deleteAnimal methods are unchanged from previous corrected version) ---
     private void loadAnimals() {
-        model.setRowCount(0);
         if (animalDAO == null) return;
-        try {
-            List<StrayAnimal> animals = animalDAO.getAllAnimals();
+        loader.load(animalDAO::getAllAnimals, animals -> {
+            model.setRowCount(0);
             for (StrayAnimal animal : animals) {
                 model.addRow(new Object[]{
                         animal.getAnimalId(), animal.getPhotoUrl(),
                         animal.getSpecifications(), animal.getStatus(), animal.getMedReport()
                 });
             }
-        } catch (SQLException e) { /* ... error handling ... */ }
+        }, Exception::printStackTrace);
     }
     private void addAnimal() { /* ... unchanged ... */ }
     private void editAnimal() { /* ... unchanged ... */ }
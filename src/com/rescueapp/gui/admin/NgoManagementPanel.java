@@ -4,21 +4,25 @@ import com.rescueapp.core.NGO;
 import com.rescueapp.db.RescueAppDbConnector;
 import com.rescueapp.db.dao.RescueAppNGODAO; // Use NGO DAO
 import com.rescueapp.db.dao.RescueAppUserDAO; // To manage base user record
+import com.rescueapp.gui.util.AsyncLoader;
+import com.rescueapp.gui.util.AsyncWriter;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.SQLException;
 import java.util.List;
 import java.util.UUID;
 
 @SuppressWarnings("serial")
 public class NgoManagementPanel extends JPanel {
 
+    private RescueAppDbConnector db;
     private RescueAppNGODAO ngoDAO;
     private RescueAppUserDAO userDAO; // For base user management
     private DefaultTableModel model;
     private JTable table;
+    private final AsyncLoader<List<NGO>> loader;
+    private final AsyncWriter writer = new AsyncWriter(this);
 
     // Fields for Add/Edit Dialog
     private JTextField idFieldDialog = new JTextField(20);
@@ -28,11 +32,12 @@ public class NgoManagementPanel extends JPanel {
 
     public NgoManagementPanel() {
         super(new BorderLayout(10, 10));
+        loader = new AsyncLoader<>(this);
         setBackground(Color.WHITE);
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 
         try {
-            RescueAppDbConnector db = new RescueAppDbConnector();
+            db = new RescueAppDbConnector();
             ngoDAO = new RescueAppNGODAO(db);
             userDAO = new RescueAppUserDAO(db); // Initialize UserDAO
         } catch (Exception e) {
@@ -42,7 +47,7 @@ public class NgoManagementPanel extends JPanel {
 
         JLabel title = new JLabel("Manage NGOs");
         title.setFont(new Font("Segoe UI", Font.BOLD, 20));
-        add(title, BorderLayout.NORTH);
+        add(loader.decorate(title), BorderLayout.NORTH);
 
         
         String[] columns = {"User ID", "Organization Name", "Email", "Contact"};
@@ -74,20 +79,20 @@ public class NgoManagementPanel extends JPanel {
     }
 
     private void loadNgos() {
-        model.setRowCount(0);
         if (ngoDAO == null) return;
-        try {
-            List<NGO> ngos = ngoDAO.getAllNgos();
+        loader.load(ngoDAO::getAllNgos, ngos -> {
+            model.setRowCount(0);
             for (NGO ngo : ngos) {
                 // Fetching OrganizationName might require DAO change or assume Name is Org Name
                 model.addRow(new Object[]{
                         ngo.getUserId(), ngo.getName(), ngo.getEmail(), ngo.getContact()
                 });
             }
-        } catch (SQLException e) {
+        }, e -> {
             e.printStackTrace();
+            model.setRowCount(0);
             model.addRow(new Object[]{"Error", "Failed to load NGOs: " + e.getMessage(), "", ""});
-        }
+        });
     }
 
     private NGO getSelectedNgo() {
@@ -157,24 +162,32 @@ public class NgoManagementPanel extends JPanel {
             // Optionally set organization name if different from name
             ngo.setOrganizationName(name);
 
-            try {
+            if (!isEditMode) {
+                ngo.setUserId(UUID.randomUUID().toString());
+            }
+            writer.run(() -> {
                 if (isEditMode) {
-                    
                     userDAO.updateUser(ngo); // Assumes updateUser handles name, email, contact
+                } else {
+                    // users and ngos rows are written in one transaction
+                    db.inTransaction(() -> {
+                        userDAO.addUser(ngo);
+                        ngoDAO.addNGO(ngo);
+                        return null;
+                    });
+                }
+                return null;
+            }, done -> {
+                if (isEditMode) {
                     JOptionPane.showMessageDialog(this, "NGO updated successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
                 } else {
-                    ngo.setUserId(UUID.randomUUID().toString());
-                    
-                    userDAO.addUser(ngo);
-                   
-                    ngoDAO.addNGO(ngo);
                     JOptionPane.showMessageDialog(this, "NGO added successfully with ID: " + ngo.getUserId(), "Success", JOptionPane.INFORMATION_MESSAGE);
                 }
                 loadNgos(); // Refresh
-            } catch (SQLException ex) {
+            }, ex -> {
                  ex.printStackTrace();
                  JOptionPane.showMessageDialog(this, "Database error: " + ex.getMessage(), "DB Error", JOptionPane.ERROR_MESSAGE);
-            }
+            });
         }
     }
 
@@ -187,21 +200,26 @@ public class NgoManagementPanel extends JPanel {
                 "Confirm Deletion", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
 
         if (confirm == JOptionPane.YES_OPTION) {
-            try {
+            // ngos and users rows are deleted in one transaction
+            writer.run(() -> db.inTransaction(() -> {
                 // Delete from ngos table first
                 boolean ngoSuccess = ngoDAO.deleteUser(ngoToDelete.getUserId()); // Method name might be deleteNgo
-                 if (ngoSuccess) {
+                if (ngoSuccess) {
                     // Then delete from users table
-                     userDAO.deleteUser(ngoToDelete.getUserId());
+                    userDAO.deleteUser(ngoToDelete.getUserId());
+                }
+                return ngoSuccess;
+            }), ngoSuccess -> {
+                if (ngoSuccess) {
                     JOptionPane.showMessageDialog(this, "NGO deleted successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
                     loadNgos();
                 } else {
                     JOptionPane.showMessageDialog(this, "Failed to delete NGO record.", "Deletion Failed", JOptionPane.ERROR_MESSAGE);
                 }
-            } catch (SQLException ex) {
+            }, ex -> {
                  ex.printStackTrace();
                  JOptionPane.showMessageDialog(this, "Database error during deletion: " + ex.getMessage(), "DB Error", JOptionPane.ERROR_MESSAGE);
-            }
+            });
         }
     }
 }
\ No newline at end of file
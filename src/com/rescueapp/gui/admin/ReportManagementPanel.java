@@ -1,31 +1,36 @@
 package com.rescueapp.gui.admin;
 
 import com.rescueapp.core.Report;
-import java.awt.event.ActionEvent;
 import com.rescueapp.core.User; // To display reporter info
 import com.rescueapp.db.RescueAppDbConnector;
 import com.rescueapp.db.dao.RescueAppReportDAO;
 import com.rescueapp.db.dao.RescueAppUserDAO; // To fetch user details if needed
+import com.rescueapp.gui.util.AsyncLoader;
+import com.rescueapp.gui.util.AsyncWriter;
+import com.rescueapp.gui.util.PagedTableModel;
+import com.rescueapp.gui.util.TableRows;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.SQLException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.List;
 
 @SuppressWarnings("serial")
 public class ReportManagementPanel extends JPanel {
 
     private JTable table;
-    private DefaultTableModel model;
+    private PagedTableModel<Report> model;
     private RescueAppReportDAO reportDAO;
+    private final AsyncLoader<List<Report>> loader;
+    private final AsyncWriter writer = new AsyncWriter(this);
     
     private JComboBox<String> statusComboBox = new JComboBox<>(new String[]{"Open", "In Progress", "Resolved"});
     private JButton updateStatusButton = new JButton("Update Status");
 
     public ReportManagementPanel() {
         super(new BorderLayout(10, 10));
+        loader = new AsyncLoader<>(this);
 
         try {
             RescueAppDbConnector db = new RescueAppDbConnector();
@@ -42,17 +47,30 @@ public class ReportManagementPanel extends JPanel {
         // Title
         JLabel title = new JLabel("Manage Reports");
         title.setFont(new Font("Segoe UI", Font.BOLD, 20));
-        add(title, BorderLayout.NORTH);
+        add(loader.decorate(title), BorderLayout.NORTH);
 
         String[] columns = {"Report ID", "Description", "Location", "Urgency", "Date", "Reporter ID", "Status"};
-        model = new DefaultTableModel(columns, 0) {
-            @Override public boolean isCellEditable(int row, int column) { return false; }
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        // Pages of reports are fetched as the user scrolls instead of loading the whole table
+        model = new PagedTableModel<Report>(columns, (after, limit) -> reportDAO.getReportsPage(after, limit), loader) {
+            @Override
+            protected Object getColumnValue(Report r, int column) {
+                switch (column) {
+                    case 0: return r.getReportId();
+                    case 1: return r.getDescription();
+                    case 2: return r.getLocation();
+                    case 3: return r.getUrgency();
+                    case 4: return r.getDate() != null ? dateFormat.format(r.getDate()) : "N/A";
+                    case 5: return r.getReporter() != null ? r.getReporter().getUserId() : "N/A";
+                    default: return r.getStatus();
+                }
+            }
         };
         table = new JTable(model);
         // ... (Table setup) ...
          table.setFont(new Font("Segoe UI", Font.PLAIN, 14));
         table.setRowHeight(25);
-        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        table.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION); // bulk status changes
         add(new JScrollPane(table), BorderLayout.CENTER);
 
         // --- Control Panel ---
@@ -65,53 +83,40 @@ public class ReportManagementPanel extends JPanel {
         add(controlPanel, BorderLayout.SOUTH);
 
         // --- Button Action ---
-        updateStatusButton.addActionListener(this::handleUpdateStatus);
+        updateStatusButton.addActionListener(e -> handleUpdateStatus());
 
         // Load data
         loadAllReports();
     }
 
     private void loadAllReports() {
-        model.setRowCount(0);
         if (reportDAO == null) return;
-        try {
-           List<Report> reports = reportDAO.getAllReportsWithDetails(); // ** Needs DAO Update **
-            SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
-
-            for (Report r : reports) {
-                String reporterId = r.getReporter() != null ? r.getReporter().getUserId() : "N/A";
-                String reportDate = r.getDate() != null ? dateFormat.format(r.getDate()) : "N/A";
-                model.addRow(new Object[]{
-                        r.getReportId(), r.getDescription(), r.getLocation(),
-                        r.getUrgency(), reportDate, reporterId, r.getStatus()
-                });
-            }
-        } catch (SQLException e) {
-            e.printStackTrace(); // Handle error
-            model.addRow(new Object[]{"Error", "Could not load reports", "", "", "", "", ""});
-        }
+        model.reload();
     }
 
-     private void handleUpdateStatus() {
-        int selectedRow = table.getSelectedRow();
-        if (selectedRow == -1) {
-            JOptionPane.showMessageDialog(this, "Please select a report.", "No Selection", JOptionPane.WARNING_MESSAGE);
+    /** Sets the chosen status on every selected report with one UPDATE and repaints just those rows. */
+    private void handleUpdateStatus() {
+        int[] rows = TableRows.selectedModelRows(table);
+        if (rows.length == 0) {
+            JOptionPane.showMessageDialog(this, "Please select one or more reports.", "No Selection", JOptionPane.WARNING_MESSAGE);
             return;
         }
-        String reportId = (String) model.getValueAt(selectedRow, 0);
         String newStatus = (String) statusComboBox.getSelectedItem();
+        List<String> reportIds = new ArrayList<>();
+        for (int row : rows) {
+            reportIds.add(model.getRow(row).getReportId());
+        }
 
-         try {
-            boolean success = reportDAO.updateStatus(reportId, newStatus);
-            if (success) {
-                JOptionPane.showMessageDialog(this, "Report status updated!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                loadAllReports(); // Refresh
-            } else { /* Error message */ }
-        } catch (SQLException ex) { /* Error message */ }
+        writer.run(() -> reportDAO.updateStatuses(reportIds, newStatus), updated -> {
+            if (TableRows.stillAt(model, rows, 0, reportIds)) {
+                model.updateRows(rows, r -> r.setStatus(newStatus));
+            } else {
+                loadAllReports(); // the table was reloaded while the update ran
+            }
+            JOptionPane.showMessageDialog(this, updated + " report(s) set to '" + newStatus + "'.", "Success", JOptionPane.INFORMATION_MESSAGE);
+        }, ex -> {
+            ex.printStackTrace();
+            JOptionPane.showMessageDialog(this, "Failed to update report status.", "Database Error", JOptionPane.ERROR_MESSAGE);
+        });
     }
-
-	 private void handleUpdateStatus(ActionEvent actionevent1) {
-	 }
-
-  
-}
\ No newline at end of file
+}
@@ -3,11 +3,11 @@ package com.rescueapp.gui.admin;
 import com.rescueapp.core.Report;
 import com.rescueapp.db.RescueAppDbConnector;
 import com.rescueapp.db.dao.RescueAppReportDAO;
+import com.rescueapp.gui.util.AsyncLoader;
+import com.rescueapp.gui.util.PagedTableModel;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.SQLException;
 import java.util.List;
 
 // View-only version of Report Management
@@ -15,11 +15,13 @@ import java.util.List;
 public class ReportViewPanel extends JPanel {
 
     private JTable table;
-    private DefaultTableModel model;
+    private PagedTableModel<Report> model;
     private RescueAppReportDAO reportDAO;
+    private final AsyncLoader<List<Report>> loader;
 
     public ReportViewPanel() {
         super(new BorderLayout(10, 10));
+        loader = new AsyncLoader<>(this);
         
         try {
             RescueAppDbConnector db = new RescueAppDbConnector();
@@ -31,11 +33,20 @@ public class ReportViewPanel extends JPanel {
 
         JLabel title = new JLabel("View User Reports");
         title.setFont(new Font("Segoe UI", Font.BOLD, 20));
-        add(title, BorderLayout.NORTH);
+        add(loader.decorate(title), BorderLayout.NORTH);
 
         String[] columns = {"Description", "Location", "Urgency", "Status", "Date"}; // No IDs
-        model = new DefaultTableModel(columns, 0) {
-            @Override public boolean isCellEditable(int row, int column) { return false; }
+        model = new PagedTableModel<Report>(columns, (after, limit) -> reportDAO.getReportsPage(after, limit), loader) {
+            @Override
+            protected Object getColumnValue(Report report, int column) {
+                switch (column) {
+                    case 0: return report.getDescription();
+                    case 1: return report.getLocation();
+                    case 2: return report.getUrgency();
+                    case 3: return report.getStatus();
+                    default: return report.getDate();
+                }
+            }
         };
         table = new JTable(model);
         table.setFont(new Font("Segoe UI", Font.PLAIN, 14));
@@ -49,16 +60,7 @@ public class ReportViewPanel extends JPanel {
     }
 
     private void loadReports() {
-        model.setRowCount(0);
         if (reportDAO == null) return;
-        try {
-            List<Report> reports = reportDAO.getAllReports();
-            for (Report report : reports) {
-                model.addRow(new Object[]{
-                        report.getDescription(), report.getLocation(),
-                        report.getUrgency(), report.getStatus(), report.getDate()
-                });
-            }
-        } catch (SQLException e) { e.printStackTrace(); }
+        model.reload();
     }
 }
\ No newline at end of file
@@ -5,13 +5,16 @@ import com.rescueapp.core.User;
 import com.rescueapp.db.RescueAppDbConnector;
 import com.rescueapp.db.dao.RescueAppTaskDAO;
 import com.rescueapp.db.dao.RescueAppUserDAO;
+import com.rescueapp.gui.util.AsyncLoader;
+import com.rescueapp.gui.util.AsyncWriter;
+import com.rescueapp.gui.util.TableRows;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent; // Required for event listener
-import java.sql.SQLException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
@@ -24,6 +27,9 @@ public class TaskManagementPanel extends JPanel {
     private DefaultTableModel model;
     private RescueAppTaskDAO taskDAO;
     private RescueAppUserDAO userDAO;
+    private final AsyncLoader<List<Task>> taskLoader;
+    private final AsyncLoader<List<User>> assigneeLoader;
+    private final AsyncWriter writer = new AsyncWriter(this);
 
     // Form fields
     private JTextArea descriptionArea = new JTextArea(3, 20);
@@ -34,6 +40,8 @@ public class TaskManagementPanel extends JPanel {
 
     public TaskManagementPanel() {
         super(new BorderLayout(10, 10));
+        taskLoader = new AsyncLoader<>(this);
+        assigneeLoader = new AsyncLoader<>(this);
 
         try {
             RescueAppDbConnector db = new RescueAppDbConnector();
@@ -52,7 +60,7 @@ public class TaskManagementPanel extends JPanel {
         // Title
         JLabel title = new JLabel("Manage Tasks");
         title.setFont(new Font("Segoe UI", Font.BOLD, 20));
-        add(title, BorderLayout.NORTH);
+        add(taskLoader.decorate(title), BorderLayout.NORTH);
 
         // --- Table Panel ---
         JPanel tablePanel = new JPanel(new BorderLayout());
@@ -63,7 +71,7 @@ public class TaskManagementPanel extends JPanel {
         table = new JTable(model);
         table.setFont(new Font("Segoe UI", Font.PLAIN, 14));
         table.setRowHeight(25);
-        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        table.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION); // bulk status changes
         tablePanel.add(new JScrollPane(table), BorderLayout.CENTER);
         add(tablePanel, BorderLayout.CENTER);
 
@@ -134,11 +142,10 @@ public class TaskManagementPanel extends JPanel {
     }
 
     private void loadAllTasks() {
-        model.setRowCount(0);
         if (taskDAO == null) return;
-        try {
-            // Ensure getAllTasks method returns tasks with assignee details
-            List<Task> tasks = taskDAO.getAllTasks(); 
+        // Ensure getAllTasks method returns tasks with assignee details
+        taskLoader.load(taskDAO::getAllTasks, tasks -> {
+            model.setRowCount(0);
             SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
             for (Task task : tasks) {
                  String assigneeName = task.getAssignee() != null ? task.getAssignee().getName() : "Unassigned/Deleted";
@@ -147,26 +154,19 @@ public class TaskManagementPanel extends JPanel {
                         task.getTaskId(), task.getDescription(), assigneeName, formattedDate, task.getStatus()
                 });
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        }, Exception::printStackTrace);
     }
 
     private void populateAssigneeComboBox() {
         if (userDAO == null) return;
-        try {
-            List<User> users = userDAO.getAllUsers();
+        assigneeLoader.load(() -> userDAO.findByRole("Volunteer", "NGO"), users -> {
             Vector<UserComboBoxItem> comboBoxItems = new Vector<>();
             comboBoxItems.add(new UserComboBoxItem(null, "[Unassigned]"));
             for (User user : users) {
-                if ("Volunteer".equalsIgnoreCase(user.getRole()) || "NGO".equalsIgnoreCase(user.getRole())) {
-                    comboBoxItems.add(new UserComboBoxItem(user, user.getName() + " (" + user.getRole() + ")"));
-                }
+                comboBoxItems.add(new UserComboBoxItem(user, user.getName() + " (" + user.getRole() + ")"));
             }
             assigneeComboBox.setModel(new DefaultComboBoxModel<>(comboBoxItems));
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        }, Exception::printStackTrace);
     }
 
     private void handleAssignTask(ActionEvent e) {
@@ -186,46 +186,49 @@ public class TaskManagementPanel extends JPanel {
         newTask.setDate(new Date());
         newTask.setStatus("Open");
 
-        try {
-            taskDAO.addTask(newTask); 
+        writer.run(() -> {
+            taskDAO.addTask(newTask);
+            return null;
+        }, done -> {
             JOptionPane.showMessageDialog(this, "Task assigned successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
             loadAllTasks();
             descriptionArea.setText("");
             assigneeComboBox.setSelectedIndex(0);
-        } catch (SQLException ex) {
+        }, ex -> {
             ex.printStackTrace();
             JOptionPane.showMessageDialog(this, "Failed to assign task.", "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
 
-    
+    /** Sets the chosen status on every selected task with one UPDATE and repaints just those rows. */
     private void handleUpdateStatus(ActionEvent e) {
-        
-        int selectedRow = table.getSelectedRow();
-       
-
-        if (selectedRow == -1) {
-            JOptionPane.showMessageDialog(this, "Please select a task to update.", "No Selection", JOptionPane.WARNING_MESSAGE);
+        int[] rows = TableRows.selectedModelRows(table);
+        if (rows.length == 0) {
+            JOptionPane.showMessageDialog(this, "Please select one or more tasks to update.", "No Selection", JOptionPane.WARNING_MESSAGE);
             return;
         }
-        
-        
-        String taskId = (String) model.getValueAt(selectedRow, 0);
+
         String newStatus = (String) statusComboBox.getSelectedItem();
+        List<String> taskIds = new ArrayList<>();
+        for (int row : rows) {
+            taskIds.add((String) model.getValueAt(row, 0));
+        }
 
-         try {
-            boolean success = taskDAO.updateTaskStatus(taskId, newStatus);
-            if (success) {
-                JOptionPane.showMessageDialog(this, "Task status updated!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                loadAllTasks(); // Refresh
+        writer.run(() -> taskDAO.updateStatuses(taskIds, newStatus), updated -> {
+            if (updated > 0) {
+                if (TableRows.stillAt(model, rows, 0, taskIds)) {
+                    TableRows.setColumn(model, rows, 4, newStatus);
+                } else {
+                    loadAllTasks(); // the table was reloaded while the update ran
+                }
+                JOptionPane.showMessageDialog(this, updated + " task(s) updated!", "Success", JOptionPane.INFORMATION_MESSAGE);
             } else {
                  JOptionPane.showMessageDialog(this, "Failed to update status.", "Error", JOptionPane.ERROR_MESSAGE);
             }
-        } catch (SQLException ex) {
+        }, ex -> {
             ex.printStackTrace();
             JOptionPane.showMessageDialog(this, "Database error updating status.", "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
-        
+        });
     }
 
     
@@ -3,11 +3,11 @@ package com.rescueapp.gui.admin;
 import com.rescueapp.core.User;
 import com.rescueapp.db.RescueAppDbConnector;
 import com.rescueapp.db.dao.RescueAppUserDAO;
+import com.rescueapp.gui.util.AsyncLoader;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.SQLException;
 import java.util.List;
 
 @SuppressWarnings("serial")
@@ -16,11 +16,13 @@ public class UserManagementPanel extends JPanel {
     private RescueAppUserDAO userDAO;
     private DefaultTableModel model;
     private JTable table;
+    private final AsyncLoader<List<User>> loader;
 
     public UserManagementPanel() {
         super(new BorderLayout(10, 10));
         setBackground(Color.WHITE);
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        loader = new AsyncLoader<>(this);
 
         try {
             RescueAppDbConnector db = new RescueAppDbConnector();
@@ -33,7 +35,7 @@ public class UserManagementPanel extends JPanel {
         // Title
         JLabel title = new JLabel("Manage All Users");
         title.setFont(new Font("Segoe UI", Font.BOLD, 20));
-        add(title, BorderLayout.NORTH);
+        add(loader.decorate(title), BorderLayout.NORTH);
 
         // --- 1. TABLE MODEL (Unchanged) ---
         String[] columns = {"User ID", "Name", "Email", "Role", "Contact"};
@@ -69,14 +71,14 @@ public class UserManagementPanel extends JPanel {
     }
 
     private void loadUsers() {
-        model.setRowCount(0);
         if (userDAO == null) {
+            model.setRowCount(0);
             model.addRow(new Object[]{"Error", "Could not connect to database", "", "", ""});
             return;
         }
 
-        try {
-            List<User> users = userDAO.getAllUsers();
+        loader.load(userDAO::getAllUsers, users -> {
+            model.setRowCount(0);
             for (User user : users) {
                 // --- 4. ROW DATA (Unchanged) ---
                 model.addRow(new Object[]{
@@ -87,9 +89,10 @@ public class UserManagementPanel extends JPanel {
                         user.getContact()
                 });
             }
-        } catch (SQLException e) {
+        }, e -> {
             e.printStackTrace();
+            model.setRowCount(0);
             model.addRow(new Object[]{"Error", "Failed to load users: " + e.getMessage(), "", "", ""});
-        }
+        });
     }
 }
\ No newline at end of file
@@ -3,11 +3,12 @@ package com.rescueapp.gui.admin;
 import com.rescueapp.core.Volunteer;
 import com.rescueapp.db.RescueAppDbConnector;
 import com.rescueapp.db.dao.RescueAppVolunteerDAO; // Use Volunteer DAO
+import com.rescueapp.gui.util.AsyncLoader;
+import com.rescueapp.gui.util.AsyncWriter;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.SQLException;
 import java.util.List;
 import java.util.UUID; // For generating ID if needed
 
@@ -17,6 +18,8 @@ public class VolunteerManagementPanel extends JPanel {
     private RescueAppVolunteerDAO volunteerDAO;
     private DefaultTableModel model;
     private JTable table;
+    private final AsyncLoader<List<Volunteer>> loader;
+    private final AsyncWriter writer = new AsyncWriter(this);
 
     // Fields for Add/Edit Dialog (similar to User panel, add 'availability')
     private JTextField idFieldDialog = new JTextField(20);
@@ -27,6 +30,7 @@ public class VolunteerManagementPanel extends JPanel {
 
     public VolunteerManagementPanel() {
         super(new BorderLayout(10, 10));
+        loader = new AsyncLoader<>(this);
         setBackground(Color.WHITE);
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 
@@ -40,7 +44,7 @@ public class VolunteerManagementPanel extends JPanel {
 
         JLabel title = new JLabel("Manage Volunteers");
         title.setFont(new Font("Segoe UI", Font.BOLD, 20));
-        add(title, BorderLayout.NORTH);
+        add(loader.decorate(title), BorderLayout.NORTH);
 
         // Table - add 'Availability' column
         String[] columns = {"User ID", "Name", "Email", "Contact", "Availability"};
@@ -72,24 +76,26 @@ public class VolunteerManagementPanel extends JPanel {
     }
 
     private void loadVolunteers() {
-        model.setRowCount(0);
         if (volunteerDAO == null) return;
-        try {
-            // Ensure getAllVolunteers returns List<Volunteer>
-            List<Volunteer> volunteers = volunteerDAO.getAllVolunteers();
-            for (Volunteer vol : volunteers) {
-                model.addRow(new Object[]{
-                        vol.getUserId(), vol.getName(), vol.getEmail(), vol.getContact(), vol.getAvailability()
-                });
+        // Ensure getAllVolunteers returns List<Volunteer>
+        loader.load(volunteerDAO::getAllVolunteers, volunteers -> {
+            model.setRowCount(0);
+            try {
+                for (Volunteer vol : volunteers) {
+                    model.addRow(new Object[]{
+                            vol.getUserId(), vol.getName(), vol.getEmail(), vol.getContact(), vol.getAvailability()
+                    });
+                }
+            } catch (ClassCastException e) {
+                 e.printStackTrace();
+                 model.addRow(new Object[]{"Error", "DAO returned wrong type", "", "", ""});
+                 JOptionPane.showMessageDialog(this, "DAO Configuration Error: Expected Volunteer list.", "Type Error", JOptionPane.ERROR_MESSAGE);
             }
-        } catch (SQLException e) {
+        }, e -> {
             e.printStackTrace();
+            model.setRowCount(0);
             model.addRow(new Object[]{"Error", "Failed to load volunteers: " + e.getMessage(), "", "", ""});
-        } catch (ClassCastException e) {
-             e.printStackTrace();
-             model.addRow(new Object[]{"Error", "DAO returned wrong type", "", "", ""});
-             JOptionPane.showMessageDialog(this, "DAO Configuration Error: Expected Volunteer list.", "Type Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
 
     private Volunteer getSelectedVolunteer() {
@@ -168,20 +174,27 @@ public class VolunteerManagementPanel extends JPanel {
             volunteer.setAvailability(availability);
             // Role is implicitly "Volunteer"
 
-            try {
+            if (!isEditMode) {
+                volunteer.setUserId(UUID.randomUUID().toString()); // Generate ID
+            }
+            writer.run(() -> {
                 if (isEditMode) {
                     volunteerDAO.updateVolunteer(volunteer);
-                    JOptionPane.showMessageDialog(this, "Volunteer updated successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
                 } else {
-                    volunteer.setUserId(UUID.randomUUID().toString()); // Generate ID
                     volunteerDAO.addVolunteer(volunteer);
+                }
+                return null;
+            }, done -> {
+                if (isEditMode) {
+                    JOptionPane.showMessageDialog(this, "Volunteer updated successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
+                } else {
                     JOptionPane.showMessageDialog(this, "Volunteer added successfully with ID: " + volunteer.getUserId(), "Success", JOptionPane.INFORMATION_MESSAGE);
                 }
                 loadVolunteers(); // Refresh
-            } catch (SQLException ex) {
+            }, ex -> {
                 ex.printStackTrace();
                 JOptionPane.showMessageDialog(this, "Database error: " + ex.getMessage(), "DB Error", JOptionPane.ERROR_MESSAGE);
-            }
+            });
         }
     }
 
@@ -197,18 +210,17 @@ public class VolunteerManagementPanel extends JPanel {
                 JOptionPane.WARNING_MESSAGE);
 
         if (confirm == JOptionPane.YES_OPTION) {
-            try {
-                boolean success = volunteerDAO.deleteVolunteer(volToDelete.getUserId());
+            writer.run(() -> volunteerDAO.deleteVolunteer(volToDelete.getUserId()), success -> {
                 if (success) {
                     JOptionPane.showMessageDialog(this, "Volunteer deleted successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
                     loadVolunteers();
                 } else {
                     JOptionPane.showMessageDialog(this, "Failed to delete volunteer.", "Deletion Failed", JOptionPane.ERROR_MESSAGE);
                 }
-            } catch (SQLException ex) {
+            }, ex -> {
                 ex.printStackTrace();
                  JOptionPane.showMessageDialog(this, "Database error during deletion: " + ex.getMessage(), "DB Error", JOptionPane.ERROR_MESSAGE);
-            }
+            });
         }
     }
 }
\ No newline at end of file
@@ -6,7 +6,9 @@ import com.rescueapp.core.User;
 import com.rescueapp.db.RescueAppDbConnector;
 import com.rescueapp.db.dao.RescueAppAdoptionDAO;
 import com.rescueapp.db.dao.RescueAppAnimalDAO;
-import com.rescueapp.db.dao.RescueAppNotificationDAO;
+import com.rescueapp.db.dao.RescueAppOutboxDAO;
+import com.rescueapp.gui.util.AsyncLoader;
+import com.rescueapp.gui.util.AsyncWriter;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
@@ -14,9 +16,6 @@ import java.awt.*;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.UUID; // Keep if needed, though simpler DAO method is used
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 
 @SuppressWarnings("serial")
 public class NgoAdoptionRequestPanel extends JPanel {
@@ -25,16 +24,19 @@ public class NgoAdoptionRequestPanel extends JPanel {
     private DefaultTableModel model;
     private RescueAppAdoptionDAO adoptionDAO;
     private RescueAppAnimalDAO animalDAO;
-    private RescueAppNotificationDAO notificationDAO;
-    private final ExecutorService notificationExecutor = Executors.newSingleThreadExecutor();
+    private RescueAppDbConnector db;
+    private RescueAppOutboxDAO outboxDAO;
+    private final AsyncLoader<List<AdoptionRequest>> loader;
+    private final AsyncWriter writer = new AsyncWriter(this);
 
     public NgoAdoptionRequestPanel() {
         super(new BorderLayout(10, 10));
+        loader = new AsyncLoader<>(this);
         try {
-            RescueAppDbConnector db = new RescueAppDbConnector();
+            db = new RescueAppDbConnector();
             adoptionDAO = new RescueAppAdoptionDAO(db);
             animalDAO = new RescueAppAnimalDAO(db);
-            notificationDAO = new RescueAppNotificationDAO(db);
+            outboxDAO = new RescueAppOutboxDAO(db);
         } catch (Exception e) {
              e.printStackTrace();
              // Consider disabling panel or showing error message permanently
@@ -45,7 +47,7 @@ public class NgoAdoptionRequestPanel extends JPanel {
 
         JLabel title = new JLabel("Manage Adoption Requests");
         title.setFont(new Font("Segoe UI", Font.BOLD, 20));
-        add(title, BorderLayout.NORTH);
+        add(loader.decorate(title), BorderLayout.NORTH);
 
         String[] columns = {"Request ID", "Animal ID", "User ID", "User Name", "Request Date", "Status"};
         model = new DefaultTableModel(columns, 0) {
@@ -87,26 +89,11 @@ public class NgoAdoptionRequestPanel extends JPanel {
         loadAllAdoptionRequests();
     }
 
-    public void shutdownExecutor() {
-        if (notificationExecutor != null && !notificationExecutor.isShutdown()) {
-             System.out.println("NgoAdoptionRequestPanel: Shutting down notification executor...");
-            notificationExecutor.shutdown();
-             try {
-                 if (!notificationExecutor.awaitTermination(1, TimeUnit.SECONDS)) {
-                     notificationExecutor.shutdownNow();
-                 }
-             } catch (InterruptedException e) {
-                 notificationExecutor.shutdownNow();
-                 Thread.currentThread().interrupt(); // Re-interrupt thread
-             }
-        }
-    }
-
     private void loadAllAdoptionRequests() {
-        model.setRowCount(0);
         if (adoptionDAO == null) { /* Handle error */ return; }
-        try {
-            List<AdoptionRequest> requests = adoptionDAO.getAllRequests(); // Assumes this gets User/Animal details
+        // Assumes getAllRequests gets User/Animal details
+        loader.load(adoptionDAO::getAllRequests, requests -> {
+            model.setRowCount(0);
             for (AdoptionRequest req : requests) {
                 String adopterName = (req.getAdopter() != null && req.getAdopter().getName() != null) ? req.getAdopter().getName() : "N/A";
                 String adopterId = (req.getAdopter() != null) ? req.getAdopter().getUserId() : "N/A";
@@ -117,36 +104,16 @@ public class NgoAdoptionRequestPanel extends JPanel {
                         req.getRequestId(), animalId, adopterId, adopterName, reqDateStr, req.getStatus()
                 });
             }
-        } catch (Exception e) {
+        }, e -> {
             e.printStackTrace();
             // Handle error visually
-        }
+        });
     }
 
-    private void sendNotificationInBackground(String userId, String message) {
-        // Check DAO, user ID validity, and if executor is running
-        if (notificationDAO != null && userId != null && !userId.equals("N/A") && !notificationExecutor.isShutdown()) {
-            notificationExecutor.submit(() -> {
-                try {
-                    System.out.println("Attempting to add notification for user: " + userId + " with message: " + message);
-                    // Use the simpler DAO method
-                    boolean added = notificationDAO.addNotification(userId, message);
-                    if(added) {
-                        System.out.println("Notification successfully added to DB for user: " + userId);
-                    } else {
-                         System.out.println("!!! Notification failed to add to DB for user: " + userId);
-                    }
-                } catch (SQLException e) {
-                    System.err.println("!!! SQL Error sending notification for user " + userId + ": " + e.getMessage());
-                    e.printStackTrace();
-                } catch (Exception e) {
-                     System.err.println("!!! Unexpected Error sending notification for user " + userId + ": " + e.getMessage());
-                     e.printStackTrace();
-                }
-            });
-        } else {
-             System.err.println("!!! Could not send notification. DAO:" + (notificationDAO != null) + ", UserID: " + userId + ", ExecutorShutdown:" + (notificationExecutor != null ? notificationExecutor.isShutdown() : "null"));
-        }
+    /** Queues the notification in the caller's transaction; the outbox relay delivers it after commit. */
+    private void queueNotification(String userId, String message) throws SQLException {
+        if (userId == null || userId.equals("N/A")) return;
+        outboxDAO.enqueue(userId, message);
     }
 
     private void processRequest(boolean isApproved) {
@@ -159,27 +126,53 @@ public class NgoAdoptionRequestPanel extends JPanel {
         String userId = (String) model.getValueAt(selectedRow, 2);
         String currentStatus = (String) model.getValueAt(selectedRow, 5); // Status is the 6th column (index 5)
 
-        if (adoptionDAO == null || animalDAO == null || notificationDAO == null) { /* Handle DB error */ return; }
+        if (adoptionDAO == null || animalDAO == null || outboxDAO == null) { /* Handle DB error */ return; }
 
         if (!"Pending".equalsIgnoreCase(currentStatus)) { /* Handle already processed */ return; }
         String newStatus = isApproved ? "Approved" : "Rejected";
 
-        try {
-            boolean success = adoptionDAO.updateRequestStatus(requestId, newStatus);
-            if (success && isApproved && animalId != null && !animalId.equals("N/A")) {
-                animalDAO.updateAnimalStatus(animalId, "Adopted");
+        if (isApproved && animalId != null && !animalId.equals("N/A")) {
+            // Compare-and-set on the animal; competing pending requests are rejected in the same transaction,
+            // and the notifications are queued in it too, so they exist exactly when the approval does
+            writer.run(() -> db.inTransaction(() -> {
+                RescueAppAdoptionDAO.ApprovalResult r = adoptionDAO.approveRequest(requestId, animalId);
+                if (r.isApproved()) {
+                    queueNotification(userId, "Your adoption request for animal ID " + animalId + " has been Approved.");
+                    outboxDAO.enqueue(r.getRejectedAdopterIds(), "Your adoption request for animal ID " + animalId + " has been Rejected because the animal has been adopted.");
+                }
+                return r;
+            }), result -> {
+                if (!result.isApproved()) {
+                    JOptionPane.showMessageDialog(this, "This request could not be approved: it was already processed or the animal has been adopted.", "Approval Failed", JOptionPane.WARNING_MESSAGE);
+                    loadAllAdoptionRequests(); // Show the current state
+                    return;
+                }
+                JOptionPane.showMessageDialog(this, "Request successfully Approved!" + (result.getRejectedAdopterIds().isEmpty() ? "" : "\n" + result.getRejectedAdopterIds().size() + " competing request(s) were rejected."), "Success", JOptionPane.INFORMATION_MESSAGE);
+                loadAllAdoptionRequests(); // Refresh table
+            }, this::showDatabaseError);
+            return;
+        }
+
+        String notificationMessage = "Your adoption request for animal ID " + (animalId != null ? animalId : "?") + " has been " + newStatus + ".";
+        writer.run(() -> db.inTransaction(() -> {
+            boolean updated = adoptionDAO.updateRequestStatus(requestId, newStatus);
+            if (updated) {
+                queueNotification(userId, notificationMessage);
             }
+            return updated;
+        }), success -> {
             if (success) {
                 JOptionPane.showMessageDialog(this, "Request successfully " + newStatus + "!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                String notificationMessage = "Your adoption request for animal ID " + (animalId != null ? animalId : "?") + " has been " + newStatus + ".";
-                sendNotificationInBackground(userId, notificationMessage);
                 loadAllAdoptionRequests(); // Refresh table
             } else {
-                JOptionPane.showMessageDialog(this, "Failed to update request status.", "Update Failed", JOptionPane.ERROR_MESSAGE);
+                JOptionPane.showMessageDialog(this, "This request could not be " + newStatus.toLowerCase() + ": it was already processed.", "Update Failed", JOptionPane.WARNING_MESSAGE);
+                loadAllAdoptionRequests(); // Show the current state
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this, "A database error occurred: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, this::showDatabaseError);
+    }
+
+    private void showDatabaseError(Exception e) {
+        e.printStackTrace();
+        JOptionPane.showMessageDialog(this, "A database error occurred: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
     }
 }
\ No newline at end of file
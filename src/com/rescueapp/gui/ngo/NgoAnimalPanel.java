@@ -1,6 +1,8 @@
 package com.rescueapp.gui.ngo;
 
 import com.rescueapp.gui.admin.AnimalFormDialog; 
+import com.rescueapp.gui.util.AsyncLoader;
+import com.rescueapp.gui.util.AsyncWriter;
 import com.rescueapp.gui.util.ImageRenderer;
 import com.rescueapp.core.StrayAnimal;
 import com.rescueapp.db.RescueAppDbConnector;
@@ -9,7 +11,6 @@ import com.rescueapp.db.dao.RescueAppAnimalDAO;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.SQLException;
 import java.util.List;
 
 @SuppressWarnings("serial")
@@ -17,9 +18,14 @@ public class NgoAnimalPanel extends JPanel {
     private JTable table;
     private DefaultTableModel model;
     private RescueAppAnimalDAO animalDAO;
+    private final AsyncLoader<List<StrayAnimal>> loader;
+    private final AsyncLoader<StrayAnimal> editLoader;
+    private final AsyncWriter writer = new AsyncWriter(this);
 
     public NgoAnimalPanel() {
         super(new BorderLayout(10, 10));
+        loader = new AsyncLoader<>(this);
+        editLoader = new AsyncLoader<>(this);
         try {
             RescueAppDbConnector db = new RescueAppDbConnector();
             animalDAO = new RescueAppAnimalDAO(db);
@@ -29,7 +35,7 @@ public class NgoAnimalPanel extends JPanel {
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
         JLabel title = new JLabel("Manage Animals");
         title.setFont(new Font("Segoe UI", Font.BOLD, 20));
-        add(title, BorderLayout.NORTH);
+        add(loader.decorate(title), BorderLayout.NORTH);
 
         String[] columns = {"Animal ID", "Photo", "Specifications", "Status", "Medical Record"};
         model = new DefaultTableModel(columns, 0) {
@@ -70,27 +76,24 @@ public class NgoAnimalPanel extends JPanel {
     }
     
     private void loadAnimals() {
-        model.setRowCount(0);
         if (animalDAO == null) return;
-        try {
-            List<StrayAnimal> animals = animalDAO.getAllAnimals();
+        loader.load(animalDAO::getAllAnimals, animals -> {
+            model.setRowCount(0);
             for (StrayAnimal animal : animals) {
                 model.addRow(new Object[]{
                         animal.getAnimalId(), animal.getPhotoUrl(),
                         animal.getSpecifications(), animal.getStatus(), animal.getMedReport()
                 });
             }
-        } catch (SQLException e) { e.printStackTrace(); }
+        }, Exception::printStackTrace);
     }
     
     private void addAnimal() {
         AnimalFormDialog dialog = new AnimalFormDialog(null, null);
         dialog.setVisible(true);
         if (dialog.isConfirmed()) {
-            try {
-                animalDAO.addAnimal(dialog.getAnimal());
-                loadAnimals();
-            } catch (SQLException e) { e.printStackTrace(); }
+            StrayAnimal animal = dialog.getAnimal();
+            writer.run(() -> { animalDAO.addAnimal(animal); return null; }, done -> loadAnimals(), Exception::printStackTrace);
         }
     }
     
@@ -98,17 +101,14 @@ public class NgoAnimalPanel extends JPanel {
         int selectedRow = table.getSelectedRow();
         if (selectedRow == -1) return;
         String animalId = (String) model.getValueAt(selectedRow, 0);
-        try {
-            StrayAnimal animalToEdit = animalDAO.getAllAnimals().stream()
-                .filter(a -> a.getAnimalId().equals(animalId))
-                .findFirst().orElse(null);
+        editLoader.load(() -> animalDAO.findById(animalId), animalToEdit -> {
             if (animalToEdit == null) return;
             AnimalFormDialog dialog = new AnimalFormDialog(null, animalToEdit);
             dialog.setVisible(true);
             if (dialog.isConfirmed()) {
-                animalDAO.updateAnimal(dialog.getAnimal());
-                loadAnimals();
+                StrayAnimal edited = dialog.getAnimal();
+                writer.run(() -> { animalDAO.updateAnimal(edited); return null; }, done -> loadAnimals(), Exception::printStackTrace);
             }
-        } catch (SQLException e) { e.printStackTrace(); }
+        }, Exception::printStackTrace);
     }
 }
\ No newline at end of file
@@ -5,12 +5,13 @@ import com.rescueapp.db.RescueAppDbConnector;
 import com.rescueapp.db.dao.RescueAppReportDAO;
 import com.rescueapp.db.dao.RescueAppTaskDAO;
 import com.rescueapp.db.dao.RescueAppUserDAO;
+import com.rescueapp.gui.util.AsyncLoader;
+import com.rescueapp.gui.util.AsyncWriter;
+import com.rescueapp.gui.util.PagedTableModel;
 import com.rescueapp.core.User;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.SQLException;
 import java.util.List;
 import java.util.Date;
 
@@ -19,16 +20,20 @@ import java.util.Date;
 public class NgoReportPanel extends JPanel {
 
     private JTable table;
-    private DefaultTableModel model;
+    private PagedTableModel<Report> model;
     private RescueAppReportDAO reportDAO;
+    private RescueAppDbConnector db;
     private RescueAppTaskDAO taskDAO;
     private RescueAppUserDAO userDAO;
+    private final AsyncLoader<List<Report>> loader;
+    private final AsyncWriter writer = new AsyncWriter(this);
 
     public NgoReportPanel() {
         super(new BorderLayout(10, 10));
+        loader = new AsyncLoader<>(this);
         
         try {
-            RescueAppDbConnector db = new RescueAppDbConnector();
+            db = new RescueAppDbConnector();
             reportDAO = new RescueAppReportDAO(db);
             taskDAO = new RescueAppTaskDAO(db);
             userDAO = new RescueAppUserDAO(db);
@@ -39,11 +44,22 @@ public class NgoReportPanel extends JPanel {
 
         JLabel title = new JLabel("View User Reports");
         title.setFont(new Font("Segoe UI", Font.BOLD, 20));
-        add(title, BorderLayout.NORTH);
+        add(loader.decorate(title), BorderLayout.NORTH);
 
         String[] columns = {"Report ID", "Description", "Location", "Urgency", "Status", "Date", "Reporter ID"};
-        model = new DefaultTableModel(columns, 0) {
-            @Override public boolean isCellEditable(int row, int column) { return false; }
+        model = new PagedTableModel<Report>(columns, (after, limit) -> reportDAO.getReportsPage(after, limit), loader) {
+            @Override
+            protected Object getColumnValue(Report report, int column) {
+                switch (column) {
+                    case 0: return report.getReportId();
+                    case 1: return report.getDescription();
+                    case 2: return report.getLocation();
+                    case 3: return report.getUrgency();
+                    case 4: return report.getStatus();
+                    case 5: return report.getDate();
+                    default: return (report.getReporter() != null) ? report.getReporter().getUserId() : "N/A";
+                }
+            }
         };
         table = new JTable(model);
         // ... (Table setup - same as Admin Report panel) ...
@@ -68,18 +84,8 @@ public class NgoReportPanel extends JPanel {
     }
 
     private void loadReports() {
-        model.setRowCount(0);
         if (reportDAO == null) return;
-        try {
-            List<Report> reports = reportDAO.getAllReports();
-            for (Report report : reports) {
-                model.addRow(new Object[]{
-                        report.getReportId(), report.getDescription(), report.getLocation(),
-                        report.getUrgency(), report.getStatus(), report.getDate(),
-                        (report.getReporter() != null) ? report.getReporter().getUserId() : "N/A"
-                });
-            }
-        } catch (SQLException e) { e.printStackTrace(); }
+        model.reload();
     }
     
     // Identical to Admin's createTaskFromReport
@@ -90,28 +96,31 @@ public class NgoReportPanel extends JPanel {
         String description = (String) model.getValueAt(selectedRow, 1);
         String location = (String) model.getValueAt(selectedRow, 2);
         
-        User assignee = null;
-        try {
-            assignee = userDAO.getAllUsers().stream()
-                .filter(u -> u.getRole().equalsIgnoreCase("Volunteer"))
+        String reportId = (String) model.getValueAt(selectedRow, 0);
+        writer.run(() -> {
+            User assignee = userDAO.findByRole("Volunteer").stream()
                 .findFirst().orElse(null);
-        } catch (SQLException e) { e.printStackTrace(); }
+            if (assignee == null) { /* ... show error ... */ return false; }
 
-        if (assignee == null) { /* ... show error ... */ return; }
+            com.rescueapp.core.Task task = new com.rescueapp.core.Task();
+            task.setTaskId(java.util.UUID.randomUUID().toString());
+            task.setDescription("Task from report: " + description + " at " + location);
+            task.setStatus("Open");
+            task.setDate(new Date());
+            task.setAssignee(assignee);
 
-        com.rescueapp.core.Task task = new com.rescueapp.core.Task();
-        task.setTaskId(java.util.UUID.randomUUID().toString());
-        task.setDescription("Task from report: " + description + " at " + location);
-        task.setStatus("Open");
-        task.setDate(new Date());
-        task.setAssignee(assignee);
-
-        try {
-            taskDAO.addTask(task);
-            JOptionPane.showMessageDialog(this, "Task created and assigned!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            String reportId = (String) model.getValueAt(selectedRow, 0);
-            reportDAO.updateReportStatus(reportId, "Assigned");
-            loadReports();
-        } catch (SQLException e) { /* ... show error ... */ }
+            // The task and the report's "Assigned" status are committed together
+            db.inTransaction(() -> {
+                taskDAO.addTask(task);
+                reportDAO.updateReportStatus(reportId, "Assigned");
+                return null;
+            });
+            return true;
+        }, created -> {
+            if (created) {
+                JOptionPane.showMessageDialog(this, "Task created and assigned!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                loadReports();
+            }
+        }, e -> { e.printStackTrace(); /* ... show error ... */ });
     }
 }
\ No newline at end of file
@@ -3,19 +3,17 @@ package com.rescueapp.gui.ngo;
 import com.rescueapp.core.Task;
 import com.rescueapp.core.User;
 import com.rescueapp.db.RescueAppDbConnector;
-import com.rescueapp.db.dao.RescueAppNotificationDAO;
+import com.rescueapp.db.dao.RescueAppOutboxDAO;
 import com.rescueapp.db.dao.RescueAppTaskDAO;
 import com.rescueapp.db.dao.RescueAppUserDAO;
+import com.rescueapp.gui.util.AsyncLoader;
+import com.rescueapp.gui.util.AsyncWriter;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.SQLException;
 import java.util.List;
 import java.util.Vector;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 
 @SuppressWarnings("serial")
 public class NgoTaskManagementPanel extends JPanel {
@@ -24,17 +22,22 @@ public class NgoTaskManagementPanel extends JPanel {
     private DefaultTableModel model;
     private RescueAppTaskDAO taskDAO;
     private RescueAppUserDAO userDAO;
-    private RescueAppNotificationDAO notificationDAO;
-    private final ExecutorService notificationExecutor = Executors.newSingleThreadExecutor();
+    private RescueAppDbConnector db;
+    private RescueAppOutboxDAO outboxDAO;
+    private final AsyncLoader<List<Task>> taskLoader;
+    private final AsyncLoader<List<User>> volunteerLoader;
+    private final AsyncWriter writer = new AsyncWriter(this);
 
     public NgoTaskManagementPanel() {
         super(new BorderLayout(10, 10));
+        taskLoader = new AsyncLoader<>(this);
+        volunteerLoader = new AsyncLoader<>(this);
 
         try {
-            RescueAppDbConnector db = new RescueAppDbConnector();
+            db = new RescueAppDbConnector();
             taskDAO = new RescueAppTaskDAO(db);
             userDAO = new RescueAppUserDAO(db);
-            notificationDAO = new RescueAppNotificationDAO(db);
+            outboxDAO = new RescueAppOutboxDAO(db);
         } catch (Exception e) {
              e.printStackTrace();
              
@@ -45,7 +48,7 @@ public class NgoTaskManagementPanel extends JPanel {
 
         JLabel title = new JLabel("Manage & Assign Tasks");
         title.setFont(new Font("Segoe UI", Font.BOLD, 20));
-        add(title, BorderLayout.NORTH);
+        add(taskLoader.decorate(title), BorderLayout.NORTH);
 
         String[] columns = {"Task ID", "Description", "Status", "Date", "Assignee Name"};
         model = new DefaultTableModel(columns, 0) {
@@ -85,10 +88,9 @@ public class NgoTaskManagementPanel extends JPanel {
     }
 
     private void loadTasks() {
-        model.setRowCount(0);
         if (taskDAO == null) return;
-        try {
-            List<Task> tasks = taskDAO.getAllTasks();
+        taskLoader.load(taskDAO::getAllTasks, tasks -> {
+            model.setRowCount(0);
             for (Task task : tasks) {
                 model.addRow(new Object[]{
                         task.getTaskId(),
@@ -99,20 +101,15 @@ public class NgoTaskManagementPanel extends JPanel {
                             ? task.getAssignee().getName() : "Unassigned"
                 });
             }
-        } catch (SQLException e) { e.printStackTrace(); }
+        }, Exception::printStackTrace);
     }
 
     private void populateVolunteerComboBox(JComboBox<User> comboBox) {
         if (userDAO == null) return;
-        try {
-             List<User> users = userDAO.getAllUsers();
+        volunteerLoader.load(() -> userDAO.findByRole("Volunteer"), users -> {
              Vector<User> volunteers = new Vector<>();
              volunteers.add(null); // Option for Unassigned
-             for (User u : users) {
-                 if (u.getRole().equalsIgnoreCase("Volunteer")) {
-                     volunteers.add(u);
-                 }
-             }
+             volunteers.addAll(users);
              comboBox.setRenderer(new DefaultListCellRenderer() {
                  @Override
                  public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
@@ -126,7 +123,7 @@ public class NgoTaskManagementPanel extends JPanel {
                  }
              });
              comboBox.setModel(new DefaultComboBoxModel<>(volunteers));
-        } catch(SQLException e) { e.printStackTrace(); }
+        }, Exception::printStackTrace);
     }
 
     private void assignSelectedTask(JComboBox<User> volunteerComboBox) {
@@ -148,13 +145,17 @@ public class NgoTaskManagementPanel extends JPanel {
             if (confirm != JOptionPane.YES_OPTION) return;
         }
 
-        try {
-            boolean success = taskDAO.assignTask(taskId, assigneeId);
+        // The volunteer's notification is queued in the same transaction as the assignment
+        writer.run(() -> db.inTransaction(() -> {
+            boolean assigned = taskDAO.assignTask(taskId, assigneeId);
+            if (assigned && assigneeId != null && outboxDAO != null) {
+                outboxDAO.enqueue(assigneeId, "You have been assigned a new task: " + taskDescription);
+            }
+            return assigned;
+        }), success -> {
             if (success) {
                 String successMessage;
                 if (selectedVolunteer != null) {
-                    String notificationMessage = "You have been assigned a new task: " + taskDescription;
-                    sendNotificationToVolunteer(assigneeId, notificationMessage);
                     successMessage = "Task assigned successfully to " + selectedVolunteer.getName() + "!";
                 } else {
                      successMessage = "Task successfully unassigned!";
@@ -164,48 +165,10 @@ public class NgoTaskManagementPanel extends JPanel {
             } else {
                  JOptionPane.showMessageDialog(this, "Failed to update assignment in database.", "Update Failed", JOptionPane.ERROR_MESSAGE);
             }
-        } catch (SQLException e) {
+        }, e -> {
              e.printStackTrace();
              JOptionPane.showMessageDialog(this, "Failed to assign task due to database error.", "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
 
-    private void sendNotificationToVolunteer(String userId, String message) {
-       if (notificationDAO != null && userId != null && !userId.equals("N/A") && !notificationExecutor.isShutdown()) {
-           notificationExecutor.submit(() -> {
-               try {
-                   System.out.println("Attempting to add notification for user: " + userId + " with message: " + message);
-                   boolean added = notificationDAO.addNotification(userId, message);
-                   if(added) {
-                       System.out.println("Notification successfully added to DB for user: " + userId);
-                   } else {
-                        System.out.println("!!! Notification failed to add to DB for user: " + userId);
-                   }
-               } catch (SQLException e) {
-                   System.err.println("!!! SQL Error sending notification for user " + userId + ": " + e.getMessage());
-                   e.printStackTrace();
-               } catch (Exception e) {
-                    System.err.println("!!! Unexpected Error sending notification for user " + userId + ": " + e.getMessage());
-                    e.printStackTrace();
-               }
-           });
-       } else {
-            System.err.println("!!! Could not send notification. DAO:" + (notificationDAO != null) + ", UserID: " + userId + ", ExecutorShutdown:" + (notificationExecutor != null ? notificationExecutor.isShutdown() : "null"));
-       }
-    }
-
-    public void shutdownExecutor() {
-        if (notificationExecutor != null && !notificationExecutor.isShutdown()) {
-             System.out.println("NgoTaskManagementPanel: Shutting down notification executor...");
-            notificationExecutor.shutdown();
-             try {
-                 if (!notificationExecutor.awaitTermination(1, TimeUnit.SECONDS)) {
-                     notificationExecutor.shutdownNow();
-                 }
-             } catch (InterruptedException e) {
-                 notificationExecutor.shutdownNow();
-                 Thread.currentThread().interrupt(); // Re-interrupt thread
-             }
-        }
-    }
 }
\ No newline at end of file
@@ -6,12 +6,13 @@ import com.rescueapp.core.User;
 import com.rescueapp.db.RescueAppDbConnector;
 import com.rescueapp.db.dao.RescueAppAdoptionDAO;
 import com.rescueapp.db.dao.RescueAppAnimalDAO;
+import com.rescueapp.gui.util.AsyncLoader;
+import com.rescueapp.gui.util.AsyncWriter;
 import com.rescueapp.gui.util.ImageRenderer; // <-- Import the new renderer
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.SQLException;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
@@ -23,12 +24,15 @@ public class AnimalAdoptionPanel extends JPanel {
     private DefaultTableModel model;
     private RescueAppAnimalDAO animalDAO;
     private RescueAppAdoptionDAO adoptionDAO;
+    private final AsyncLoader<List<StrayAnimal>> loader;
+    private final AsyncWriter writer = new AsyncWriter(this);
     
     private User loggedInUser;
 
     public AnimalAdoptionPanel(User user) {
         super(new BorderLayout(10, 10));
         this.loggedInUser = user; 
+        loader = new AsyncLoader<>(this);
 
         try {
             RescueAppDbConnector db = new RescueAppDbConnector();
@@ -45,7 +49,7 @@ public class AnimalAdoptionPanel extends JPanel {
         // Title
         JLabel title = new JLabel("Animals Available for Adoption");
         title.setFont(new Font("Segoe UI", Font.BOLD, 20));
-        add(title, BorderLayout.NORTH);
+        add(loader.decorate(title), BorderLayout.NORTH);
 
         // --- 1. TABLE MODEL UPDATED ---
         // We include Animal ID for logic, but hide it from the user.
@@ -91,28 +95,26 @@ public class AnimalAdoptionPanel extends JPanel {
     }
 
     private void loadAvailableAnimals() {
-        model.setRowCount(0); // Clear table
         if (animalDAO == null) return;
 
-        try {
-            List<StrayAnimal> allAnimals = animalDAO.getAllAnimals();
-            
-            for (StrayAnimal animal : allAnimals) {
-                if (animal.getStatus() != null && animal.getStatus().equalsIgnoreCase("available")) {
-                    // --- 5. UPDATED ROW DATA (matches new columns) ---
-                    // Add photourl to the "Photo" column
-                    model.addRow(new Object[]{
-                            animal.getAnimalId(),    // Column 0 (Hidden)
-                            animal.getPhotoUrl(),    // Column 1 (Photo)
-                            animal.getSpecifications(),// Column 2 (Specifications)
-                            animal.getStatus()       // Column 3 (Status)
-                    });
-                }
+        // Filtered by the database (status match is case-insensitive there)
+        loader.load(() -> animalDAO.findByStatus("Available"), availableAnimals -> {
+            model.setRowCount(0); // Clear table
+            for (StrayAnimal animal : availableAnimals) {
+                // --- 5. UPDATED ROW DATA (matches new columns) ---
+                // Add photourl to the "Photo" column
+                model.addRow(new Object[]{
+                        animal.getAnimalId(),    // Column 0 (Hidden)
+                        animal.getPhotoUrl(),    // Column 1 (Photo)
+                        animal.getSpecifications(),// Column 2 (Specifications)
+                        animal.getStatus()       // Column 3 (Status)
+                });
             }
-        } catch (SQLException e) {
+        }, e -> {
             e.printStackTrace();
+            model.setRowCount(0);
             model.addRow(new Object[]{"Error", null, "Could not load animals", ""});
-        }
+        });
     }
 
     private void handleAdoptionRequest() {
@@ -143,17 +145,14 @@ public class AnimalAdoptionPanel extends JPanel {
         request.setRequestDate(Instant.now());
         request.setStatus("Pending"); 
 
-        try {
-            adoptionDAO.addRequest(request);
-            
+        writer.run(() -> { adoptionDAO.addRequest(request); return null; }, done -> {
             JOptionPane.showMessageDialog(this, 
                 "Adoption Request Submitted!\nYour request for animal " + animalId + " is now pending review.", 
                 "Request Submitted", 
                 JOptionPane.INFORMATION_MESSAGE);
-
-        } catch (SQLException e) {
+        }, e -> {
             e.printStackTrace();
             JOptionPane.showMessageDialog(this, "Failed to submit adoption request. Please try again.", "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
 }
\ No newline at end of file
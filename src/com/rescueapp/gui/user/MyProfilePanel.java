@@ -3,11 +3,11 @@ package com.rescueapp.gui.user;
 import com.rescueapp.core.User;
 import com.rescueapp.db.RescueAppDbConnector;
 import com.rescueapp.db.dao.RescueAppUserDAO;
+import com.rescueapp.gui.util.AsyncWriter;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
-import java.sql.SQLException;
 
 @SuppressWarnings("serial")
 public class MyProfilePanel extends JPanel {
@@ -20,6 +20,7 @@ public class MyProfilePanel extends JPanel {
     private JButton updateButton;
 
     private User loggedInUser;
+    private final AsyncWriter writer = new AsyncWriter(this);
     private RescueAppUserDAO userDAO;
 
     public MyProfilePanel(User user) {
@@ -131,9 +132,7 @@ public class MyProfilePanel extends JPanel {
         loggedInUser.setContact(newContact);
         // Role remains unchanged
 
-        try {
-            boolean success = userDAO.updateUser(loggedInUser); // Assumes updateUser handles all fields
-
+        writer.run(() -> userDAO.updateUser(loggedInUser), success -> { // Assumes updateUser handles all fields
             if (success) {
                 JOptionPane.showMessageDialog(this, "Profile updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
                 // Optionally update the Dashboard title if name changed
@@ -145,11 +144,11 @@ public class MyProfilePanel extends JPanel {
                 JOptionPane.showMessageDialog(this, "Failed to update profile.", "Update Failed", JOptionPane.ERROR_MESSAGE);
                  // Consider reloading original data if update failed
             }
-        } catch (SQLException ex) {
+        }, ex -> {
             ex.printStackTrace();
              JOptionPane.showMessageDialog(this, "Database error during update: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
              // Consider reloading original data if update failed
-        }
+        });
     }
 
     private JLabel createLabel(String text, Font font) {
@@ -1,22 +1,19 @@
 package com.rescueapp.gui.user;
 
+import com.rescueapp.RescueAppRuntime;
 import com.rescueapp.core.Report;
 import com.rescueapp.core.User;
 import com.rescueapp.db.RescueAppDbConnector;
 import com.rescueapp.db.dao.RescueAppNotificationDAO;
 import com.rescueapp.db.dao.RescueAppReportDAO;
-import com.rescueapp.db.dao.RescueAppUserDAO;
+import com.rescueapp.gui.util.AsyncWriter;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.sql.SQLException;
 import java.util.Date;
-import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 
 @SuppressWarnings("serial")
 public class ReportAnimalPanel extends JPanel {
@@ -28,11 +25,9 @@ public class ReportAnimalPanel extends JPanel {
     private JButton submitButton;
 
     private RescueAppReportDAO reportDAO;
-    private RescueAppUserDAO userDAO;
     private RescueAppNotificationDAO notificationDAO;
     private User loggedInUser;
-
-    private final ExecutorService notificationExecutor = Executors.newSingleThreadExecutor();
+    private final AsyncWriter writer = new AsyncWriter(this);
 
     public ReportAnimalPanel(User user) {
         super(new BorderLayout(10, 10));
@@ -41,7 +36,6 @@ public class ReportAnimalPanel extends JPanel {
         try {
             RescueAppDbConnector db = new RescueAppDbConnector();
             reportDAO = new RescueAppReportDAO(db);
-            userDAO = new RescueAppUserDAO(db);
             notificationDAO = new RescueAppNotificationDAO(db);
         } catch (Exception e) {
             e.printStackTrace();
@@ -127,7 +121,7 @@ public class ReportAnimalPanel extends JPanel {
             return;
         }
 
-        if (reportDAO == null || userDAO == null || notificationDAO == null) {
+        if (reportDAO == null || notificationDAO == null) {
             JOptionPane.showMessageDialog(this, "Database connection error.", "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
@@ -142,42 +136,31 @@ public class ReportAnimalPanel extends JPanel {
         report.setReporter(loggedInUser);
         report.setStatus("Open");
 
-        try {
-            reportDAO.addReport(report);
+        writer.run(() -> { reportDAO.addReport(report); return null; }, done -> {
             JOptionPane.showMessageDialog(this, "Report submitted successfully! NGOs will be notified.", "Report Submitted", JOptionPane.INFORMATION_MESSAGE);
             notifyAllNgos("New stray animal report: " + description.substring(0, Math.min(description.length(), 50)) + "...");
             descriptionArea.setText("");
             locationField.setText("");
             photoUrlField.setText("");
             urgencyComboBox.setSelectedIndex(0);
-        } catch (SQLException ex) {
+        }, ex -> {
             ex.printStackTrace();
             JOptionPane.showMessageDialog(this, "Failed to submit report. Please try again.", "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
 
     private void notifyAllNgos(String message) {
-        if (userDAO == null || notificationDAO == null || notificationExecutor.isShutdown()) {
-            System.err.println("Cannot send NGO notifications: DAO missing or executor shut down.");
+        if (notificationDAO == null || RescueAppRuntime.isShutdown()) {
+            System.err.println("Cannot send NGO notifications: DAO missing or application shutting down.");
             return;
         }
-        notificationExecutor.submit(() -> {
+        RescueAppRuntime.submit(RescueAppRuntime.Category.NOTIFICATION, () -> {
             try {
-                List<User> allUsers = userDAO.getAllUsers();
-                int count = 0;
-                for (User user : allUsers) {
-                    if (user.getRole().equalsIgnoreCase("NGO")) {
-                        try {
-                            notificationDAO.addNotification(user.getUserId(), message);
-                            count++;
-                        } catch (SQLException e) {
-                            System.err.println("Failed to send notification to NGO " + user.getUserId() + ": " + e.getMessage());
-                        }
-                    }
-                }
-                System.out.println("Sent report notification to " + count + " NGOs.");
+                // Single INSERT ... SELECT on the server; during a burst each NGO keeps one digest row with a count
+                int count = notificationDAO.addDigestNotificationToRole("NGO", RescueAppNotificationDAO.TYPE_NEW_REPORT, message);
+                System.out.println("Sent report notification digest to NGOs (" + count + " row(s) affected).");
             } catch (SQLException e) {
-                System.err.println("Failed to fetch users to notify NGOs: " + e.getMessage());
+                System.err.println("Failed to notify NGOs: " + e.getMessage());
             } catch (Exception e) {
                  System.err.println("Unexpected error notifying NGOs: " + e.getMessage());
                  e.printStackTrace();
@@ -185,25 +168,6 @@ public class ReportAnimalPanel extends JPanel {
         });
     }
 
-    /**
-     * Method to shut down the executor service. Called by the parent dashboard.
-     * THIS IS THE METHOD THAT WAS MISSING.
-     */
-    public void shutdownExecutor() {
-        if (notificationExecutor != null && !notificationExecutor.isShutdown()) {
-             System.out.println("ReportAnimalPanel: Shutting down notification executor...");
-            notificationExecutor.shutdown();
-             try {
-                 if (!notificationExecutor.awaitTermination(1, TimeUnit.SECONDS)) {
-                     notificationExecutor.shutdownNow();
-                 }
-             } catch (InterruptedException e) {
-                 notificationExecutor.shutdownNow();
-                 Thread.currentThread().interrupt(); // Re-interrupt thread
-             }
-        }
-    }
-
     // --- Helper methods for styling ---
      private JLabel createLabel(String text, Font font) {
         JLabel label = new JLabel(text);
@@ -5,11 +5,11 @@ import com.rescueapp.core.Volunteer; // Import Volunteer
 import com.rescueapp.db.RescueAppDbConnector;
 import com.rescueapp.db.dao.RescueAppUserDAO;
 import com.rescueapp.db.dao.RescueAppVolunteerDAO; // Import Volunteer DAO
+import com.rescueapp.gui.util.AsyncWriter;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
-import java.sql.SQLException;
 
 @SuppressWarnings("serial")
 public class UserProfilePanel extends JPanel {
@@ -23,6 +23,7 @@ public class UserProfilePanel extends JPanel {
     private JButton updateButton;
 
     private User loggedInUser;
+    private final AsyncWriter writer = new AsyncWriter(this);
     private RescueAppUserDAO userDAO;
     private RescueAppVolunteerDAO volunteerDAO; 
 
@@ -155,27 +156,29 @@ public class UserProfilePanel extends JPanel {
         }
 
         
-        try {
+        // The error to show, or null if both updates succeeded
+        writer.run(() -> {
             // Update common user details first
             boolean userSuccess = userDAO.updateUser(loggedInUser);
-
-            boolean volunteerSuccess = true; // Assume success if not a volunteer
+            if (!userSuccess) {
+                return "Could not update general profile info. User not found?";
+            }
             // If volunteer, update volunteer-specific details
-            if (loggedInUser instanceof Volunteer && volunteerDAO != null) {
-                volunteerSuccess = volunteerDAO.updateVolunteer((Volunteer) loggedInUser);
+            if (loggedInUser instanceof Volunteer && volunteerDAO != null
+                    && !volunteerDAO.updateVolunteer((Volunteer) loggedInUser)) {
+                return "Could not update volunteer-specific info.";
             }
-
-            if (userSuccess && volunteerSuccess) {
+            return null;
+        }, error -> {
+            if (error == null) {
                 JOptionPane.showMessageDialog(this, "Profile updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            } else if (!userSuccess) {
-                 JOptionPane.showMessageDialog(this, "Could not update general profile info. User not found?", "Error", JOptionPane.ERROR_MESSAGE);
-            } else { // !volunteerSuccess
-                 JOptionPane.showMessageDialog(this, "Could not update volunteer-specific info.", "Error", JOptionPane.ERROR_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(this, error, "Error", JOptionPane.ERROR_MESSAGE);
             }
-        } catch (SQLException ex) {
+        }, ex -> {
             ex.printStackTrace();
             JOptionPane.showMessageDialog(this, "Failed to update profile due to a database error.", "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
 
     
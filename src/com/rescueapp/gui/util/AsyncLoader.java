@@ -0,0 +1,102 @@
+package com.rescueapp.gui.util;
+
+import com.rescueapp.RescueAppRuntime;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Runs a panel's DAO query in the QUERY category of RescueAppRuntime and hands the result back
+ * on the EDT, so slow database links don't freeze the dashboard.
+ * Starting a new load cancels the one in flight, and results from a load that
+ * has been superseded are dropped even if its query could not be interrupted.
+ * Use one loader per table/list; load() and cancel() must be called on the EDT.
+ */
+public class AsyncLoader<T> {
+
+    /** A blocking query, typically a DAO call. */
+    public interface Query<T> {
+        T run() throws Exception;
+    }
+
+    private final JComponent owner;
+    private final JLabel indicator = new JLabel("Loading...");
+    private long generation = 0;  // EDT only
+    private Future<?> inFlight;   // EDT only
+
+    public AsyncLoader(JComponent owner) {
+        this.owner = owner;
+        indicator.setFont(new Font("Segoe UI", Font.ITALIC, 13));
+        indicator.setForeground(Color.GRAY);
+        indicator.setVisible(false);
+    }
+
+    /**
+     * Wraps a panel title so the loading indicator shows next to it.
+     * Add the returned component where the title used to go.
+     */
+    public JComponent decorate(JComponent title) {
+        JPanel header = new JPanel(new BorderLayout(10, 0));
+        header.setOpaque(false);
+        header.add(title, BorderLayout.WEST);
+        header.add(indicator, BorderLayout.EAST);
+        return header;
+    }
+
+    /**
+     * Starts a load, cancelling any load still in flight. Exactly one of the
+     * callbacks runs on the EDT, and only if no newer load has started since.
+     */
+    public void load(Query<T> query, Consumer<T> onSuccess, Consumer<Exception> onError) {
+        final long myGeneration = ++generation;
+        if (inFlight != null) {
+            inFlight.cancel(true);
+        }
+        setLoading(true);
+
+        inFlight = RescueAppRuntime.submit(RescueAppRuntime.Category.QUERY, () -> {
+            T result = null;
+            Exception failure = null;
+            try {
+                result = query.run();
+            } catch (Exception e) {
+                failure = e;
+            }
+            final T loaded = result;
+            final Exception error = failure;
+            SwingUtilities.invokeLater(() -> {
+                if (myGeneration != generation) {
+                    return; // a newer load has started; this result is stale
+                }
+                inFlight = null;
+                setLoading(false);
+                if (error != null) {
+                    onError.accept(error);
+                } else {
+                    onSuccess.accept(loaded);
+                }
+            });
+        });
+    }
+
+    /** Cancels the load in flight, if any, and discards its result. */
+    public void cancel() {
+        generation++;
+        if (inFlight != null) {
+            inFlight.cancel(true);
+            inFlight = null;
+        }
+        setLoading(false);
+    }
+
+    public boolean isLoading() {
+        return inFlight != null;
+    }
+
+    private void setLoading(boolean loading) {
+        indicator.setVisible(loading);
+        owner.setCursor(loading ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : null);
+    }
+}
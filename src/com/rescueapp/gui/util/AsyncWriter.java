@@ -0,0 +1,71 @@
+package com.rescueapp.gui.util;
+
+import com.rescueapp.RescueAppRuntime;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.function.Consumer;
+
+/**
+ * Runs a panel's inserts and updates in the WRITE category of RescueAppRuntime and hands the
+ * result back on the EDT, where the panel shows its dialogs and refreshes its table.
+ * Unlike AsyncLoader, a write is never cancelled once started: it may already have committed.
+ * Instead, while one write is running the owner shows a wait cursor and further writes from
+ * it are refused, so a double click can't submit the same change twice.
+ * Use one writer per panel or window; run() must be called on the EDT.
+ */
+public class AsyncWriter {
+
+    /** A blocking write, typically a DAO call or a db.inTransaction block. */
+    public interface Write<T> {
+        T run() throws Exception;
+    }
+
+    private final Component owner;
+    private boolean busy = false; // EDT only
+
+    public AsyncWriter(Component owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * Starts the write unless one is still running, in which case nothing happens and
+     * false is returned. Exactly one of the callbacks later runs on the EDT.
+     */
+    public <T> boolean run(Write<T> write, Consumer<T> onSuccess, Consumer<Exception> onError) {
+        if (busy) {
+            return false;
+        }
+        setBusy(true);
+
+        RescueAppRuntime.submit(RescueAppRuntime.Category.WRITE, () -> {
+            T result = null;
+            Exception failure = null;
+            try {
+                result = write.run();
+            } catch (Exception e) {
+                failure = e;
+            }
+            final T written = result;
+            final Exception error = failure;
+            SwingUtilities.invokeLater(() -> {
+                setBusy(false);
+                if (error != null) {
+                    onError.accept(error);
+                } else {
+                    onSuccess.accept(written);
+                }
+            });
+        });
+        return true;
+    }
+
+    public boolean isBusy() {
+        return busy;
+    }
+
+    private void setBusy(boolean running) {
+        busy = running;
+        owner.setCursor(running ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : null);
+    }
+}
@@ -0,0 +1,289 @@
+package com.rescueapp.gui.util;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps already-scaled thumbnails on disk so a restart doesn't have to download and
+ * rescale every photo again. Files live in ~/.rescueapp/thumbnails (override with the
+ * rescueapp.thumbnailDir system property), named by the SHA-256 of the image URL and
+ * stored as PNG. A file's last-modified time is bumped on every read, and when the
+ * directory grows past its cap the least recently used files are deleted.
+ * Each thumbnail can have a small ".meta" sidecar with the ETag / Last-Modified the
+ * server sent and when the copy was last checked, so it can be revalidated later.
+ * All methods do blocking file I/O: call them from a background thread.
+ */
+public class DiskThumbnailCache {
+
+    private static final String SUFFIX = ".png";
+    private static final String META_SUFFIX = ".meta";
+    private static final double PRUNE_TARGET = 0.8; // prune down to 80% of the cap
+
+    private final Path dir;
+    private final long maxBytes;
+    private final AtomicLong totalBytes = new AtomicLong(-1); // -1 until the directory has been scanned
+
+    /** HTTP validators stored next to a thumbnail. */
+    public static final class Validators {
+        private final String etag;
+        private final String lastModified;
+        private final long checkedAt;
+
+        Validators(String etag, String lastModified, long checkedAt) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.checkedAt = checkedAt;
+        }
+
+        public String getEtag() { return etag; }
+        public String getLastModified() { return lastModified; }
+        /** When the server last confirmed (or sent) this copy, in epoch millis. */
+        public long getCheckedAt() { return checkedAt; }
+        public boolean canRevalidate() { return etag != null || lastModified != null; }
+    }
+
+    public DiskThumbnailCache(Path dir, long maxBytes) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+    }
+
+    /** The default location, shared by all ImageRenderers. */
+    public static Path defaultDirectory() {
+        String override = System.getProperty("rescueapp.thumbnailDir");
+        if (override != null && !override.isBlank()) {
+            return Paths.get(override);
+        }
+        return Paths.get(System.getProperty("user.home"), ".rescueapp", "thumbnails");
+    }
+
+    /** Returns the stored thumbnail for the URL, or null if there is none (or it can't be read). */
+    public BufferedImage read(String url) {
+        Path file = fileFor(url);
+        if (!Files.isRegularFile(file)) return null;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // Thumbnails are a few KB: one read into a heap buffer is cheaper than mapping,
+            // and doesn't keep the file locked on Windows when pruning wants to delete it
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) { }
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(buffer.array(), 0, buffer.position()));
+            if (image == null) {
+                System.err.println("DiskThumbnailCache: unreadable entry, removing " + file.getFileName());
+                delete(file);
+                delete(metaFileFor(file));
+                return null;
+            }
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis())); // LRU bookkeeping
+            return image;
+        } catch (IOException e) {
+            System.err.println("DiskThumbnailCache: could not read " + file.getFileName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** Stores a thumbnail for the URL, replacing any previous one, then prunes if over the cap. */
+    public void write(String url, BufferedImage thumbnail) {
+        write(url, thumbnail, null, null);
+    }
+
+    /** Stores a thumbnail together with the ETag / Last-Modified it was served with (either may be null). */
+    public void write(String url, BufferedImage thumbnail, String etag, String lastModified) {
+        Path file = fileFor(url);
+        Path temp = null;
+        try {
+            Files.createDirectories(dir);
+            ensureScanned();
+            long previousSize = Files.isRegularFile(file) ? Files.size(file) : 0;
+
+            // Write to a temp file and move it into place so readers never see half a PNG
+            temp = Files.createTempFile(dir, "thumb", ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                ImageIO.write(thumbnail, "png", out);
+            }
+            long size = Files.size(temp);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            temp = null;
+            writeValidators(file, etag, lastModified);
+
+            if (totalBytes.addAndGet(size - previousSize) > maxBytes) {
+                prune();
+            }
+        } catch (IOException e) {
+            System.err.println("DiskThumbnailCache: could not store thumbnail for " + url + ": " + e.getMessage());
+        } finally {
+            if (temp != null) delete(temp);
+        }
+    }
+
+    /** Returns the validators stored with the URL's thumbnail, or null if there are none. */
+    public Validators readValidators(String url) {
+        Path meta = metaFileFor(fileFor(url));
+        if (!Files.isRegularFile(meta)) return null;
+
+        Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(meta)) {
+            props.load(in);
+        } catch (IOException e) {
+            System.err.println("DiskThumbnailCache: could not read " + meta.getFileName() + ": " + e.getMessage());
+            return null;
+        }
+        long checkedAt;
+        try {
+            checkedAt = Long.parseLong(props.getProperty("checkedAt", "0"));
+        } catch (NumberFormatException e) {
+            checkedAt = 0;
+        }
+        return new Validators(props.getProperty("etag"), props.getProperty("lastModified"), checkedAt);
+    }
+
+    /** Records that the server confirmed the stored copy is still current (a 304). */
+    public void markChecked(String url) {
+        Validators current = readValidators(url);
+        if (current == null) return;
+        try {
+            writeValidators(fileFor(url), current.etag, current.lastModified);
+        } catch (IOException e) {
+            System.err.println("DiskThumbnailCache: could not update validators for " + url + ": " + e.getMessage());
+        }
+    }
+
+    private void writeValidators(Path file, String etag, String lastModified) throws IOException {
+        Path meta = metaFileFor(file);
+        Properties props = new Properties();
+        if (etag != null) props.setProperty("etag", etag);
+        if (lastModified != null) props.setProperty("lastModified", lastModified);
+        props.setProperty("checkedAt", Long.toString(System.currentTimeMillis()));
+
+        Path temp = Files.createTempFile(dir, "meta", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                props.store(out, null);
+            }
+            Files.move(temp, meta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /** Deletes least recently used thumbnails until the directory is back under the prune target. */
+    public synchronized void prune() {
+        List<Path> files = listEntries();
+        long size = 0;
+        for (Path f : files) size += sizeOf(f);
+
+        long target = (long) (maxBytes * PRUNE_TARGET);
+        if (size > maxBytes) {
+            files.sort(Comparator.comparingLong(DiskThumbnailCache::lastModified));
+            int removed = 0;
+            for (Path f : files) {
+                if (size <= target) break;
+                long fileSize = sizeOf(f);
+                if (delete(f)) {
+                    delete(metaFileFor(f));
+                    size -= fileSize;
+                    removed++;
+                }
+            }
+            System.out.println("DiskThumbnailCache: pruned " + removed + " thumbnail(s), " + (size / 1024) + " KB left.");
+        }
+        totalBytes.set(size);
+    }
+
+    public long getSizeBytes() {
+        ensureScanned();
+        return totalBytes.get();
+    }
+
+    public long getMaxBytes() { return maxBytes; }
+
+    public Path getDirectory() { return dir; }
+
+    private void ensureScanned() {
+        if (totalBytes.get() >= 0) return;
+        synchronized (this) {
+            if (totalBytes.get() >= 0) return;
+            long size = 0;
+            for (Path f : listEntries()) size += sizeOf(f);
+            totalBytes.set(size);
+        }
+    }
+
+    private List<Path> listEntries() {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(dir)) return files;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+            for (Path f : stream) files.add(f);
+        } catch (IOException e) {
+            System.err.println("DiskThumbnailCache: could not list " + dir + ": " + e.getMessage());
+        }
+        return files;
+    }
+
+    Path fileFor(String url) {
+        return dir.resolve(sha256Hex(url) + SUFFIX);
+    }
+
+    private static Path metaFileFor(Path thumbnailFile) {
+        String name = thumbnailFile.getFileName().toString();
+        return thumbnailFile.resolveSibling(name.substring(0, name.length() - SUFFIX.length()) + META_SUFFIX);
+    }
+
+    private static String sha256Hex(String s) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(s.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e); // required on every JVM
+        }
+    }
+
+    private static long sizeOf(Path f) {
+        try {
+            return Files.size(f);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static long lastModified(Path f) {
+        try {
+            return Files.getLastModifiedTime(f).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static boolean delete(Path f) {
+        try {
+            return Files.deleteIfExists(f);
+        } catch (IOException e) {
+            System.err.println("DiskThumbnailCache: could not delete " + f.getFileName() + ": " + e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.rescueapp.gui.util;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Downloads image bytes for ImageRenderer over one shared java.net.http.HttpClient,
+ * so connections are kept alive and reused between thumbnails.
+ * - Requests are asynchronous; at most maxPerHost run against any one host at a time,
+ *   the rest wait in a per-host queue.
+ * - Concurrent requests for the same URL (and validators) share one download.
+ * - When the caller passes the ETag / Last-Modified it stored with a cached copy, the
+ *   request is sent as a conditional GET and a 304 comes back without a body.
+ */
+public class ImageFetcher {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(15);
+    private static final String USER_AGENT = "Mozilla/5.0"; // Some sites block the default Java user agent
+
+    /** Outcome of one fetch. The body is only present for 200 responses. */
+    public static final class Response {
+        private final int status;
+        private final byte[] body;
+        private final String etag;
+        private final String lastModified;
+
+        Response(int status, byte[] body, String etag, String lastModified) {
+            this.status = status;
+            this.body = body;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        public int getStatus() { return status; }
+        public byte[] getBody() { return body; }
+        public String getEtag() { return etag; }
+        public String getLastModified() { return lastModified; }
+        public boolean isOk() { return status == 200; }
+        public boolean isNotModified() { return status == 304; }
+    }
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private final HttpClient client;
+    private final int maxPerHost;
+    private final ConcurrentHashMap<String, CompletableFuture<Response>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, HostLimiter> hosts = new ConcurrentHashMap<>();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+
+    public ImageFetcher(int maxPerHost) {
+        this.maxPerHost = maxPerHost;
+        ExecutorService executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "rescueapp-http-" + THREAD_COUNT.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+    }
+
+    /**
+     * Fetches a URL. Pass the validators of a cached copy (either may be null) to make the
+     * request conditional. The future completes exceptionally on network errors only;
+     * HTTP error statuses come back as a Response.
+     */
+    public CompletableFuture<Response> fetch(String url, String etag, String lastModified) {
+        String key = url + '\n' + etag + '\n' + lastModified;
+        CompletableFuture<Response> mine = new CompletableFuture<>();
+        CompletableFuture<Response> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.increment();
+            return existing;
+        }
+
+        HttpRequest request;
+        String host;
+        try {
+            URI uri = URI.create(url);
+            host = uri.getHost() != null ? uri.getHost().toLowerCase() : "";
+            HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("User-Agent", USER_AGENT)
+                    .GET();
+            if (etag != null) builder.header("If-None-Match", etag);
+            if (lastModified != null) builder.header("If-Modified-Since", lastModified);
+            request = builder.build();
+        } catch (IllegalArgumentException e) {
+            inFlight.remove(key, mine);
+            mine.completeExceptionally(e);
+            return mine;
+        }
+
+        HostLimiter limiter = hosts.computeIfAbsent(host, h -> new HostLimiter(maxPerHost));
+        limiter.submit(() -> {
+            requests.increment();
+            client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                    .whenComplete((response, error) -> {
+                        limiter.release();
+                        inFlight.remove(key, mine);
+                        if (error != null) {
+                            mine.completeExceptionally(error);
+                            return;
+                        }
+                        if (response.statusCode() == 304) notModified.increment();
+                        mine.complete(new Response(
+                                response.statusCode(),
+                                response.statusCode() == 200 ? response.body() : null,
+                                response.headers().firstValue("ETag").orElse(null),
+                                response.headers().firstValue("Last-Modified").orElse(null)));
+                    });
+        });
+        return mine;
+    }
+
+    public long getRequestCount() { return requests.sum(); }
+    public long getCoalescedCount() { return coalesced.sum(); }
+    public long getNotModifiedCount() { return notModified.sum(); }
+
+    public String getStats() {
+        return String.format("Image fetcher: %d requests, %d coalesced, %d not modified, %d in flight",
+                getRequestCount(), getCoalescedCount(), getNotModifiedCount(), inFlight.size());
+    }
+
+    /** Runs at most 'max' requests at once against one host; the rest wait their turn in order. */
+    private static final class HostLimiter {
+        private final int max;
+        private final Deque<Runnable> waiting = new ArrayDeque<>();
+        private int active = 0;
+
+        HostLimiter(int max) {
+            this.max = max;
+        }
+
+        void submit(Runnable start) {
+            synchronized (this) {
+                if (active >= max) {
+                    waiting.addLast(start);
+                    return;
+                }
+                active++;
+            }
+            start.run();
+        }
+
+        void release() {
+            Runnable next;
+            synchronized (this) {
+                next = waiting.pollFirst();
+                if (next == null) {
+                    active--;
+                    return;
+                }
+            }
+            next.run(); // hands this slot straight to the next request
+        }
+    }
+}
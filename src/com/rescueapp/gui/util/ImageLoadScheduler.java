@@ -0,0 +1,231 @@
+package com.rescueapp.gui.util;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Schedules thumbnail loads for one JTable.
+ * - Rows that are on screen load first; the next few rows below the viewport are
+ *   prefetched at a lower priority so scrolling down finds them ready.
+ * - When the user scrolls, queued loads for rows that are neither visible nor in the
+ *   prefetch range are cancelled. Loads already running finish and are cached anyway.
+ * - When a load completes, only the cells currently showing that URL are repainted,
+ *   wherever the row has moved to; the table model is never touched.
+ * Workers only start loads (and read the disk cache); downloads run in the Loader's own
+ * async client, so a slow host doesn't hold up the queue.
+ * All methods except the worker body run on the EDT.
+ */
+public class ImageLoadScheduler {
+
+    /**
+     * Starts a thumbnail load. The future yields null if the image could not be loaded;
+     * network work should complete it asynchronously rather than block the worker.
+     */
+    public interface Loader {
+        CompletableFuture<Icon> load(String url);
+    }
+
+    private static final int PRIORITY_VISIBLE = 0;
+    private static final int PRIORITY_PREFETCH = 1;
+    private static final int WORKER_THREADS = 3;
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+    // Shared by all tables; ordered by priority, then first come first served
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(
+            WORKER_THREADS, WORKER_THREADS, 30, TimeUnit.SECONDS, new PriorityBlockingQueue<>(),
+            r -> {
+                Thread t = new Thread(r, "rescueapp-image-" + THREAD_COUNT.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+
+    static {
+        EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    private final JTable table;
+    private final ThumbnailCache cache;
+    private final Loader loader;
+    private final int prefetchRows;
+    private final Set<Integer> imageColumns = new HashSet<>(); // view columns rendered with images
+    private final Map<String, LoadTask> pending = new HashMap<>();
+    private boolean viewportHooked = false;
+
+    public ImageLoadScheduler(JTable table, ThumbnailCache cache, Loader loader, int prefetchRows) {
+        this.table = table;
+        this.cache = cache;
+        this.loader = loader;
+        this.prefetchRows = prefetchRows;
+    }
+
+    /** Called by the renderer for a visible cell whose image is not cached yet. */
+    public void requestVisible(String url, int column) {
+        imageColumns.add(column);
+        hookViewport();
+
+        LoadTask task = pending.get(url);
+        if (task != null) {
+            if (task.priority == PRIORITY_VISIBLE || task.started) return;
+            task.cancelled = true; // re-queue ahead of the prefetch backlog
+        }
+        enqueue(url, PRIORITY_VISIBLE);
+        schedulePrefetch();
+    }
+
+    public boolean isPending(String url) {
+        return pending.containsKey(url);
+    }
+
+    private void enqueue(String url, int priority) {
+        LoadTask task = new LoadTask(url, priority);
+        pending.put(url, task);
+        EXECUTOR.execute(task);
+    }
+
+    private void hookViewport() {
+        if (viewportHooked) return;
+        Container parent = table.getParent();
+        if (parent instanceof JViewport) {
+            ((JViewport) parent).addChangeListener(e -> onViewportChanged());
+            viewportHooked = true;
+        }
+    }
+
+    /** Cancels queued loads that scrolled out of range and prefetches below the new viewport. */
+    private void onViewportChanged() {
+        RowRange range = visibleRows();
+        if (range == null) return;
+
+        Set<String> wanted = urlsIn(range.first, Math.min(table.getRowCount() - 1, range.last + prefetchRows));
+        Iterator<Map.Entry<String, LoadTask>> it = pending.entrySet().iterator();
+        while (it.hasNext()) {
+            LoadTask task = it.next().getValue();
+            if (!task.started && !wanted.contains(task.url)) {
+                task.cancelled = true;
+                it.remove();
+            }
+        }
+        schedulePrefetch();
+    }
+
+    private void schedulePrefetch() {
+        if (prefetchRows <= 0) return;
+        RowRange range = visibleRows();
+        if (range == null) return;
+
+        int from = range.last + 1;
+        int to = Math.min(table.getRowCount() - 1, range.last + prefetchRows);
+        for (String url : urlsIn(from, to)) {
+            if (!pending.containsKey(url) && !cache.isCached(url) && !cache.isFailed(url)) {
+                enqueue(url, PRIORITY_PREFETCH);
+            }
+        }
+    }
+
+    private Set<String> urlsIn(int fromRow, int toRow) {
+        Set<String> urls = new HashSet<>();
+        for (int row = Math.max(0, fromRow); row <= toRow; row++) {
+            for (int column : imageColumns) {
+                if (column >= table.getColumnCount()) continue;
+                Object value = table.getValueAt(row, column);
+                if (value instanceof String && !((String) value).trim().isEmpty()) {
+                    urls.add((String) value);
+                }
+            }
+        }
+        return urls;
+    }
+
+    private RowRange visibleRows() {
+        if (table.getRowCount() == 0) return null;
+        Rectangle visible = table.getVisibleRect();
+        int first = table.rowAtPoint(new Point(0, visible.y));
+        int last = table.rowAtPoint(new Point(0, visible.y + visible.height - 1));
+        if (first < 0) first = 0;
+        if (last < 0) last = table.getRowCount() - 1;
+        return new RowRange(first, last);
+    }
+
+    private void finished(LoadTask task, Icon icon) {
+        if (icon != null) {
+            cache.put(task.url, icon);
+        } else {
+            cache.putFailure(task.url);
+        }
+        pending.remove(task.url, task);
+        repaintCellsShowing(task.url);
+    }
+
+    /** Repaints the visible cells whose value is the URL, by their current position. */
+    private void repaintCellsShowing(String url) {
+        RowRange range = visibleRows();
+        if (range == null) return;
+        for (int row = range.first; row <= range.last; row++) {
+            for (int column : imageColumns) {
+                if (column < table.getColumnCount() && url.equals(table.getValueAt(row, column))) {
+                    table.repaint(table.getCellRect(row, column, false));
+                }
+            }
+        }
+    }
+
+    private static final class RowRange {
+        final int first;
+        final int last;
+
+        RowRange(int first, int last) {
+            this.first = first;
+            this.last = last;
+        }
+    }
+
+    private final class LoadTask implements Runnable, Comparable<LoadTask> {
+        final String url;
+        final int priority;
+        final long sequence = SEQUENCE.incrementAndGet();
+        volatile boolean cancelled = false;
+        volatile boolean started = false;
+
+        LoadTask(String url, int priority) {
+            this.url = url;
+            this.priority = priority;
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) return;
+            started = true;
+            CompletableFuture<Icon> load;
+            try {
+                load = loader.load(url);
+            } catch (RuntimeException e) {
+                load = CompletableFuture.failedFuture(e);
+            }
+            load.whenComplete((icon, error) -> {
+                if (error != null) {
+                    System.err.println("ImageLoadScheduler: load failed for " + url + ": " + error.getMessage());
+                }
+                final Icon result = (error == null) ? icon : null;
+                SwingUtilities.invokeLater(() -> finished(this, result));
+            });
+        }
+
+        @Override
+        public int compareTo(LoadTask other) {
+            if (priority != other.priority) return Integer.compare(priority, other.priority);
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
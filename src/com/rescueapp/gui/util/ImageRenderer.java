@@ -1,35 +1,51 @@
 package com.rescueapp.gui.util;
 
-import javax.imageio.ImageIO; // Use ImageIO for better format support
 import javax.swing.*;
 import javax.swing.table.DefaultTableCellRenderer;
 import java.awt.*;
 import java.awt.image.BufferedImage; // Use BufferedImage
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ExecutionException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * A custom TableCellRenderer that loads images from URLs in a background thread
- * (SwingWorker) to avoid freezing the UI. It caches images and handles errors.
+ * A custom TableCellRenderer that loads images from URLs in the background to avoid
+ * freezing the UI. Each table gets an ImageLoadScheduler that loads visible rows first,
+ * prefetches a few rows ahead and drops loads for rows scrolled away. Thumbnails are
+ * kept in a size-bounded ThumbnailCache shared by every table, and failed URLs are
+ * retried after a backoff. Downloads go through a shared ImageFetcher.
  */
 @SuppressWarnings("serial")
 public class ImageRenderer extends DefaultTableCellRenderer {
 
+    private static final long CACHE_MAX_BYTES = 32L * 1024 * 1024; // decoded pixels, roughly 800 thumbnails at 100x90
     // Cache to store loaded images (using Icon for flexibility)
-    private static final Map<String, Icon> imageCache = new HashMap<>();
-    // Set to track which URLs are currently being loaded
-    private static final Set<String> loadingUrls = new HashSet<>();
+    private static final ThumbnailCache imageCache = new ThumbnailCache(CACHE_MAX_BYTES);
+    private static final long DISK_CACHE_MAX_BYTES = 64L * 1024 * 1024;
+    // Scaled thumbnails survive restarts here, so a warm start needs no network access
+    private static final DiskThumbnailCache diskCache =
+            new DiskThumbnailCache(DiskThumbnailCache.defaultDirectory(), DISK_CACHE_MAX_BYTES);
+    private static final long REVALIDATE_AFTER_MS = 24L * 60 * 60 * 1000; // check stored copies with the server once a day
+    private static final int MAX_REQUESTS_PER_HOST = 4;
+    // One keep-alive HTTP client for all thumbnails; concurrent loads of the same URL share a download
+    private static final ImageFetcher fetcher = new ImageFetcher(MAX_REQUESTS_PER_HOST);
+    private static final int TARGET_HEIGHT = 90; // Target height for the image icon
+    private static final int DEFAULT_PREFETCH_ROWS = 10;
+    private static final String SCHEDULER_KEY = "rescueapp.imageLoadScheduler";
     // Placeholder Icon while loading
     private static final Icon LOADING_ICON = UIManager.getIcon("OptionPane.informationIcon"); // Or create a custom small loading icon
     // Placeholder Icon for failed loads
     private static final Icon ERROR_ICON = UIManager.getIcon("OptionPane.errorIcon"); // Or create a custom error icon
 
+    private final int prefetchRows;
+
     public ImageRenderer() {
+        this(DEFAULT_PREFETCH_ROWS);
+    }
+
+    /** @param prefetchRows how many rows below the viewport to load ahead of scrolling */
+    public ImageRenderer(int prefetchRows) {
+        this.prefetchRows = prefetchRows;
         setHorizontalAlignment(CENTER);
         setVerticalAlignment(CENTER); // Center vertically too
     }
@@ -53,142 +69,103 @@ public class ImageRenderer extends DefaultTableCellRenderer {
         }
 
         // --- Image Loading and Caching ---
-        if (imageCache.containsKey(imageUrl)) {
+        Icon cachedIcon = imageCache.get(imageUrl);
+        if (cachedIcon != null) {
             // 1. Image found in cache
-            Icon cachedIcon = imageCache.get(imageUrl);
-            if (cachedIcon != null) {
-                label.setIcon(cachedIcon); // Use cached image
-            } else {
-                label.setText("Error"); // URL was previously tried and failed
-                label.setIcon(ERROR_ICON);
-            }
-        } else if (loadingUrls.contains(imageUrl)) {
-            // 2. Image is currently loading
-            label.setText("Loading...");
-            label.setIcon(LOADING_ICON);
+            label.setIcon(cachedIcon); // Use cached image
+        } else if (imageCache.isFailed(imageUrl)) {
+            label.setText("Error"); // URL failed recently; retried once its backoff expires
+            label.setIcon(ERROR_ICON);
         } else {
-            // 3. Start loading the image
+            // 2. Loading, or queue it now: this cell is on screen, so it goes ahead of prefetches
             label.setText("Loading...");
             label.setIcon(LOADING_ICON);
-            loadingUrls.add(imageUrl); // Mark as loading
-
-            // Use SwingWorker to load in the background
-            ImageLoader worker = new ImageLoader(table, imageUrl, row, column);
-            worker.execute();
+            schedulerFor(table).requestVisible(imageUrl, column);
         }
 
         return label;
     }
 
+    private ImageLoadScheduler schedulerFor(JTable table) {
+        ImageLoadScheduler scheduler = (ImageLoadScheduler) table.getClientProperty(SCHEDULER_KEY);
+        if (scheduler == null) {
+            scheduler = new ImageLoadScheduler(table, imageCache, ImageRenderer::loadThumbnail, prefetchRows);
+            table.putClientProperty(SCHEDULER_KEY, scheduler);
+        }
+        return scheduler;
+    }
+
+    /** Hit/miss/eviction counters of the shared thumbnail cache, e.g. for logging. */
+    public static String getCacheStats() {
+        return imageCache.getStats();
+    }
+
+    /** Request counters of the shared image fetcher. */
+    public static String getFetcherStats() {
+        return fetcher.getStats();
+    }
+
     /**
-     * SwingWorker to load and scale an image in a background thread.
+     * Loads one thumbnail. A fresh copy in the disk cache is used as is; an older one is
+     * revalidated with a conditional request and reused on 304 (or if the server can't be
+     * reached). Otherwise the image is downloaded, scaled and stored. Runs off the EDT.
+     * Package-private for DiskThumbnailCacheCheck under bench/.
      */
-    private static class ImageLoader extends SwingWorker<Icon, Void> {
-        private final JTable table;
-        private final String urlString;
-        private final int targetHeight = 90; // Target height for the image icon
-        private final int row;
-        private final int col;
-
-
-        public ImageLoader(JTable table, String url, int row, int col) {
-            this.table = table;
-            this.urlString = url;
-            this.row = row;
-            this.col = col;
+    static CompletableFuture<Icon> loadThumbnail(String urlString) {
+        System.out.println("ImageLoader: Starting load for URL: " + urlString); // Logging
+        BufferedImage stored = diskCache.read(urlString);
+        DiskThumbnailCache.Validators validators = (stored != null) ? diskCache.readValidators(urlString) : null;
+        if (stored != null && !needsRevalidation(validators)) {
+            return CompletableFuture.completedFuture(new ImageIcon(stored)); // Already scaled on a previous run
         }
 
-        @Override
-        protected Icon doInBackground() throws Exception {
-            System.out.println("ImageLoader: Starting load for URL: " + urlString); // Logging
-            URL url = null;
-            try {
-                // Ensure URL includes protocol
-                String correctedUrl = urlString;
-                if (!urlString.toLowerCase().startsWith("http://") && !urlString.toLowerCase().startsWith("https://")) {
-                    correctedUrl = "http://" + urlString; // Attempt adding http://
-                    System.out.println("ImageLoader: Corrected URL to: " + correctedUrl);
-                }
-                url = new URL(correctedUrl);
-
-                // --- Use HttpURLConnection for more control ---
-                HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-                conn.setRequestProperty("User-Agent", "Mozilla/5.0"); // Some sites block default Java user agent
-                conn.setConnectTimeout(5000); // 5 second timeout
-                conn.setReadTimeout(10000); // 10 second timeout
-                conn.connect();
-
-                int responseCode = conn.getResponseCode();
-                System.out.println("ImageLoader: Response code for " + correctedUrl + ": " + responseCode); // Logging
-
-                if (responseCode == HttpURLConnection.HTTP_OK) {
-                    BufferedImage originalImage = ImageIO.read(conn.getInputStream());
-                    conn.getInputStream().close(); // Close stream
-
-                    if (originalImage != null) {
-                        System.out.println("ImageLoader: Image read successfully for: " + correctedUrl); // Logging
-                        // --- Scaling Logic ---
-                        int originalWidth = originalImage.getWidth();
-                        int originalHeight = originalImage.getHeight();
-                        int newWidth = (originalWidth * targetHeight) / originalHeight; // Maintain aspect ratio
-
-                        Image scaledImage = originalImage.getScaledInstance(newWidth, targetHeight, Image.SCALE_SMOOTH);
-                        return new ImageIcon(scaledImage);
-                    } else {
-                         System.err.println("ImageLoader: ImageIO.read returned null for: " + correctedUrl); // Logging
-                        return null; // Image format not supported or invalid
-                    }
-                } else {
-                     System.err.println("ImageLoader: HTTP error " + responseCode + " for URL: " + correctedUrl); // Logging
-                    return null; // HTTP error
-                }
-            } catch (Exception e) {
-                System.err.println("ImageLoader: Exception loading image [" + urlString + "]: " + e.getMessage()); // Logging with original URL
-                // e.printStackTrace(); // Optional: Print full stack trace
-                return null; // Return null on any error
-            } finally{
-                // Ensure connection is closed if opened
-            }
+        // Ensure URL includes protocol
+        String correctedUrl = urlString;
+        if (!urlString.toLowerCase().startsWith("http://") && !urlString.toLowerCase().startsWith("https://")) {
+            correctedUrl = "http://" + urlString; // Attempt adding http://
+            System.out.println("ImageLoader: Corrected URL to: " + correctedUrl);
         }
+        final String target = correctedUrl;
+        String etag = (validators != null) ? validators.getEtag() : null;
+        String lastModified = (validators != null) ? validators.getLastModified() : null;
+
+        return fetcher.fetch(target, etag, lastModified).handle((response, error) -> {
+            Icon fallback = (stored != null) ? new ImageIcon(stored) : null; // stale beats broken
+            if (error != null) {
+                System.err.println("ImageLoader: Exception loading image [" + urlString + "]: " + error.getMessage()); // Logging with original URL
+                return fallback;
+            }
+            System.out.println("ImageLoader: Response code for " + target + ": " + response.getStatus()); // Logging
 
-        @Override
-        protected void done() {
-            Icon loadedIcon = null;
+            if (response.isNotModified() && stored != null) {
+                diskCache.markChecked(urlString);
+                return fallback;
+            }
+            if (!response.isOk()) {
+                System.err.println("ImageLoader: HTTP error " + response.getStatus() + " for URL: " + target); // Logging
+                return fallback;
+            }
             try {
-                loadedIcon = get(); // Get the result from doInBackground
-                if (loadedIcon != null) {
-                    System.out.println("ImageLoader: Successfully loaded and scaled: " + urlString); // Logging
-                    imageCache.put(urlString, loadedIcon); // Cache the successful result
-                } else {
-                     System.err.println("ImageLoader: Failed to get icon after loading (returned null): " + urlString); // Logging
-                    imageCache.put(urlString, null); // Cache failure (null) so we don't retry constantly
-                }
-            } catch (InterruptedException e) {
-                 System.err.println("ImageLoader: Loading interrupted for: " + urlString); // Logging
-                 imageCache.put(urlString, null); // Cache failure
-                 Thread.currentThread().interrupt(); // Re-set interrupt flag
-            } catch (ExecutionException e) {
-                 System.err.println("ImageLoader: Execution exception for: " + urlString); // Logging
-                 e.printStackTrace(); // Show the underlying cause
-                 imageCache.put(urlString, null); // Cache failure
-            } finally {
-                loadingUrls.remove(urlString); // No longer loading this URL
-
-                // --- Crucial: Update the specific cell in the table on the EDT ---
-                // Check if the row is still visible before repainting
-                if (row < table.getRowCount()) {
-                    // More targeted update:
-                     SwingUtilities.invokeLater(() -> {
-                          if (row < table.getRowCount() && col < table.getColumnCount()) {
-                              System.out.println("ImageLoader: Triggering repaint for cell [" + row + "," + col + "]"); // Logging
-                              table.getModel().setValueAt(urlString, row, col); // Force model update for the cell
-                              // table.repaint(table.getCellRect(row, col, false)); // Can also try repaint
-                          }
-                     });
-                } else {
-                     System.out.println("ImageLoader: Row " + row + " is no longer valid, skipping repaint."); // Logging
+                // Decodes only the pixels a 90px thumbnail needs, then scales down progressively
+                BufferedImage scaledImage = ThumbnailDecoder.decode(new ByteArrayInputStream(response.getBody()), TARGET_HEIGHT);
+                if (scaledImage == null) {
+                    System.err.println("ImageLoader: no image reader for data from: " + target); // Logging
+                    return fallback; // Image format not supported or invalid
                 }
+                System.out.println("ImageLoader: Image read successfully for: " + target); // Logging
+                diskCache.write(urlString, scaledImage, response.getEtag(), response.getLastModified());
+                return new ImageIcon(scaledImage);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("ImageLoader: Exception decoding image [" + urlString + "]: " + e.getMessage());
+                return fallback;
             }
-        }
+        });
+    }
+
+    /** Copies without validators were stored before revalidation existed, or by servers that send none. */
+    private static boolean needsRevalidation(DiskThumbnailCache.Validators validators) {
+        return validators != null
+                && validators.canRevalidate()
+                && System.currentTimeMillis() - validators.getCheckedAt() > REVALIDATE_AFTER_MS;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,144 @@
+package com.rescueapp.gui.util;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A read-only table model that pulls rows from the database one page at a time.
+ * The first page is fetched by reload(); further pages are fetched in the background
+ * when the table asks for a row near the end of what has been loaded, i.e. as the
+ * user scrolls down. Pages are fetched through the panel's AsyncLoader, so a reload
+ * cancels any page fetch still in flight.
+ *
+ * Subclasses map a row object to its column values, like the anonymous
+ * DefaultTableModel subclasses in the panels.
+ */
+@SuppressWarnings("serial")
+public abstract class PagedTableModel<T> extends AbstractTableModel {
+
+    /** Fetches up to 'limit' rows that come after 'after' (null for the first page). */
+    public interface PageSource<T> {
+        List<T> fetchPage(T after, int limit) throws Exception;
+    }
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    private final String[] columns;
+    private final PageSource<T> source;
+    private final AsyncLoader<List<T>> loader;
+    private final int pageSize;
+    private final int prefetchRows;
+
+    private final List<T> rows = new ArrayList<>();
+    private boolean hasMore = false;
+    private boolean fetchScheduled = false;
+
+    public PagedTableModel(String[] columns, PageSource<T> source, AsyncLoader<List<T>> loader) {
+        this(columns, source, loader, DEFAULT_PAGE_SIZE);
+    }
+
+    public PagedTableModel(String[] columns, PageSource<T> source, AsyncLoader<List<T>> loader, int pageSize) {
+        this.columns = columns;
+        this.source = source;
+        this.loader = loader;
+        this.pageSize = pageSize;
+        this.prefetchRows = Math.max(1, pageSize / 4);
+    }
+
+    /** Returns the value shown in the given column for a row object. */
+    protected abstract Object getColumnValue(T row, int column);
+
+    /** Drops every loaded row and fetches the first page again. */
+    public void reload() {
+        int oldSize = rows.size();
+        rows.clear();
+        hasMore = false;
+        fetchScheduled = false;
+        if (oldSize > 0) {
+            fireTableRowsDeleted(0, oldSize - 1);
+        }
+        fetch(null);
+    }
+
+    /** The row object behind a table row, e.g. for the current selection. */
+    public T getRow(int rowIndex) {
+        return rows.get(rowIndex);
+    }
+
+    /**
+     * Applies a change to the row objects at the given model indexes in place and
+     * repaints them with one event, instead of a reload().
+     */
+    public void updateRows(int[] rowIndexes, Consumer<T> change) {
+        if (rowIndexes.length == 0) return;
+        int first = Integer.MAX_VALUE;
+        int last = -1;
+        for (int i : rowIndexes) {
+            change.accept(rows.get(i));
+            first = Math.min(first, i);
+            last = Math.max(last, i);
+        }
+        fireTableRowsUpdated(first, last);
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        if (hasMore && !fetchScheduled && rowIndex >= rows.size() - prefetchRows) {
+            // Called while painting: start the fetch once the current paint is done
+            fetchScheduled = true;
+            SwingUtilities.invokeLater(this::fetchNextPage);
+        }
+        return getColumnValue(rows.get(rowIndex), columnIndex);
+    }
+
+    private void fetchNextPage() {
+        if (!hasMore || loader.isLoading()) {
+            fetchScheduled = false;
+            return;
+        }
+        fetch(rows.get(rows.size() - 1));
+    }
+
+    private void fetch(T after) {
+        loader.load(() -> source.fetchPage(after, pageSize), page -> {
+            int first = rows.size();
+            rows.addAll(page);
+            hasMore = page.size() == pageSize;
+            fetchScheduled = false;
+            if (!page.isEmpty()) {
+                fireTableRowsInserted(first, rows.size() - 1);
+            }
+        }, e -> {
+            e.printStackTrace();
+            hasMore = false; // stop retrying on every repaint; reload() starts over
+            fetchScheduled = false;
+        });
+    }
+}
@@ -0,0 +1,57 @@
+package com.rescueapp.gui.util;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableModel;
+import java.util.List;
+import java.util.Vector;
+
+/**
+ * Helpers for acting on several selected rows at once.
+ */
+public final class TableRows {
+
+    private TableRows() { }
+
+    /** The selected rows as model indexes (they differ from view indexes once a table is sorted). */
+    public static int[] selectedModelRows(JTable table) {
+        int[] rows = table.getSelectedRows();
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = table.convertRowIndexToModel(rows[i]);
+        }
+        return rows;
+    }
+
+    /**
+     * Sets one column of the given model rows to the same value and repaints them with
+     * a single event, where setValueAt() would fire one event per cell.
+     */
+    @SuppressWarnings("unchecked")
+    public static void setColumn(DefaultTableModel model, int[] modelRows, int column, Object value) {
+        if (modelRows.length == 0) return;
+        Vector<Vector<Object>> data = (Vector<Vector<Object>>) (Vector<?>) model.getDataVector();
+        int first = Integer.MAX_VALUE;
+        int last = -1;
+        for (int row : modelRows) {
+            data.get(row).set(column, value);
+            first = Math.min(first, row);
+            last = Math.max(last, row);
+        }
+        model.fireTableRowsUpdated(first, last);
+    }
+
+    /**
+     * True if the given model rows still hold the given ids in idColumn. Rows captured before
+     * a background write may have moved if the table was reloaded while the write ran.
+     */
+    public static boolean stillAt(TableModel model, int[] modelRows, int idColumn, List<String> ids) {
+        if (modelRows.length != ids.size()) return false;
+        for (int i = 0; i < modelRows.length; i++) {
+            int row = modelRows[i];
+            if (row >= model.getRowCount() || !ids.get(i).equals(model.getValueAt(row, idColumn))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
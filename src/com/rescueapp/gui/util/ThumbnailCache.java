@@ -0,0 +1,163 @@
+package com.rescueapp.gui.util;
+
+import javax.swing.*;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-memory cache of decoded thumbnails, keyed by image URL.
+ * Strongly held icons are bounded by their estimated pixel bytes (width * height * 4)
+ * and evicted least-recently-used first. Evicted icons are kept behind soft references,
+ * so they can still be reused until the GC needs the memory.
+ * URLs that failed to load are remembered for a while, with the retry delay doubling
+ * on each further failure, instead of being marked as broken for the life of the JVM.
+ * At most MAX_FAILURES failed URLs are remembered.
+ */
+public class ThumbnailCache {
+
+    private static final long FAILURE_BASE_DELAY_MS = 30_000;
+    private static final long FAILURE_MAX_DELAY_MS = 30 * 60_000;
+    private static final int MAX_FAILURES = 1000;
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, Icon> icons = new LinkedHashMap<>(64, 0.75f, true); // access order = LRU
+    private final Map<String, SoftIcon> softIcons = new HashMap<>();
+    private final ReferenceQueue<Icon> clearedIcons = new ReferenceQueue<>();
+    // Least-recently-used failed URLs are forgotten beyond MAX_FAILURES; forgetting one only means an earlier retry
+    private final Map<String, Failure> failures = new LinkedHashMap<String, Failure>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Failure> eldest) {
+            return size() > MAX_FAILURES;
+        }
+    };
+    private long currentBytes = 0;
+
+    private long hits;
+    private long softHits;
+    private long misses;
+    private long evictions;
+
+    public ThumbnailCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /** Returns the cached icon for the URL, or null on a miss. */
+    public synchronized Icon get(String url) {
+        Icon icon = icons.get(url);
+        if (icon != null) {
+            hits++;
+            return icon;
+        }
+
+        expungeClearedIcons();
+        SoftIcon soft = softIcons.remove(url);
+        icon = (soft != null) ? soft.get() : null;
+        if (icon != null) {
+            softHits++;
+            store(url, icon); // recently used again: hold it strongly
+            return icon;
+        }
+        misses++;
+        return null;
+    }
+
+    /** True if an icon for the URL is held strongly; unlike get(), doesn't count or reorder anything. */
+    public synchronized boolean isCached(String url) {
+        return icons.containsKey(url);
+    }
+
+    public synchronized void put(String url, Icon icon) {
+        failures.remove(url);
+        softIcons.remove(url);
+        Icon previous = icons.remove(url);
+        if (previous != null) {
+            currentBytes -= estimateBytes(previous);
+        }
+        store(url, icon);
+    }
+
+    private void store(String url, Icon icon) {
+        icons.put(url, icon);
+        currentBytes += estimateBytes(icon);
+        evictOverflow(url);
+    }
+
+    private void evictOverflow(String keep) {
+        Iterator<Map.Entry<String, Icon>> it = icons.entrySet().iterator();
+        while (currentBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Icon> eldest = it.next();
+            if (eldest.getKey().equals(keep)) continue; // never evict what was just added
+            it.remove();
+            currentBytes -= estimateBytes(eldest.getValue());
+            evictions++;
+            softIcons.put(eldest.getKey(), new SoftIcon(eldest.getKey(), eldest.getValue(), clearedIcons));
+        }
+    }
+
+    /** Drops soft entries whose icons the GC has already reclaimed. */
+    private void expungeClearedIcons() {
+        SoftIcon cleared;
+        while ((cleared = (SoftIcon) clearedIcons.poll()) != null) {
+            softIcons.remove(cleared.url, cleared);
+        }
+    }
+
+    /** Records a failed load. The URL is not retried until the backoff delay has passed. */
+    public synchronized void putFailure(String url) {
+        Failure failure = failures.computeIfAbsent(url, k -> new Failure());
+        failure.attempts++;
+        long delay = FAILURE_BASE_DELAY_MS << Math.min(failure.attempts - 1, 16);
+        failure.retryAt = System.currentTimeMillis() + Math.min(delay, FAILURE_MAX_DELAY_MS);
+    }
+
+    /** True if the URL failed recently and should be shown as broken rather than retried. */
+    public synchronized boolean isFailed(String url) {
+        Failure failure = failures.get(url);
+        return failure != null && System.currentTimeMillis() < failure.retryAt;
+    }
+
+    public synchronized void clear() {
+        icons.clear();
+        softIcons.clear();
+        failures.clear();
+        currentBytes = 0;
+    }
+
+    public synchronized long getHits() { return hits + softHits; }
+    public synchronized long getSoftHits() { return softHits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized long getEvictions() { return evictions; }
+    public synchronized long getSizeBytes() { return currentBytes; }
+    public long getMaxBytes() { return maxBytes; }
+
+    public synchronized String getStats() {
+        long allHits = hits + softHits;
+        long total = allHits + misses;
+        double rate = total == 0 ? 0.0 : (100.0 * allHits / total);
+        return String.format("Thumbnail cache: %d icons, %d/%d KB, %d hits (%d soft), %d misses (%.1f%% hit rate), %d evictions, %d failed URLs",
+                icons.size(), currentBytes / 1024, maxBytes / 1024, allHits, softHits, misses, rate, evictions, failures.size());
+    }
+
+    /** Decoded ARGB size of an icon, which is what it really costs on the heap. */
+    static long estimateBytes(Icon icon) {
+        return Math.max(1, icon.getIconWidth()) * (long) Math.max(1, icon.getIconHeight()) * 4;
+    }
+
+    private static final class SoftIcon extends SoftReference<Icon> {
+        final String url;
+
+        SoftIcon(String url, Icon icon, ReferenceQueue<Icon> queue) {
+            super(icon, queue);
+            this.url = url;
+        }
+    }
+
+    private static final class Failure {
+        int attempts;
+        long retryAt;
+    }
+}
@@ -0,0 +1,93 @@
+package com.rescueapp.gui.util;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+/**
+ * Turns an encoded photo into a small thumbnail without decoding the full-size raster.
+ * The reader is asked to subsample while decoding (keeping about twice the target size
+ * for quality), and the result is then halved with bilinear filtering until the last
+ * step lands on the target height. Output images are in a display-compatible format,
+ * so painting them doesn't need a conversion on every repaint.
+ */
+public final class ThumbnailDecoder {
+
+    private ThumbnailDecoder() { }
+
+    /**
+     * Decodes and scales an image to the given height, keeping the aspect ratio.
+     * Returns null if no installed ImageReader understands the data (like ImageIO.read).
+     */
+    public static BufferedImage decode(InputStream in, int targetHeight) throws IOException {
+        try (ImageInputStream iis = ImageIO.createImageInputStream(in)) {
+            if (iis == null) return null;
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+            if (!readers.hasNext()) return null;
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                int sourceHeight = reader.getHeight(0);
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = subsamplingFor(sourceHeight, targetHeight);
+                if (step > 1) {
+                    param.setSourceSubsampling(step, step, 0, 0);
+                }
+                BufferedImage decoded = reader.read(0, param);
+                return scaleToHeight(decoded, targetHeight);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /** Largest whole subsampling step that still leaves at least twice the target height. */
+    static int subsamplingFor(int sourceHeight, int targetHeight) {
+        return Math.max(1, sourceHeight / (targetHeight * 2));
+    }
+
+    /** Progressive bilinear downscale (halving, then one final step); upscales in a single step. */
+    public static BufferedImage scaleToHeight(BufferedImage source, int targetHeight) {
+        int targetWidth = Math.max(1, (int) Math.round((double) source.getWidth() * targetHeight / source.getHeight()));
+        boolean translucent = source.getColorModel().hasAlpha();
+
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        do {
+            // Halving keeps every source pixel contributing to the bilinear result
+            if (w / 2 >= targetWidth && h / 2 >= targetHeight) {
+                w /= 2;
+                h /= 2;
+            } else {
+                w = targetWidth;
+                h = targetHeight;
+            }
+            BufferedImage next = createCompatible(w, h, translucent);
+            Graphics2D g = next.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(current, 0, 0, w, h, null);
+            g.dispose();
+            current = next;
+        } while (w != targetWidth || h != targetHeight);
+        return current;
+    }
+
+    private static BufferedImage createCompatible(int w, int h, boolean translucent) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            return gc.createCompatibleImage(w, h, translucent ? Transparency.TRANSLUCENT : Transparency.OPAQUE);
+        }
+        return new BufferedImage(w, h, translucent ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+    }
+}
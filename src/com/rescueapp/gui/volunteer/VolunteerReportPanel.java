@@ -4,22 +4,28 @@ import com.rescueapp.core.Report;
 import com.rescueapp.core.User;
 import com.rescueapp.db.RescueAppDbConnector;
 import com.rescueapp.db.dao.RescueAppReportDAO;
+import com.rescueapp.gui.util.AsyncLoader;
+import com.rescueapp.gui.util.AsyncWriter;
+import com.rescueapp.gui.util.PagedTableModel;
+import com.rescueapp.gui.util.TableRows;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 
 @SuppressWarnings("serial")
 public class VolunteerReportPanel extends JPanel {
 
     private JTable table;
-    private DefaultTableModel model;
+    private PagedTableModel<Report> model;
     private RescueAppReportDAO reportDAO;
+    private final AsyncLoader<List<Report>> loader;
+    private final AsyncWriter writer = new AsyncWriter(this);
 
     public VolunteerReportPanel(User user) {
         super(new BorderLayout(10, 10));
+        loader = new AsyncLoader<>(this);
 
         try {
             RescueAppDbConnector db = new RescueAppDbConnector();
@@ -31,16 +37,26 @@ public class VolunteerReportPanel extends JPanel {
 
         JLabel title = new JLabel("View & Update Reports");
         title.setFont(new Font("Segoe UI", Font.BOLD, 20));
-        add(title, BorderLayout.NORTH);
+        add(loader.decorate(title), BorderLayout.NORTH);
 
         String[] columns = {"Report ID", "Description", "Location", "Urgency", "Status", "Date"};
-        model = new DefaultTableModel(columns, 0) {
-            @Override public boolean isCellEditable(int row, int column) { return false; }
+        model = new PagedTableModel<Report>(columns, (after, limit) -> reportDAO.getReportsPage(after, limit), loader) {
+            @Override
+            protected Object getColumnValue(Report report, int column) {
+                switch (column) {
+                    case 0: return report.getReportId();
+                    case 1: return report.getDescription();
+                    case 2: return report.getLocation();
+                    case 3: return report.getUrgency();
+                    case 4: return report.getStatus();
+                    default: return report.getDate();
+                }
+            }
         };
         table = new JTable(model);
         table.setFont(new Font("Segoe UI", Font.PLAIN, 14));
         table.setRowHeight(25);
-        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        table.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION); // bulk status changes
         
         table.getColumnModel().getColumn(0).setMinWidth(0); // Hide ID
         table.getColumnModel().getColumn(0).setMaxWidth(0);
@@ -65,41 +81,32 @@ public class VolunteerReportPanel extends JPanel {
     }
 
     private void loadReports() {
-        model.setRowCount(0);
         if (reportDAO == null) return;
-        try {
-            List<Report> reports = reportDAO.getAllReports();
-            for (Report report : reports) {
-                // Show only reports that are 'Open' or 'Investigating' for volunteers? (Optional filter)
-                // if (report.getStatus().equalsIgnoreCase("Open") || report.getStatus().equalsIgnoreCase("Investigating")) {
-                    model.addRow(new Object[]{
-                            report.getReportId(),
-                            report.getDescription(),
-                            report.getLocation(),
-                            report.getUrgency(),
-                            report.getStatus(),
-                            report.getDate()
-                    });
-                // }
-            }
-        } catch (SQLException e) { e.printStackTrace(); }
+        model.reload();
     }
 
+    /** Sets the status on every selected report with one UPDATE and repaints just those rows. */
     private void updateReportStatus(String newStatus) {
-        int selectedRow = table.getSelectedRow();
-        if (selectedRow == -1) {
-            JOptionPane.showMessageDialog(this, "Please select a report to update.", "No Report Selected", JOptionPane.WARNING_MESSAGE);
+        int[] rows = TableRows.selectedModelRows(table);
+        if (rows.length == 0) {
+            JOptionPane.showMessageDialog(this, "Please select one or more reports to update.", "No Report Selected", JOptionPane.WARNING_MESSAGE);
             return;
         }
 
-        String reportId = (String) model.getValueAt(selectedRow, 0);
-        try {
-            reportDAO.updateReportStatus(reportId, newStatus);
-            JOptionPane.showMessageDialog(this, "Report status updated to '" + newStatus + "'!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            loadReports(); // Refresh
-        } catch (SQLException e) {
+        List<String> reportIds = new ArrayList<>();
+        for (int row : rows) {
+            reportIds.add(model.getRow(row).getReportId());
+        }
+        writer.run(() -> reportDAO.updateStatuses(reportIds, newStatus), updated -> {
+            if (TableRows.stillAt(model, rows, 0, reportIds)) {
+                model.updateRows(rows, r -> r.setStatus(newStatus));
+            } else {
+                loadReports(); // the table was reloaded while the update ran
+            }
+            JOptionPane.showMessageDialog(this, updated + " report(s) updated to '" + newStatus + "'!", "Success", JOptionPane.INFORMATION_MESSAGE);
+        }, e -> {
             e.printStackTrace();
             JOptionPane.showMessageDialog(this, "Failed to update report status.", "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
 }
\ No newline at end of file
@@ -3,12 +3,14 @@ package com.rescueapp.gui.volunteer;
 import com.rescueapp.core.Task;
 import com.rescueapp.core.User;
 import com.rescueapp.db.RescueAppDbConnector;
+import com.rescueapp.db.RescueAppWriteBehindQueue;
 import com.rescueapp.db.dao.RescueAppTaskDAO;
+import com.rescueapp.gui.util.AsyncLoader;
+import com.rescueapp.gui.util.TableRows;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.SQLException;
 import java.util.List;
 
 @SuppressWarnings("serial")
@@ -18,10 +20,19 @@ public class VolunteerTaskPanel extends JPanel {
     private DefaultTableModel model;
     private RescueAppTaskDAO taskDAO;
     private User loggedInVolunteer;
+    private final AsyncLoader<List<Task>> loader;
+    // Status clicks the write-behind queue gave up on: tell the volunteer and show the stored status again
+    private final RescueAppWriteBehindQueue.DropListener dropListener = (status, ids, cause) ->
+            SwingUtilities.invokeLater(() -> {
+                JOptionPane.showMessageDialog(this, ids.size() + " task status change(s) to '" + status
+                        + "' could not be saved. Please try again.", "Update Failed", JOptionPane.ERROR_MESSAGE);
+                loadTasks();
+            });
 
     public VolunteerTaskPanel(User user) {
         super(new BorderLayout(10, 10));
         this.loggedInVolunteer = user;
+        loader = new AsyncLoader<>(this);
 
         try {
             RescueAppDbConnector db = new RescueAppDbConnector();
@@ -35,7 +46,7 @@ public class VolunteerTaskPanel extends JPanel {
 
         JLabel title = new JLabel("My Assigned Tasks");
         title.setFont(new Font("Segoe UI", Font.BOLD, 20));
-        add(title, BorderLayout.NORTH);
+        add(loader.decorate(title), BorderLayout.NORTH);
 
         String[] columns = {"Task ID", "Description", "Status", "Date"};
         model = new DefaultTableModel(columns, 0) {
@@ -44,7 +55,7 @@ public class VolunteerTaskPanel extends JPanel {
         table = new JTable(model);
         table.setFont(new Font("Segoe UI", Font.PLAIN, 14));
         table.setRowHeight(25);
-        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        table.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION); // bulk status changes
         
         table.getColumnModel().getColumn(0).setMinWidth(0);
         table.getColumnModel().getColumn(0).setMaxWidth(0);
@@ -67,40 +78,46 @@ public class VolunteerTaskPanel extends JPanel {
         loadTasks();
     }
 
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        RescueAppTaskDAO.addStatusDropListener(dropListener);
+    }
+
+    @Override
+    public void removeNotify() {
+        RescueAppTaskDAO.removeStatusDropListener(dropListener); // the dashboard was closed
+        super.removeNotify();
+    }
+
     private void loadTasks() {
-        model.setRowCount(0);
         if (taskDAO == null) return;
-        try {
-            // Use the new method from your DAO
-            List<Task> tasks = taskDAO.getTasksForVolunteer(loggedInVolunteer.getUserId());
+        String volunteerId = loggedInVolunteer.getUserId();
+        loader.load(() -> taskDAO.getTasksForVolunteer(volunteerId), tasks -> {
+            model.setRowCount(0);
             for (Task task : tasks) {
+                String pending = taskDAO.getPendingStatus(task.getTaskId()); // clicked but not written yet
                 model.addRow(new Object[]{
                         task.getTaskId(),
                         task.getDescription(),
-                        task.getStatus(),
+                        pending != null ? pending : task.getStatus(),
                         task.getDate()
                 });
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        }, Exception::printStackTrace);
     }
 
     private void updateTaskStatus(String newStatus) {
-        int selectedRow = table.getSelectedRow();
-        if (selectedRow == -1) {
-            JOptionPane.showMessageDialog(this, "Please select a task to update.", "No Task Selected", JOptionPane.WARNING_MESSAGE);
+        int[] rows = TableRows.selectedModelRows(table);
+        if (rows.length == 0) {
+            JOptionPane.showMessageDialog(this, "Please select one or more tasks to update.", "No Task Selected", JOptionPane.WARNING_MESSAGE);
             return;
         }
 
-        String taskId = (String) model.getValueAt(selectedRow, 0);
-        try {
-            taskDAO.updateTaskStatus(taskId, newStatus);
-            JOptionPane.showMessageDialog(this, "Task status updated to '" + newStatus + "'!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            loadTasks(); // Refresh the table
-        } catch (SQLException e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Failed to update task status.", "Database Error", JOptionPane.ERROR_MESSAGE);
+        // Update the rows in place; the UPDATEs are batched by status in the write-behind queue
+        for (int row : rows) {
+            taskDAO.updateTaskStatusLater((String) model.getValueAt(row, 0), newStatus);
         }
+        TableRows.setColumn(model, rows, 2, newStatus);
     }
 }
\ No newline at end of file